@@ -0,0 +1,41 @@
+package org.nicegamepads;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes their results as JSON, so that results
+ * from different builds can be compared to spot regressions.
+ * <p>
+ * Usage: <code>BenchmarkRunner [resultFile [includeRegex]]</code>.  The
+ * results go to <code>jmh-result.json</code> unless another file is
+ * named, and every benchmark in the "bench" directory runs unless a
+ * regular expression selecting some of them is given.
+ */
+public class BenchmarkRunner
+{
+    /**
+     * File the results are written to by default.
+     */
+    private final static String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Selects every benchmark in this library.
+     */
+    private final static String DEFAULT_INCLUDE = "org\\.nicegamepads\\..*Benchmark";
+
+    public final static void main(String[] args) throws RunnerException
+    {
+        String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+        String include = args.length > 1 ? args[1] : DEFAULT_INCLUDE;
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(include)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile);
+        new Runner(options.build()).run();
+        System.out.println("Results written to " + resultFile);
+    }
+}
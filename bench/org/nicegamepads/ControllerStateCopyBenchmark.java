@@ -0,0 +1,60 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the two ways of copying a {@link ControllerState}: constructing
+ * a deep copy, as snapshots used to be taken, against overwriting an
+ * existing state with {@link ControllerState#copyFrom(ControllerState)},
+ * as the state pool and {@link ControllerPoller#readLatest(ControllerState)}
+ * do now.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerStateCopyBenchmark
+{
+    @Param({"4", "32", "128"})
+    public int controls;
+
+    private ControllerState source;
+    private ControllerState destination;
+
+    @Setup
+    public void setUp()
+    {
+        NiceController controller = new SyntheticController(
+                "Synthetic " + controls, controls,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        source = new ControllerState(controller);
+        destination = new ControllerState(controller);
+    }
+
+    @Benchmark
+    public ControllerState copyConstructor()
+    {
+        return new ControllerState(source);
+    }
+
+    @Benchmark
+    public ControllerState copyFrom()
+    {
+        destination.copyFrom(source);
+        return destination;
+    }
+}
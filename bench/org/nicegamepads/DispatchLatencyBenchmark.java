@@ -0,0 +1,86 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency from the start of a polling cycle to the moment a
+ * listener has seen the result of that cycle, for each
+ * {@link DispatchMode}.
+ * <p>
+ * Each invocation polls a {@link SyntheticController} on the benchmark
+ * thread and then spins until a {@link ControllerPollingListener} has
+ * been called for that cycle, so the executor dispatch modes include the
+ * hand-off to the event dispatcher thread while {@link DispatchMode#DIRECT}
+ * does not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchLatencyBenchmark
+{
+    @Param({"PER_EVENT", "BATCHED", "DIRECT"})
+    public DispatchMode dispatchMode;
+
+    @Param({"16"})
+    public int controls;
+
+    private ControllerPoller poller;
+    private volatile long cyclesSeen = 0L;
+    private long cyclesPolled = 0L;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController controller = new SyntheticController(
+                "Synthetic " + controls, controls,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        poller = ControllerPoller.getInstance(controller);
+        // We drive polling ourselves so that it happens on this thread.
+        poller.stopPolling();
+        poller.setAllocationFreeMode(true);
+        poller.setDispatchMode(dispatchMode);
+        poller.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                cyclesSeen++;
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        ControllerManager.shutdownNow();
+    }
+
+    @Benchmark
+    public long pollToListener()
+    {
+        final long expected = ++cyclesPolled;
+        poller.poll();
+        while (cyclesSeen < expected)
+        {
+            Thread.yield();
+        }
+        return expected;
+    }
+}
@@ -0,0 +1,80 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a single {@link ControllerPoller#poll()} cycle on
+ * the calling thread.
+ * <p>
+ * The poller reads a {@link SyntheticController} whose controls change on
+ * every poll, so every cycle transforms every control and, when a listener
+ * is registered, emits an event for each one.  Events are delivered
+ * {@link DispatchMode#DIRECT directly} to a listener that does nothing, so
+ * the figures include building and delivering events but no hand-off to
+ * another thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PollBenchmark
+{
+    @Param({"4", "32", "128"})
+    public int controls;
+
+    @Param({"false", "true"})
+    public boolean listening;
+
+    private ControllerPoller poller;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController controller = new SyntheticController(
+                "Synthetic " + controls, controls,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        poller = ControllerPoller.getInstance(controller);
+        // Poll only when the benchmark says so.
+        poller.stopPolling();
+        poller.setDispatchMode(DispatchMode.DIRECT);
+        if (listening)
+        {
+            poller.addControlChangeListener(new ControlChangeListener(){
+                @Override
+                public void valueChanged(ControlEvent event)
+                {
+                    // Only here to consume events.
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        ControllerManager.shutdownNow();
+    }
+
+    @Benchmark
+    public void poll()
+    {
+        poller.poll();
+    }
+}
@@ -0,0 +1,107 @@
+package org.nicegamepads;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many controller polls per second the framework sustains
+ * with different numbers of polling threads.
+ * <p>
+ * Each invocation polls every one of a set of {@link SyntheticController}s
+ * once, each on the polling thread it is assigned to, and waits for all of
+ * them to finish.  The controllers block for a configurable time in every
+ * poll, as real devices can, so throughput should grow with the number of
+ * threads until every controller has a thread of its own.  Every
+ * combination runs in its own fork, since the framework can only be
+ * initialized once per JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PollingScalingBenchmark
+{
+    private final static int CONTROLLERS = 16;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int pollingThreads;
+
+    @Param({"0", "100000"})
+    public long pollLatencyNanos;
+
+    private ControllerPoller[] pollers;
+    private Callable<Void>[] polls;
+    private Future<?>[] futures;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception
+    {
+        ControllerManager.initialize(
+                ControllerManager.DEFAULT_DISPATCH_QUEUE_CAPACITY,
+                ControllerManager.DEFAULT_OVERFLOW_POLICY,
+                Executors.defaultThreadFactory(), false, pollingThreads);
+        pollers = new ControllerPoller[CONTROLLERS];
+        polls = new Callable[CONTROLLERS];
+        futures = new Future[CONTROLLERS];
+        for (int index = 0; index < CONTROLLERS; index++)
+        {
+            SyntheticController synthetic = new SyntheticController(
+                    "Synthetic " + index, 16,
+                    new float[] {-1f, -0.5f, 0f, 0.5f, 1f});
+            synthetic.setPollLatency(pollLatencyNanos);
+            final ControllerPoller poller =
+                ControllerPoller.getInstance(synthetic.wrap());
+            // Replace the default schedule with our own.
+            poller.stopPolling();
+            pollers[index] = poller;
+            polls[index] = new Callable<Void>(){
+                @Override
+                public Void call()
+                {
+                    poller.poll();
+                    return null;
+                }
+            };
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        ControllerManager.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONTROLLERS)
+    public void pollAll() throws Exception
+    {
+        for (int index = 0; index < CONTROLLERS; index++)
+        {
+            futures[index] = pollers[index].getPollingService().submit(polls[index]);
+        }
+        for (int index = 0; index < CONTROLLERS; index++)
+        {
+            futures[index].get();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.nicegamepads;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of {@link ControllerPoller#readLatest(ControllerState)}
+ * on a reader thread while the poller publishes new cycles concurrently.
+ * <p>
+ * Polling is driven by a dedicated thread at the configured rate (or not
+ * at all, for a baseline with no contention) against a
+ * {@link SyntheticController}, with no listeners registered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadLatestBenchmark
+{
+    @Param({"0", "1000"})
+    public int pollHz;
+
+    @Param({"16", "64"})
+    public int controls;
+
+    private ControllerPoller poller;
+    private ScheduledExecutorService pollingThread;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController controller = new SyntheticController(
+                "Synthetic " + controls, controls,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        poller = ControllerPoller.getInstance(controller);
+        // Replace the default schedule with our own.
+        poller.stopPolling();
+        poller.poll();
+        if (pollHz > 0)
+        {
+            pollingThread = Executors.newSingleThreadScheduledExecutor();
+            long periodNanos = TimeUnit.SECONDS.toNanos(1) / pollHz;
+            pollingThread.scheduleAtFixedRate(new Runnable(){
+                @Override
+                public void run()
+                {
+                    poller.poll();
+                }
+            }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        if (pollingThread != null)
+        {
+            pollingThread.shutdownNow();
+        }
+        ControllerManager.shutdownNow();
+    }
+
+    /**
+     * Per-reader buffer, as a game loop would keep.
+     */
+    @State(Scope.Thread)
+    public static class Reader
+    {
+        ControllerState buffer;
+
+        @Setup(Level.Trial)
+        public void setUp(ReadLatestBenchmark benchmark)
+        {
+            buffer = benchmark.poller.createStateBuffer();
+        }
+    }
+
+    @Benchmark
+    public long readLatest(Reader reader)
+    {
+        poller.readLatest(reader.buffer);
+        return reader.buffer.getTimestamp();
+    }
+}
@@ -0,0 +1,83 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nicegamepads.VirtualAnalogStick.PhysicalConstraints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link VirtualAnalogStick}'s calculation of a
+ * {@link BoundedVector} from a pair of axis values.
+ * <p>
+ * The stick is measured at rest, which the calculation short-circuits, and
+ * while moving, which needs the full trigonometry.
+ * Each invocation processes a fixed set of positions, reported per
+ * position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VirtualAnalogStickBenchmark
+{
+    /**
+     * Number of positions processed per invocation.
+     */
+    private final static int NUM_POSITIONS = 64;
+
+    @Param({"false", "true"})
+    public boolean moving;
+
+    @Param({"UNCONSTRAINED", "CIRCULAR"})
+    public PhysicalConstraints constraints;
+
+    private float[] horizontal;
+    private float[] vertical;
+
+    @Setup
+    public void setUp()
+    {
+        horizontal = new float[NUM_POSITIONS];
+        vertical = new float[NUM_POSITIONS];
+        if (moving)
+        {
+            for (int index = 0; index < NUM_POSITIONS; index++)
+            {
+                // Across the north-western quadrant, at a range of
+                // distances from center.  Directions in the other quadrants
+                // currently fail the range checks in BoundedVector.
+                double angle = Math.PI
+                    * (0.5d + 0.5d * index / (NUM_POSITIONS - 1));
+                float magnitude = (index % 4 + 1) / 4f;
+                horizontal[index] = (float) (magnitude * Math.cos(angle));
+                vertical[index] = (float) (magnitude * Math.sin(angle));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_POSITIONS)
+    public void calculate(Blackhole blackhole)
+    {
+        for (int index = 0; index < NUM_POSITIONS; index++)
+        {
+            blackhole.consume(VirtualAnalogStick.calculate(constraints,
+                    HorizontalOrientation.EAST_POSITIVE, horizontal[index],
+                    VerticalOrientation.NORTH_POSITIVE, vertical[index]));
+        }
+    }
+}
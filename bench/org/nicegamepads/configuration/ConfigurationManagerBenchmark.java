@@ -0,0 +1,87 @@
+package org.nicegamepads.configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.nicegamepads.NiceController;
+import org.nicegamepads.SyntheticController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures saving a {@link ControllerConfiguration} to a file and loading
+ * it back with {@link ConfigurationManager}.
+ * <p>
+ * The configuration belongs to a {@link SyntheticController} and gives
+ * every control a dead zone and a value ID, so that the files are about as
+ * large as those of a configured gamepad.  Both operations go through a
+ * temporary file, so the figures include the file system.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationManagerBenchmark
+{
+    @Param({"16", "64"})
+    public int controls;
+
+    private NiceController controller;
+    private ControllerConfiguration configuration;
+    private File saveFile;
+    private File loadFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        controller = new SyntheticController("Synthetic " + controls,
+                controls, new float[] {0f}).wrap();
+        ControllerConfigurationBuilder builder =
+            new ControllerConfigurationBuilder(controller);
+        int id = 0;
+        for (ControlConfigurationBuilder controlBuilder :
+            builder.getConfigurationBuilders().values())
+        {
+            controlBuilder.setDeadZoneBounds(-0.1f, 0.1f);
+            controlBuilder.setValueId(1f, id++);
+        }
+        configuration = builder.build();
+
+        saveFile = File.createTempFile("nicegamepads-bench", ".xml");
+        loadFile = File.createTempFile("nicegamepads-bench", ".xml");
+        ConfigurationManager.saveConfiguration(configuration, loadFile);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        saveFile.delete();
+        loadFile.delete();
+    }
+
+    @Benchmark
+    public void save() throws IOException
+    {
+        ConfigurationManager.saveConfiguration(configuration, saveFile);
+    }
+
+    @Benchmark
+    public ControllerConfiguration load()
+    throws IOException, ConfigurationException
+    {
+        return ConfigurationManager.loadConfiguration(controller, loadFile);
+    }
+}
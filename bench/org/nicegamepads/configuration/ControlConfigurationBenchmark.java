@@ -0,0 +1,102 @@
+package org.nicegamepads.configuration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nicegamepads.NiceControl;
+import org.nicegamepads.NiceController;
+import org.nicegamepads.SyntheticController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the per-control work a poller does with each polled value:
+ * applying the control's {@link ControlTransform} and looking up the
+ * value's ID with {@link ControlConfiguration#getValueId(float)}.
+ * <p>
+ * Configurations are built for a {@link SyntheticController}, either left
+ * at their defaults or shaped with a dead zone, a granularity, inversion
+ * and a handful of value IDs, so that every stage of the transform runs.
+ * Each invocation processes a fixed spread of values, reported per value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControlConfigurationBenchmark
+{
+    /**
+     * Number of values processed per invocation.
+     */
+    private final static int NUM_PROBES = 128;
+
+    @Param({"false", "true"})
+    public boolean shaped;
+
+    private ControlTransform transform;
+    private ControlConfiguration configuration;
+    private float[] probes;
+
+    @Setup
+    public void setUp()
+    {
+        NiceController controller = new SyntheticController(
+                "Synthetic", 1, new float[] {0f}).wrap();
+        NiceControl control = controller.getControls().get(0);
+        ControllerConfigurationBuilder builder =
+            new ControllerConfigurationBuilder(controller);
+        if (shaped)
+        {
+            ControlConfigurationBuilder controlBuilder =
+                builder.getConfigurationBuilder(control);
+            controlBuilder.setDeadZoneBounds(-0.1f, 0.1f);
+            controlBuilder.setGranularity(0.25f);
+            controlBuilder.setInverted(true);
+            controlBuilder.setValueId(-1f, 1);
+            controlBuilder.setValueId(-0.5f, 2);
+            controlBuilder.setValueId(0.5f, 3);
+            controlBuilder.setValueId(1f, 4);
+        }
+        ControllerConfiguration controllerConfiguration = builder.build();
+        transform = controllerConfiguration.getTransform(0);
+        configuration = controllerConfiguration.getConfiguration(control);
+
+        probes = new float[NUM_PROBES];
+        for (int index = 0; index < NUM_PROBES; index++)
+        {
+            probes[index] = -1f + (2f * index) / (NUM_PROBES - 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_PROBES)
+    public void transform(Blackhole blackhole)
+    {
+        for (float probe : probes)
+        {
+            blackhole.consume(transform.apply(probe));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_PROBES)
+    public void getValueId(Blackhole blackhole)
+    {
+        for (float probe : probes)
+        {
+            blackhole.consume(configuration.getValueId(probe));
+        }
+    }
+}
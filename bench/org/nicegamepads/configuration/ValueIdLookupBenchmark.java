@@ -0,0 +1,101 @@
+package org.nicegamepads.configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares value-ID lookups through the boxed
+ * <code>Map&lt;Float, Integer&gt;</code> that
+ * {@link ControlConfiguration#getValueId(float)} used to consult against
+ * the primitive {@link FloatIntMap} that it uses now.
+ * <p>
+ * Each invocation looks up a fixed mix of values, half of which are bound
+ * and half of which are not, just as a poller does for controls that sit
+ * between bound values most of the time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueIdLookupBenchmark
+{
+    /**
+     * Number of lookups per invocation.
+     */
+    private final static int NUM_PROBES = 128;
+
+    @Param({"0", "4", "64"})
+    public int bindings;
+
+    private Map<Float, Integer> boxed;
+    private FloatIntMap primitive;
+    private float[] probes;
+
+    @Setup
+    public void setUp()
+    {
+        boxed = new HashMap<Float, Integer>();
+        for (int index = 0; index < bindings; index++)
+        {
+            boxed.put(bindingValue(index), index);
+        }
+        primitive = FloatIntMap.copyOf(boxed);
+
+        probes = new float[NUM_PROBES];
+        for (int index = 0; index < NUM_PROBES; index++)
+        {
+            if (bindings > 0 && index % 2 == 0)
+            {
+                probes[index] = bindingValue(index % bindings);
+            }
+            else
+            {
+                // Somewhere between the bound values.
+                probes[index] = -1f + (index + 0.5f) / NUM_PROBES;
+            }
+        }
+    }
+
+    /**
+     * Spreads bound values evenly across [-1, 1].
+     */
+    private float bindingValue(int index)
+    {
+        return -1f + (2f * index) / Math.max(1, bindings);
+    }
+
+    @Benchmark
+    public void boxedMap(Blackhole blackhole)
+    {
+        for (float probe : probes)
+        {
+            Integer stored = boxed.get(probe);
+            blackhole.consume(stored == null ? Integer.MIN_VALUE : stored.intValue());
+        }
+    }
+
+    @Benchmark
+    public void primitiveMap(Blackhole blackhole)
+    {
+        for (float probe : probes)
+        {
+            blackhole.consume(primitive.get(probe));
+        }
+    }
+}
@@ -1,19 +1,19 @@
-package org.nicegamepads.demo;
-
-/**
- * Simple demo that demonstrates how to use NiceGamepads.
- * 
- * @author Andrew Hayden
- */
-public class NicegamepadsDemo
-{
-    /**
-     * Runs the main application.
-     * 
-     * @param args command-line arguments
-     */
-    public final static void main(String[] args)
-    {
-        
-    }
+package org.nicegamepads.demo;
+
+/**
+ * Simple demo that demonstrates how to use NiceGamepads.
+ * 
+ * @author Andrew Hayden
+ */
+public class NicegamepadsDemo
+{
+    /**
+     * Runs the main application.
+     * 
+     * @param args command-line arguments
+     */
+    public final static void main(String[] args)
+    {
+        
+    }
 }
\ No newline at end of file
@@ -1,103 +1,293 @@
-package org.nicegamepads;
-
-/**
- * Encapsulates information about an event from a control.
- * 
- * @author Andrew Hayden
- */
-public class ControlEvent
-{
-    /**
-     * The parent controller in which the source control resides, if
-     * known; otherwise, <code>null</code>.
-     * <p>
-     * If set, this is always the immediate parent controller of the
-     * control.
-     */
-    public final NiceController sourceController;
-
-    /**
-     * The control that generated the event.
-     */
-    public final NiceControl sourceControl;
-
-    /**
-     * The user-defined ID for the source control, if any; otherwise,
-     * {@link Integer#MIN_VALUE}.
-     */
-    public final int userDefinedControlId;
-
-    /**
-     * The current value of the control at the time this event was fired,
-     * or {@link Float#NaN} if there is no applicable value.
-     */
-    public final float currentValue;
-
-    /**
-     * The current user-defined value ID bound to the current value, if any;
-     * otherwise, {@link Integer#MIN_VALUE}.
-     */
-    public final int currentValueId;
-
-    /**
-     * The value of the control at the previous time the source control,
-     * was polled, or {@link Float#NaN} if there is no applicable value.
-     */
-    public final float previousValue;
-
-    /**
-     * The current user-defined value ID bound to the previous value, if any;
-     * otherwise, {@link Integer#MIN_VALUE}.
-     */
-    public final int previousValueId;
-
-    /**
-     * Constructs a new control event.
-     * 
-     * @param topLevelSourceController
-     * @param sourceControl
-     * @param userDefinedControlId
-     * @param currentValue
-     * @param currentValueId
-     * @param previousValue
-     * @param previousValueId
-     */
-    public ControlEvent(NiceController topLevelSourceController,
-            NiceControl sourceControl, int userDefinedNiceControlId,
-            float currentValue, int currentValueId, float previousValue,
-            int previousValueId)
-    {
-        super();
-        this.sourceController = topLevelSourceController;
-        this.sourceControl = sourceControl;
-        this.userDefinedControlId = userDefinedNiceControlId;
-        this.currentValue = currentValue;
-        this.currentValueId = currentValueId;
-        this.previousValue = previousValue;
-        this.previousValueId = previousValueId;
-    }
-
-    @Override
-    public String toString()
-    {
-        StringBuilder buffer = new StringBuilder();
-        buffer.append(ControlEvent.class.getName());
-        buffer.append(": [");
-        buffer.append("sourceController=");
-        buffer.append(sourceController);
-        buffer.append(", sourceNiceControl=");
-        buffer.append(sourceControl);
-        buffer.append(", userDefinedControlId=");
-        buffer.append(userDefinedControlId);
-        buffer.append(", previousValue=");
-        buffer.append(previousValue);
-        buffer.append(", previousValueId=");
-        buffer.append(previousValueId);
-        buffer.append(", currentValue=");
-        buffer.append(currentValue);
-        buffer.append(", currentValueId=");
-        buffer.append(currentValueId);
-        buffer.append("]");
-        return buffer.toString();
-    }
+package org.nicegamepads;
+
+/**
+ * Encapsulates information about an event from a control.
+ * <p>
+ * Events are immutable, with two opt-in exceptions: events created by a
+ * {@link ControllerPoller} that is in allocation-free mode (see
+ * {@link ControllerPoller#setAllocationFreeMode(boolean)}) and events
+ * handed to an {@link EventSink} are reused by the framework.  The values
+ * of a reused event are only available from its getters; its public fields
+ * hold no values (<code>null</code>, {@link Float#NaN},
+ * {@link Integer#MIN_VALUE} and -1).  The getters work for every event, so
+ * code that may receive reused events should use them throughout.
+ * <p>
+ * A reused event from an allocation-free poller is recycled once every
+ * listener has seen it.  It is only valid for the duration of the listener
+ * callback that receives it; a listener that needs to hold on to the event
+ * for longer must call {@link #retain()} before returning and
+ * {@link #release()} when done with it, or else copy the values it needs.
+ * For all other events these methods do nothing.
+ * 
+ * @author Andrew Hayden
+ */
+public class ControlEvent
+{
+    /**
+     * The parent controller in which the source control resides, if
+     * known; otherwise, <code>null</code>.
+     * <p>
+     * If set, this is always the immediate parent controller of the
+     * control.
+     */
+    public final NiceController sourceController;
+
+    /**
+     * The control that generated the event.
+     */
+    public final NiceControl sourceControl;
+
+    /**
+     * The user-defined ID for the source control, if any; otherwise,
+     * {@link Integer#MIN_VALUE}.
+     */
+    public final int userDefinedControlId;
+
+    /**
+     * The current value of the control at the time this event was fired,
+     * or {@link Float#NaN} if there is no applicable value.
+     */
+    public final float currentValue;
+
+    /**
+     * The current user-defined value ID bound to the current value, if any;
+     * otherwise, {@link Integer#MIN_VALUE}.
+     */
+    public final int currentValueId;
+
+    /**
+     * The value of the control at the previous time the source control,
+     * was polled, or {@link Float#NaN} if there is no applicable value.
+     */
+    public final float previousValue;
+
+    /**
+     * The current user-defined value ID bound to the previous value, if any;
+     * otherwise, {@link Integer#MIN_VALUE}.
+     */
+    public final int previousValueId;
+
+    /**
+     * The time of the poll that produced this event, in milliseconds since
+     * the epoch, or -1 if the event did not come from a poll.
+     */
+    public final long timestamp;
+
+    /**
+     * The time of the poll that produced this event, as a
+     * {@link System#nanoTime()} value, or
+     * {@link ControllerState#NO_TIMESTAMP} if the event did not come from
+     * a poll.
+     * <p>
+     * Unlike {@link #timestamp}, this never goes backwards, so it is the
+     * one to use for measuring the time between events.
+     */
+    public final long timestampNanos;
+
+    /**
+     * Constructs a new control event.
+     * 
+     * @param topLevelSourceController
+     * @param sourceControl
+     * @param userDefinedControlId
+     * @param currentValue
+     * @param currentValueId
+     * @param previousValue
+     * @param previousValueId
+     */
+    public ControlEvent(NiceController topLevelSourceController,
+            NiceControl sourceControl, int userDefinedNiceControlId,
+            float currentValue, int currentValueId, float previousValue,
+            int previousValueId)
+    {
+        this(topLevelSourceController, sourceControl,
+                userDefinedNiceControlId, currentValue, currentValueId,
+                previousValue, previousValueId,
+                -1L, ControllerState.NO_TIMESTAMP);
+    }
+
+    /**
+     * Constructs a new control event with the specified timestamps.
+     * 
+     * @param topLevelSourceController
+     * @param sourceControl
+     * @param userDefinedControlId
+     * @param currentValue
+     * @param currentValueId
+     * @param previousValue
+     * @param previousValueId
+     * @param timestamp the time of the poll, in milliseconds since the epoch
+     * @param timestampNanos the time of the poll, as a
+     * {@link System#nanoTime()} value
+     */
+    public ControlEvent(NiceController topLevelSourceController,
+            NiceControl sourceControl, int userDefinedNiceControlId,
+            float currentValue, int currentValueId, float previousValue,
+            int previousValueId, long timestamp, long timestampNanos)
+    {
+        super();
+        this.sourceController = topLevelSourceController;
+        this.sourceControl = sourceControl;
+        this.userDefinedControlId = userDefinedNiceControlId;
+        this.currentValue = currentValue;
+        this.currentValueId = currentValueId;
+        this.previousValue = previousValue;
+        this.previousValueId = previousValueId;
+        this.timestamp = timestamp;
+        this.timestampNanos = timestampNanos;
+    }
+
+    /**
+     * Constructs a new event whose public fields hold no values, for
+     * {@link ReusableControlEvent}.
+     */
+    ControlEvent()
+    {
+        this(null, null, Integer.MIN_VALUE, Float.NaN, Integer.MIN_VALUE,
+                Float.NaN, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Returns the parent controller in which the source control resides,
+     * if known.
+     * 
+     * @return the value of {@link #sourceController} for this event
+     */
+    public NiceController getSourceController()
+    {
+        return sourceController;
+    }
+
+    /**
+     * Returns the control that generated the event.
+     * 
+     * @return the value of {@link #sourceControl} for this event
+     */
+    public NiceControl getSourceControl()
+    {
+        return sourceControl;
+    }
+
+    /**
+     * Returns the user-defined ID for the source control.
+     * 
+     * @return the value of {@link #userDefinedControlId} for this event
+     */
+    public int getUserDefinedControlId()
+    {
+        return userDefinedControlId;
+    }
+
+    /**
+     * Returns the value of the control at the time this event was fired.
+     * 
+     * @return the value of {@link #currentValue} for this event
+     */
+    public float getCurrentValue()
+    {
+        return currentValue;
+    }
+
+    /**
+     * Returns the user-defined value ID bound to the current value.
+     * 
+     * @return the value of {@link #currentValueId} for this event
+     */
+    public int getCurrentValueId()
+    {
+        return currentValueId;
+    }
+
+    /**
+     * Returns the value of the control at the previous poll.
+     * 
+     * @return the value of {@link #previousValue} for this event
+     */
+    public float getPreviousValue()
+    {
+        return previousValue;
+    }
+
+    /**
+     * Returns the user-defined value ID bound to the previous value.
+     * 
+     * @return the value of {@link #previousValueId} for this event
+     */
+    public int getPreviousValueId()
+    {
+        return previousValueId;
+    }
+
+    /**
+     * Returns the time of the poll that produced this event, in
+     * milliseconds since the epoch.
+     * 
+     * @return the value of {@link #timestamp} for this event
+     */
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    /**
+     * Returns the time of the poll that produced this event, as a
+     * {@link System#nanoTime()} value.
+     * 
+     * @return the value of {@link #timestampNanos} for this event
+     */
+    public long getTimestampNanos()
+    {
+        return timestampNanos;
+    }
+
+    /**
+     * Claims an additional reference to this event, preventing it from
+     * being recycled until a matching call to {@link #release()}.
+     * <p>
+     * Has no effect on events that are not pooled.
+     */
+    public void retain()
+    {
+        // Nothing to do.
+    }
+
+    /**
+     * Gives up a reference previously claimed by {@link #retain()}.  When the
+     * last reference is released, a pooled event is returned to its pool and
+     * must no longer be used.
+     * <p>
+     * Has no effect on events that are not pooled.
+     */
+    public void release()
+    {
+        // Nothing to do.
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(ControlEvent.class.getName());
+        buffer.append(": [");
+        buffer.append("sourceController=");
+        buffer.append(getSourceController());
+        buffer.append(", sourceNiceControl=");
+        buffer.append(getSourceControl());
+        buffer.append(", userDefinedControlId=");
+        buffer.append(getUserDefinedControlId());
+        buffer.append(", previousValue=");
+        buffer.append(getPreviousValue());
+        buffer.append(", previousValueId=");
+        buffer.append(getPreviousValueId());
+        buffer.append(", currentValue=");
+        buffer.append(getCurrentValue());
+        buffer.append(", currentValueId=");
+        buffer.append(getCurrentValueId());
+        buffer.append(", timestamp=");
+        buffer.append(getTimestamp());
+        buffer.append(", timestampNanos=");
+        buffer.append(getTimestampNanos());
+        buffer.append("]");
+        return buffer.toString();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package org.nicegamepads;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of reusable {@link ControlEvent}s for a single poller.
+ * <p>
+ * Events are taken from the pool only by the polling thread, but may be
+ * released back to it from any thread.  Because there is exactly one thread
+ * removing events, the free list can be kept as a simple compare-and-set
+ * stack without suffering from the ABA problem.  Nothing is allocated once
+ * the pool has grown large enough to cover the events in flight.
+ *
+ * @author Andrew Hayden
+ */
+final class ControlEventPool
+{
+    /**
+     * Head of the stack of free events.
+     */
+    private final AtomicReference<ReusableControlEvent> head =
+        new AtomicReference<ReusableControlEvent>();
+
+    /**
+     * Takes an event from the pool, creating a new one if the pool is
+     * empty.  The caller holds the only reference to the event.
+     * <p>
+     * This method must only be called from the polling thread.
+     *
+     * @return an event owned by the caller
+     */
+    final ReusableControlEvent acquire()
+    {
+        ReusableControlEvent event;
+        while (true)
+        {
+            event = head.get();
+            if (event == null)
+            {
+                event = new ReusableControlEvent(this);
+                break;
+            }
+            if (head.compareAndSet(event, event.nextFree))
+            {
+                event.nextFree = null;
+                break;
+            }
+        }
+        event.claim();
+        return event;
+    }
+
+    /**
+     * Returns an event to the pool.  Called by
+     * {@link ReusableControlEvent#release()} when the last reference is
+     * released.
+     *
+     * @param event the event to return
+     */
+    final void release(final ReusableControlEvent event)
+    {
+        // Drop references so that the pool doesn't pin controllers.
+        event.set(null, null, Integer.MIN_VALUE, Float.NaN,
+                Integer.MIN_VALUE, Float.NaN, Integer.MIN_VALUE,
+                -1L, ControllerState.NO_TIMESTAMP);
+        while (true)
+        {
+            final ReusableControlEvent current = head.get();
+            event.nextFree = current;
+            if (head.compareAndSet(current, event))
+            {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package org.nicegamepads;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded queue of control events that is filled directly by a
+ * {@link ControllerPoller}'s polling thread and drained by the application
+ * on a thread of its choosing, typically once per frame of a game loop.
+ * <p>
+ * No executor is involved: the polling thread copies each event into a
+ * preallocated slot of a ring buffer, and {@link #drainTo(EventSink, int)}
+ * hands the events to an {@link EventSink} on the calling thread.  Neither
+ * side takes a lock or allocates anything.  What happens when the queue is
+ * full is determined by its {@link OverflowPolicy}.
+ * <p>
+ * Queues are created with
+ * {@link ControllerPoller#createEventQueue(int, OverflowPolicy, ControlEventType...)}.
+ * Each queue has exactly one producer (the polling thread) and must have
+ * exactly one consumer; {@link #drainTo(EventSink, int)} must not be called
+ * from more than one thread at a time.
+ *
+ * @author Andrew Hayden
+ */
+public final class ControlEventQueue
+{
+    /**
+     * How long the polling thread sleeps between checks for space when the
+     * policy is {@link OverflowPolicy#BLOCK}.
+     */
+    private final static long BLOCK_PARK_NANOS = 50000L;
+
+    /**
+     * Maximum number of events in the queue.
+     */
+    private final int capacity;
+
+    /**
+     * What to do when the queue is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Whether or not events of each type (by ordinal) are accepted.
+     */
+    private final boolean[] accepted;
+
+    /**
+     * Types of the events in each slot.
+     */
+    private final ControlEventType[] types;
+
+    /**
+     * Values of the events in each slot.
+     */
+    private final ReusableControlEvent[] slots;
+
+    /**
+     * Event handed to the sink; owned by the consumer.
+     */
+    private final ReusableControlEvent scratch =
+        new ReusableControlEvent(null);
+
+    /**
+     * Sequence number of the next event to be drained.  Normally advanced
+     * only by the consumer, but also by the producer when it discards the
+     * oldest event, hence a compare-and-set.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Sequence number of the next event to be added.  Advanced only by the
+     * producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Number of events discarded because the queue was full.  Written only
+     * by the producer.
+     */
+    private volatile long droppedCount = 0L;
+
+    /**
+     * Whether or not this queue has been removed from its poller.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs a new queue.
+     *
+     * @param capacity the maximum number of events in the queue
+     * @param overflowPolicy what to do when the queue is full
+     * @param acceptedTypes the types of events to accept; if empty, all
+     * types are accepted
+     */
+    ControlEventQueue(final int capacity, final OverflowPolicy overflowPolicy,
+            final ControlEventType... acceptedTypes)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Capacity must be positive: " + capacity);
+        }
+        if (overflowPolicy == null)
+        {
+            throw new IllegalArgumentException(
+                    "Overflow policy cannot be null.");
+        }
+        if (overflowPolicy == OverflowPolicy.COALESCE)
+        {
+            throw new IllegalArgumentException(
+                    "Event queues do not support coalescing.");
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        accepted = new boolean[ControlEventType.values().length];
+        for (ControlEventType type : acceptedTypes)
+        {
+            accepted[type.ordinal()] = true;
+        }
+        if (acceptedTypes.length == 0)
+        {
+            Arrays.fill(accepted, true);
+        }
+        types = new ControlEventType[capacity];
+        slots = new ReusableControlEvent[capacity];
+        for (int index = 0; index < capacity; index++)
+        {
+            slots[index] = new ReusableControlEvent(null);
+        }
+    }
+
+    /**
+     * Adds a copy of the specified event to the queue, if events of its
+     * type are accepted.
+     * <p>
+     * This method must only be called from the polling thread.
+     *
+     * @param type the type of the event
+     * @param event the event
+     */
+    final void offer(final ControlEventType type, final ControlEvent event)
+    {
+        if (!accepted[type.ordinal()])
+        {
+            return;
+        }
+
+        final long sequence = tail.get();
+        long start = head.get();
+        while (sequence - start >= capacity)
+        {
+            switch (overflowPolicy)
+            {
+                case DROP_NEWEST:
+                    droppedCount++;
+                    return;
+                case DROP_OLDEST:
+                    // Fails only if the consumer took the oldest event
+                    // first, in which case there is now room anyway.
+                    if (head.compareAndSet(start, start + 1))
+                    {
+                        droppedCount++;
+                    }
+                    break;
+                case BLOCK:
+                    if (closed)
+                    {
+                        droppedCount++;
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    break;
+                default:
+                    throw new RuntimeException(
+                            "Unsupported overflow policy: " + overflowPolicy);
+            }
+            start = head.get();
+        }
+
+        final int slot = (int) (sequence % capacity);
+        types[slot] = type;
+        slots[slot].copyFrom(event);
+        // Publish the slot.
+        tail.lazySet(sequence + 1);
+    }
+
+    /**
+     * Hands up to the specified number of events to the specified sink,
+     * oldest first, on the calling thread.
+     * <p>
+     * If the sink throws an exception, the exception propagates to the
+     * caller; the event that caused it is not delivered again.
+     *
+     * @param sink the sink to deliver events to
+     * @param maxEvents the maximum number of events to deliver
+     * @return the number of events delivered
+     */
+    public final int drainTo(final EventSink sink, final int maxEvents)
+    {
+        int drained = 0;
+        while (drained < maxEvents)
+        {
+            final long sequence = head.get();
+            if (sequence >= tail.get())
+            {
+                break;
+            }
+            final int slot = (int) (sequence % capacity);
+            final ControlEventType type = types[slot];
+            scratch.copyFrom(slots[slot]);
+            if (!head.compareAndSet(sequence, sequence + 1))
+            {
+                // The producer discarded this event (and may have reused
+                // its slot) while we were copying it; try the next one.
+                continue;
+            }
+            drained++;
+            sink.onEvent(type, scratch);
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the approximate number of events waiting in the queue.
+     *
+     * @return the number of events waiting
+     */
+    public final int size()
+    {
+        final long size = tail.get() - head.get();
+        return (int) Math.max(0L, Math.min(size, capacity));
+    }
+
+    /**
+     * Returns the maximum number of events in the queue.
+     *
+     * @return the capacity of the queue
+     */
+    public final int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns what happens when the queue is full.
+     *
+     * @return the overflow policy
+     */
+    public final OverflowPolicy getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the number of events that have been discarded because the
+     * queue was full.
+     *
+     * @return the number of dropped events
+     */
+    public final long getDroppedCount()
+    {
+        return droppedCount;
+    }
+
+    /**
+     * Marks this queue as removed from its poller, releasing the polling
+     * thread if it is blocked waiting for room.
+     */
+    final void close()
+    {
+        closed = true;
+    }
+}
@@ -0,0 +1,33 @@
+package org.nicegamepads;
+
+/**
+ * The kinds of control-related events that a poller can dispatch.
+ *
+ * @author Andrew Hayden
+ */
+public enum ControlEventType
+{
+    /**
+     * A control has been activated; delivered to
+     * {@link ControlActivationListener#controlActivated(ControlEvent)}.
+     */
+    CONTROL_ACTIVATED,
+
+    /**
+     * A control has been deactivated; delivered to
+     * {@link ControlActivationListener#controlDeactivated(ControlEvent)}.
+     */
+    CONTROL_DEACTIVATED,
+
+    /**
+     * The value of a control has changed; delivered to
+     * {@link ControlChangeListener#valueChanged(ControlEvent)}.
+     */
+    VALUE_CHANGED,
+
+    /**
+     * A control has been polled; delivered to
+     * {@link ControlPollingListener#controlPolled(ControlEvent)}.
+     */
+    CONTROL_POLLED;
+}
@@ -1,307 +1,985 @@
-package org.nicegamepads;
-
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-
-
-/**
- * Main entry point into NiceGamepads.
- * <p>
- * This class is threadsafe.
- * 
- * @author Andrew Hayden
- */
-public final class ControllerManager
-{
-    /**
-     * The one and only event dispatcher for controller polling.
-     */
-    private static volatile ExecutorService eventDispatcher = null;
-
-    /**
-     * Polling service that handles polling of the controller.
-     */
-    private static volatile ScheduledExecutorService pollingService = null;
-
-    /**
-     * Main lock.
-     */
-    private final static Object staticLock = new Object();
-
-    /**
-     * State of the framework.
-     */
-    private static volatile FrameworkState state =
-        FrameworkState.UNINITIALIZED;
-
-    /**
-     * Private constructor discourages unwanted instantiation.
-     */
-    private ControllerManager()
-    {
-        // Private constructor discourages unwanted instantiation.
-    }
-
-    /**
-     * Shuts down the framework gracefully in the near future.
-     * <p>
-     * This method terminates all polling and event dispatching, allowing
-     * any currently-executing and already-enqueued tasks to complete
-     * normally and then gracefully exiting.  The method returns immediately
-     * in all cases, and may be called multiple times safely (calls after
-     * the first do nothing).
-     * <p>
-     * If the framework has not yet been initialized, this method throws an
-     * {@link IllegalStateException}.
-     * 
-     * @see ExecutorService#shutdown()
-     * @throws IllegalStateException if the framework has not yet been
-     * initialized
-     */
-    public final static void shutdown()
-    {
-        synchronized(staticLock)
-        {
-            if (state == FrameworkState.UNINITIALIZED)
-            {
-                throw new IllegalStateException(
-                        "Framework has not been initialized.");
-            }
-
-            getPollingService().shutdown();
-            getEventDispatcher().shutdown();
-            state = FrameworkState.SHUTDOWN; 
-        }
-    }
-
-    /**
-     * Shuts down the framework immediately.
-     * <p>
-     * This method immediately terminates all polling and event dispatching,
-     * attempting to interrupt any currently-executing and cancellent all
-     * enqueued tasks that haven't started execution.
-     * <p>
-     * The method returns immediately in all cases, but there is no guarantee
-     * that all threads will exit in any given time frame.
-     * <p>
-     * This method may be called multiple times safely (calls after
-     * the first do nothing).
-     * <p>
-     * If the framework has not yet been initialized, this method throws an
-     * {@link IllegalStateException}.
-     * 
-     * @see ExecutorService#shutdownNow()
-     * @throws IllegalStateException if the framework has not yet been
-     * initialized
-     */
-    public final static void shutdownNow()
-    {
-        synchronized(staticLock)
-        {
-            if (state == FrameworkState.UNINITIALIZED)
-            {
-                throw new IllegalStateException(
-                        "Framework has not been initialized.");
-            }
-    
-            getPollingService().shutdownNow();
-            getEventDispatcher().shutdownNow();
-            state = FrameworkState.SHUTDOWN; 
-        }
-    }
-
-    /**
-     * Returns whether or not the framework has shutdown.
-     * 
-     * @return <code>true</code> if all framework services have halted.  There
-     * may still be outstanding or currently-running tasks remaining.
-     * 
-     * @see ExecutorService#isShutdown()
-     */
-    public final static boolean isShutdown()
-    {
-        synchronized(staticLock)
-        {
-            if (state == FrameworkState.UNINITIALIZED)
-            {
-                return false;
-            }
-            return getPollingService().isShutdown()
-                && getEventDispatcher().isShutdown();
-        }
-    }
-
-    /**
-     * Returns whether or not the framework has terminated.
-     * 
-     * @return <code>true</code> if all framework services have halted and
-     * there are no outstanding or currently-running tasks remaining.
-     * 
-     * @see ExecutorService#isTerminated()
-     */
-    public final static boolean isTerminated()
-    {
-        synchronized(staticLock)
-        {
-            if (state == FrameworkState.UNINITIALIZED)
-            {
-                return false;
-            }
-            return getPollingService().isTerminated()
-                && getEventDispatcher().isTerminated();
-        }
-    }
-
-    /**
-     * Waits up to the specified amount of time for all framework services
-     * to terminate.
-     * <p>
-     * This method does not initiate a shutdown.  Rather, it waits until
-     * all services have shutdown and all tasks have terminated.  Once both
-     * conditions are true, or the specified timeout expires, this method
-     * returns.
-     * 
-     * @param timeout the maximum amount of time to wait for termination
-     * @param unit the unit of time to wait for
-     * @return <code>true</code> if all services have shutdown and all
-     * tasks have terminated before the specified timeout elapsed;
-     * otherwise, <code>false</code>
-     * @throws InterruptedException if interrupted while waiting
-     * @throws IllegalStateException if the framework has not yet been
-     * initialized
-     * @see ExecutorService#awaitTermination(long, TimeUnit)
-     */
-    public final static boolean awaitTermination(long timeout, TimeUnit unit)
-    throws InterruptedException
-    {
-        synchronized(staticLock)
-        {
-            if (state == FrameworkState.UNINITIALIZED)
-            {
-                throw new IllegalStateException(
-                        "Framework has not been initialized.");
-            }
-
-            long startTime = System.currentTimeMillis();
-            if (timeout <= 0)
-            {
-                throw new IllegalArgumentException(
-                        "Timeout must be greater than 0: " + timeout);
-            }
-    
-            long timeLeft = unit.toMillis(timeout);
-            long endTime = startTime + timeLeft;
-    
-            boolean success = getPollingService().awaitTermination(
-                    timeLeft, TimeUnit.MILLISECONDS);
-            if (success)
-            {
-                // Try to terminate other services
-                timeLeft = endTime - System.currentTimeMillis();
-                if (timeLeft > 0)
-                {
-                    return getEventDispatcher().awaitTermination(
-                            timeLeft, TimeUnit.MILLISECONDS);
-                }
-                else
-                {
-                    return false;
-                }
-            }
-            else
-            {
-                return false;
-            }
-        }
-    }
-
-    /**
-     * Initializes the framework, starting all services and preparing the
-     * system for general usage.
-     * <p>
-     * This method must be called before attempting to access any of the
-     * services in the framework.  Failure to do so will result, in most cases,
-     * in an {@link IllegalStateException} being thrown.  This method may
-     * be called more than once; additional calls have no effect.
-     * <p>
-     * Once the framework has been shut down via
-     * {@link #shutdown()} or {@link #shutdownNow()}, it is no longer
-     * permissible to call this method.  Doing so will result in an
-     * {@link IllegalStateException}.
-     * 
-     * @return <code>true</code> if this call caused the framework to startup;
-     * otherwise, <code>false</code> (i.e., method has already been called)
-     */
-    public final static boolean initialize()
-    {
-        synchronized(staticLock)
-        {
-            if (state == FrameworkState.SHUTDOWN)
-            {
-                throw new IllegalStateException(
-                        "Framework is in shutdown state.");
-            }
-
-            if (state == FrameworkState.UNINITIALIZED)
-            {
-                eventDispatcher = Executors.newSingleThreadExecutor();
-                pollingService = Executors.newSingleThreadScheduledExecutor();
-                state = FrameworkState.INITIALIZED;
-                return true;
-            }
-            return false;
-        }
-    }
-
-    /**
-     * Returns the polling service for the framework.
-     * 
-     * @return the polling service
-     * @throws IllegalStateException if the framework has not yet been
-     * initialized via {@link #initialize()}
-     */
-    public final static ScheduledExecutorService getPollingService()
-    {
-        synchronized(staticLock)
-        {
-            if (state == FrameworkState.UNINITIALIZED)
-            {
-                throw new IllegalStateException(
-                        "Framework has not been initialized.");
-            }
-            return pollingService;
-        }
-    }
-
-    /**
-     * Returns the event dispatcher service for the framework.
-     * 
-     * @return the event dispatcher service
-     * @throws IllegalStateException if the framework has not yet been
-     * initialized via {@link #initialize()}
-     */
-    public final static ExecutorService getEventDispatcher()
-    {
-        synchronized(staticLock)
-        {
-            if (state == FrameworkState.UNINITIALIZED)
-            {
-                throw new IllegalStateException(
-                        "Framework has not been initialized.");
-            }
-            return eventDispatcher;
-        }
-    }
-
-    /**
-     * Possible states of the framework.
-     * 
-     * @author Andrew Hayden
-     */
-    private static enum FrameworkState
-    {
-        UNINITIALIZED, INITIALIZED, SHUTDOWN;
-    }
+package org.nicegamepads;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Main entry point into NiceGamepads.
+ * <p>
+ * This class is threadsafe.
+ * 
+ * @author Andrew Hayden
+ */
+public final class ControllerManager
+{
+    /**
+     * Capacity of the event dispatcher's queue, in tasks, used by
+     * {@link #initialize()}.
+     */
+    public final static int DEFAULT_DISPATCH_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Overflow policy of the event dispatcher used by {@link #initialize()}.
+     * No event is lost when listeners fall behind: value changes for the
+     * same control are merged, and anything else waits for room.
+     */
+    public final static OverflowPolicy DEFAULT_OVERFLOW_POLICY =
+        OverflowPolicy.COALESCE;
+
+    /**
+     * How long shutting down waits for polls that are already running to
+     * finish before the dispatchers are shut down, in milliseconds.
+     */
+    private final static long POLLING_SHUTDOWN_TIMEOUT_MILLIS = 1000L;
+
+    /**
+     * The one and only event dispatcher for controller polling.
+     */
+    private static volatile EventDispatcher eventDispatcher = null;
+
+    /**
+     * Event dispatchers for individual controllers, if the framework was
+     * initialized with one dispatcher per controller.
+     */
+    private final static Map<NiceController, EventDispatcher> controllerDispatchers =
+        new ConcurrentHashMap<NiceController, EventDispatcher>();
+
+    /**
+     * Whether or not each controller gets an event dispatcher of its own.
+     */
+    private static volatile boolean dispatcherPerController = false;
+
+    /**
+     * Capacity of each event dispatcher's queue.
+     */
+    private static volatile int dispatchQueueCapacity =
+        DEFAULT_DISPATCH_QUEUE_CAPACITY;
+
+    /**
+     * Overflow policy of each event dispatcher.
+     */
+    private static volatile OverflowPolicy overflowPolicy =
+        DEFAULT_OVERFLOW_POLICY;
+
+    /**
+     * Factory for the threads of the event dispatchers and dispatch lanes.
+     */
+    private static volatile ThreadFactory dispatchThreadFactory = null;
+
+    /**
+     * Dispatch lanes created through this manager.
+     */
+    private final static List<DispatchLane> dispatchLanes =
+        new CopyOnWriteArrayList<DispatchLane>();
+
+    /**
+     * Polling services that handle polling of the controllers, each with a
+     * single thread.
+     */
+    private static volatile ScheduledExecutorService[] pollingServices = null;
+
+    /**
+     * Number of controllers assigned to each polling service.  Guarded by
+     * {@link #staticLock}.
+     */
+    private static int[] pollingServiceLoads = null;
+
+    /**
+     * Main lock.
+     */
+    private final static Object staticLock = new Object();
+
+    /**
+     * State of the framework.
+     */
+    private static volatile FrameworkState state =
+        FrameworkState.UNINITIALIZED;
+
+    /**
+     * Private constructor discourages unwanted instantiation.
+     */
+    private ControllerManager()
+    {
+        // Private constructor discourages unwanted instantiation.
+    }
+
+    /**
+     * Shuts down the framework gracefully in the near future.
+     * <p>
+     * This method terminates all polling and event dispatching, allowing
+     * any currently-executing and already-enqueued tasks to complete
+     * normally and then gracefully exiting.  Polling is stopped first,
+     * including any deadline threads (see
+     * {@link ControllerPoller#enableDeadlineScheduling(MissedTickPolicy, int)}),
+     * and the method waits (for at most a second) for any poll that is
+     * already running to finish before the event dispatchers are shut
+     * down, so
+     * that no poll hands events to a dispatcher that will never deliver
+     * them.  Otherwise the method returns immediately, and may be called
+     * multiple times safely (calls after the first do nothing).
+     * <p>
+     * If the framework has not yet been initialized, this method throws an
+     * {@link IllegalStateException}.
+     * 
+     * @see ExecutorService#shutdown()
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized
+     */
+    public final static void shutdown()
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                throw new IllegalStateException(
+                        "Framework has not been initialized.");
+            }
+
+            for (ScheduledExecutorService pollingService : pollingServices)
+            {
+                pollingService.shutdown();
+            }
+        }
+        awaitPollingTermination(stopDeadlineTickers(false));
+        synchronized(staticLock)
+        {
+            for (ExecutorService dispatcher : getAllDispatchers())
+            {
+                dispatcher.shutdown();
+            }
+            ManagementRegistry.unregisterAll();
+            state = FrameworkState.SHUTDOWN; 
+        }
+    }
+
+    /**
+     * Shuts down the framework immediately.
+     * <p>
+     * This method immediately terminates all polling and event dispatching,
+     * attempting to interrupt any currently-executing and cancellent all
+     * enqueued tasks that haven't started execution.
+     * <p>
+     * As with {@link #shutdown()}, polling (including any deadline threads)
+     * is stopped first and the event dispatchers are shut down once any
+     * running poll has been interrupted (waiting for at most a second).  Otherwise the method returns
+     * immediately, but there is no guarantee that all threads will exit in
+     * any given time frame.
+     * <p>
+     * This method may be called multiple times safely (calls after
+     * the first do nothing).
+     * <p>
+     * If the framework has not yet been initialized, this method throws an
+     * {@link IllegalStateException}.
+     * 
+     * @see ExecutorService#shutdownNow()
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized
+     */
+    public final static void shutdownNow()
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                throw new IllegalStateException(
+                        "Framework has not been initialized.");
+            }
+    
+            for (ScheduledExecutorService pollingService : pollingServices)
+            {
+                pollingService.shutdownNow();
+            }
+        }
+        awaitPollingTermination(stopDeadlineTickers(true));
+        synchronized(staticLock)
+        {
+            for (ExecutorService dispatcher : getAllDispatchers())
+            {
+                dispatcher.shutdownNow();
+            }
+            ManagementRegistry.unregisterAll();
+            state = FrameworkState.SHUTDOWN; 
+        }
+    }
+
+    /**
+     * Stops the deadline threads of all pollers.  This is done without
+     * holding {@link #staticLock}, which polls may need.
+     * 
+     * @param interrupt whether or not to interrupt any poll in progress
+     * @return the threads that were stopped
+     */
+    private final static List<Thread> stopDeadlineTickers(
+            final boolean interrupt)
+    {
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (ControllerPoller poller : ControllerPoller.getInstances())
+        {
+            final Thread thread = poller.stopDeadlineTicker();
+            if (thread != null)
+            {
+                if (interrupt)
+                {
+                    thread.interrupt();
+                }
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    /**
+     * Waits a short while for the polling services, which must already have
+     * been shut down, and the specified deadline threads, which must
+     * already have been stopped, to finish any poll that is running.  This
+     * is done without holding {@link #staticLock}, which polls may need.
+     * 
+     * @param deadlineThreads the deadline threads to wait for
+     */
+    private final static void awaitPollingTermination(
+            final List<Thread> deadlineThreads)
+    {
+        final long endTime = System.currentTimeMillis()
+            + POLLING_SHUTDOWN_TIMEOUT_MILLIS;
+        try
+        {
+            for (ScheduledExecutorService pollingService : pollingServices)
+            {
+                long timeLeft = endTime - System.currentTimeMillis();
+                if (timeLeft <= 0 || !pollingService.awaitTermination(
+                        timeLeft, TimeUnit.MILLISECONDS))
+                {
+                    return;
+                }
+            }
+            for (Thread thread : deadlineThreads)
+            {
+                long timeLeft = endTime - System.currentTimeMillis();
+                if (timeLeft <= 0)
+                {
+                    return;
+                }
+                if (thread != Thread.currentThread())
+                {
+                    thread.join(timeLeft);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns whether or not the framework has shutdown.
+     * 
+     * @return <code>true</code> if all framework services have halted.  There
+     * may still be outstanding or currently-running tasks remaining.
+     * 
+     * @see ExecutorService#isShutdown()
+     */
+    public final static boolean isShutdown()
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                return false;
+            }
+            for (ScheduledExecutorService pollingService : pollingServices)
+            {
+                if (!pollingService.isShutdown())
+                {
+                    return false;
+                }
+            }
+            for (ExecutorService dispatcher : getAllDispatchers())
+            {
+                if (!dispatcher.isShutdown())
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Returns whether or not the framework has terminated.
+     * 
+     * @return <code>true</code> if all framework services have halted and
+     * there are no outstanding or currently-running tasks remaining.
+     * 
+     * @see ExecutorService#isTerminated()
+     */
+    public final static boolean isTerminated()
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                return false;
+            }
+            for (ExecutorService dispatcher : getAllDispatchers())
+            {
+                if (!dispatcher.isTerminated())
+                {
+                    return false;
+                }
+            }
+            for (ScheduledExecutorService pollingService : pollingServices)
+            {
+                if (!pollingService.isTerminated())
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Waits up to the specified amount of time for all framework services
+     * to terminate.
+     * <p>
+     * This method does not initiate a shutdown.  Rather, it waits until
+     * all services have shutdown and all tasks have terminated.  Once both
+     * conditions are true, or the specified timeout expires, this method
+     * returns.
+     * 
+     * @param timeout the maximum amount of time to wait for termination
+     * @param unit the unit of time to wait for
+     * @return <code>true</code> if all services have shutdown and all
+     * tasks have terminated before the specified timeout elapsed;
+     * otherwise, <code>false</code>
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized
+     * @see ExecutorService#awaitTermination(long, TimeUnit)
+     */
+    public final static boolean awaitTermination(long timeout, TimeUnit unit)
+    throws InterruptedException
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                throw new IllegalStateException(
+                        "Framework has not been initialized.");
+            }
+
+            long startTime = System.currentTimeMillis();
+            if (timeout <= 0)
+            {
+                throw new IllegalArgumentException(
+                        "Timeout must be greater than 0: " + timeout);
+            }
+    
+            long timeLeft = unit.toMillis(timeout);
+            long endTime = startTime + timeLeft;
+    
+            boolean success = true;
+            for (ScheduledExecutorService pollingService : pollingServices)
+            {
+                timeLeft = endTime - System.currentTimeMillis();
+                if (timeLeft <= 0 || !pollingService.awaitTermination(
+                        timeLeft, TimeUnit.MILLISECONDS))
+                {
+                    success = false;
+                    break;
+                }
+            }
+            if (success)
+            {
+                // Try to terminate other services
+                for (ExecutorService dispatcher : getAllDispatchers())
+                {
+                    timeLeft = endTime - System.currentTimeMillis();
+                    if (timeLeft <= 0 || !dispatcher.awaitTermination(
+                            timeLeft, TimeUnit.MILLISECONDS))
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            else
+            {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Initializes the framework, starting all services and preparing the
+     * system for general usage.
+     * <p>
+     * This method must be called before attempting to access any of the
+     * services in the framework.  Failure to do so will result, in most cases,
+     * in an {@link IllegalStateException} being thrown.  This method may
+     * be called more than once; additional calls have no effect.
+     * <p>
+     * Once the framework has been shut down via
+     * {@link #shutdown()} or {@link #shutdownNow()}, it is no longer
+     * permissible to call this method.  Doing so will result in an
+     * {@link IllegalStateException}.
+     * <p>
+     * The event dispatcher's queue holds at most
+     * {@link #DEFAULT_DISPATCH_QUEUE_CAPACITY} tasks.  When listeners fall
+     * so far behind that it is full, a new value change is merged into the
+     * one still waiting for the same control and anything else waits for
+     * room (see {@link #DEFAULT_OVERFLOW_POLICY} and
+     * {@link #getCoalescedEventCount()}), so that no activation,
+     * deactivation or final value is ever lost.  Use
+     * {@link #initialize(int, OverflowPolicy)} to choose a policy that never
+     * stalls polling instead.
+     * 
+     * @return <code>true</code> if this call caused the framework to startup;
+     * otherwise, <code>false</code> (i.e., method has already been called)
+     */
+    public final static boolean initialize()
+    {
+        return initialize(DEFAULT_DISPATCH_QUEUE_CAPACITY,
+                DEFAULT_OVERFLOW_POLICY);
+    }
+
+    /**
+     * Initializes the framework as per {@link #initialize()}, with an event
+     * dispatcher whose queue holds at most the specified number of tasks.
+     * <p>
+     * Listeners are invoked on a single dispatcher thread.  If they fall so
+     * far behind that the dispatcher's queue fills up, the specified policy
+     * decides what happens to new events; see {@link OverflowPolicy}.  The
+     * number of events lost or merged this way is available from
+     * {@link #getDroppedEventCount()} and
+     * {@link #getCoalescedEventCount()}.
+     * <p>
+     * If the framework has already been initialized, this method has no
+     * effect and the existing dispatcher is kept.
+     * 
+     * @param dispatchQueueCapacity the maximum number of tasks waiting to
+     * be dispatched
+     * @param overflowPolicy what to do when the queue is full
+     * @return <code>true</code> if this call caused the framework to startup;
+     * otherwise, <code>false</code> (i.e., method has already been called)
+     * @throws IllegalArgumentException if the capacity is not positive or
+     * the policy is <code>null</code>
+     */
+    public final static boolean initialize(int dispatchQueueCapacity,
+            OverflowPolicy overflowPolicy)
+    {
+        return initialize(dispatchQueueCapacity, overflowPolicy,
+                Executors.defaultThreadFactory(), false);
+    }
+
+    /**
+     * Initializes the framework as per
+     * {@link #initialize(int, OverflowPolicy, ThreadFactory, boolean, int)},
+     * with one polling thread for each available processor.
+     * 
+     * @param dispatchQueueCapacity the maximum number of tasks waiting to
+     * be dispatched, per dispatcher
+     * @param overflowPolicy what to do when a queue is full
+     * @param dispatchThreadFactory the factory for dispatcher and lane
+     * threads
+     * @param dispatcherPerController whether or not to give every
+     * controller a dispatcher of its own
+     * @return <code>true</code> if this call caused the framework to startup;
+     * otherwise, <code>false</code> (i.e., method has already been called)
+     * @throws IllegalArgumentException if the capacity is not positive or
+     * the policy or factory is <code>null</code>
+     */
+    public final static boolean initialize(int dispatchQueueCapacity,
+            OverflowPolicy overflowPolicy, ThreadFactory dispatchThreadFactory,
+            boolean dispatcherPerController)
+    {
+        return initialize(dispatchQueueCapacity, overflowPolicy,
+                dispatchThreadFactory, dispatcherPerController,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes the framework as per
+     * {@link #initialize(int, OverflowPolicy)}, with event dispatcher
+     * threads created by the specified factory and, optionally, a separate
+     * event dispatcher for every controller.
+     * <p>
+     * Each event dispatcher and {@link DispatchLane} still runs on exactly
+     * one thread at a time, so all of the ordering guarantees documented on
+     * the <code>add*Listener</code> methods of {@link ControllerPoller} are
+     * kept whatever the factory.  Passing the factory returned by
+     * {@link #newVirtualThreadFactory()} runs the dispatchers and lanes on
+     * virtual threads, so that listeners which block (on disk or on locks,
+     * say) release their carrier thread instead of holding on to a platform
+     * thread while they wait.
+     * <p>
+     * With one dispatcher per controller, a listener that blocks delays
+     * only the events of the controller it is listening to.  Each of these
+     * dispatchers has its own queue with the specified capacity and policy.
+     * Events from different controllers are not ordered with respect to
+     * each other in this case.  The shared dispatcher returned by
+     * {@link #getEventDispatcher()} is still created, and is used for
+     * calibration and configuration events.
+     * <p>
+     * Controllers are polled by a pool of the specified number of polling
+     * threads.  Each controller is assigned to the least busy thread when
+     * its poller is created and stays on that thread for good, so that its
+     * state is only ever touched by one polling thread; a controller whose
+     * <code>poll()</code> is slow delays only the controllers that share
+     * its thread.  Polling threads are daemon threads, so they do not keep
+     * the JVM alive by themselves.
+     * <p>
+     * If the framework has already been initialized, this method has no
+     * effect and the existing dispatchers are kept.
+     * 
+     * @param dispatchQueueCapacity the maximum number of tasks waiting to
+     * be dispatched, per dispatcher
+     * @param overflowPolicy what to do when a queue is full
+     * @param dispatchThreadFactory the factory for dispatcher and lane
+     * threads
+     * @param dispatcherPerController whether or not to give every
+     * controller a dispatcher of its own
+     * @param pollingThreads the number of polling threads
+     * @return <code>true</code> if this call caused the framework to startup;
+     * otherwise, <code>false</code> (i.e., method has already been called)
+     * @throws IllegalArgumentException if the capacity or number of polling
+     * threads is not positive or the policy or factory is <code>null</code>
+     */
+    public final static boolean initialize(int dispatchQueueCapacity,
+            OverflowPolicy overflowPolicy, ThreadFactory dispatchThreadFactory,
+            boolean dispatcherPerController, int pollingThreads)
+    {
+        if (pollingThreads <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Number of polling threads must be positive: "
+                    + pollingThreads);
+        }
+        if (dispatchThreadFactory == null)
+        {
+            throw new IllegalArgumentException(
+                    "Thread factory cannot be null.");
+        }
+        if (dispatchQueueCapacity <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Capacity must be positive: " + dispatchQueueCapacity);
+        }
+        if (overflowPolicy == null)
+        {
+            throw new IllegalArgumentException(
+                    "Overflow policy cannot be null.");
+        }
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.SHUTDOWN)
+            {
+                throw new IllegalStateException(
+                        "Framework is in shutdown state.");
+            }
+
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                ControllerManager.dispatchQueueCapacity = dispatchQueueCapacity;
+                ControllerManager.overflowPolicy = overflowPolicy;
+                ControllerManager.dispatchThreadFactory = dispatchThreadFactory;
+                ControllerManager.dispatcherPerController =
+                    dispatcherPerController;
+                eventDispatcher = new EventDispatcher(dispatchQueueCapacity,
+                        overflowPolicy, dispatchThreadFactory);
+                pollingServices = new ScheduledExecutorService[pollingThreads];
+                pollingServiceLoads = new int[pollingThreads];
+                for (int index = 0; index < pollingThreads; index++)
+                {
+                    pollingServices[index] =
+                        Executors.newSingleThreadScheduledExecutor(
+                                pollingThreadFactory(
+                                        "nicegamepads-poll-" + index));
+                }
+                state = FrameworkState.INITIALIZED;
+                ManagementRegistry.registerManager();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the first polling service for the framework.  Controllers are
+     * spread over {@link #getPollingThreadCount()} polling services; see
+     * {@link #initialize(int, OverflowPolicy, ThreadFactory, boolean, int)}.
+     * 
+     * @return the first polling service
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     * @deprecated there is no longer a single polling service; most
+     * controllers are not polled by the one returned here.  This method
+     * will be removed in a future update.
+     */
+    @Deprecated
+    public final static ScheduledExecutorService getPollingService()
+    {
+        return getPollingServices().get(0);
+    }
+
+    /**
+     * Returns the number of polling threads that controllers are spread
+     * over.
+     * 
+     * @return the number of polling threads
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     */
+    public final static int getPollingThreadCount()
+    {
+        return getPollingServices().size();
+    }
+
+    /**
+     * Returns all of the polling services for the framework.
+     * 
+     * @return an unmodifiable list of the polling services
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     */
+    final static List<ScheduledExecutorService> getPollingServices()
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                throw new IllegalStateException(
+                        "Framework has not been initialized.");
+            }
+            return Collections.unmodifiableList(Arrays.asList(pollingServices));
+        }
+    }
+
+    /**
+     * Assigns a newly-created controller to the polling service with the
+     * fewest controllers.  The controller should be polled only by the
+     * returned service from then on.
+     * 
+     * @return the polling service for the controller
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     */
+    final static ScheduledExecutorService assignPollingService()
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                throw new IllegalStateException(
+                        "Framework has not been initialized.");
+            }
+            int best = 0;
+            for (int index = 1; index < pollingServiceLoads.length; index++)
+            {
+                if (pollingServiceLoads[index] < pollingServiceLoads[best])
+                {
+                    best = index;
+                }
+            }
+            pollingServiceLoads[best]++;
+            return pollingServices[best];
+        }
+    }
+
+    /**
+     * Returns the event dispatcher service for the framework.
+     * 
+     * @return the event dispatcher service
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     */
+    public final static ExecutorService getEventDispatcher()
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                throw new IllegalStateException(
+                        "Framework has not been initialized.");
+            }
+            return eventDispatcher;
+        }
+    }
+
+    /**
+     * Returns the event dispatcher for the events of the specified
+     * controller: either the controller's own dispatcher or the shared one,
+     * depending upon how the framework was initialized.
+     * 
+     * @param controller the controller
+     * @return the event dispatcher for the controller
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     */
+    final static ExecutorService getEventDispatcher(NiceController controller)
+    {
+        synchronized(staticLock)
+        {
+            if (state == FrameworkState.UNINITIALIZED)
+            {
+                throw new IllegalStateException(
+                        "Framework has not been initialized.");
+            }
+            if (!dispatcherPerController)
+            {
+                return eventDispatcher;
+            }
+            EventDispatcher dispatcher = controllerDispatchers.get(controller);
+            if (dispatcher == null)
+            {
+                if (state == FrameworkState.SHUTDOWN)
+                {
+                    throw new IllegalStateException(
+                            "Framework is in shutdown state.");
+                }
+                dispatcher = new EventDispatcher(dispatchQueueCapacity,
+                        overflowPolicy, namedThreadFactory(
+                                "nicegamepads-dispatch-"
+                                + controller.getDeclaredName()));
+                controllerDispatchers.put(controller, dispatcher);
+            }
+            return dispatcher;
+        }
+    }
+
+    /**
+     * Returns every event dispatcher and lane executor in the framework.
+     * 
+     * @return all of the dispatchers
+     */
+    private final static List<ExecutorService> getAllDispatchers()
+    {
+        List<ExecutorService> dispatchers = new ArrayList<ExecutorService>();
+        dispatchers.add(getEventDispatcher());
+        dispatchers.addAll(controllerDispatchers.values());
+        for (DispatchLane lane : dispatchLanes)
+        {
+            dispatchers.add(lane.getDispatcher());
+        }
+        return dispatchers;
+    }
+
+    /**
+     * Returns a factory that creates threads with the dispatch thread
+     * factory and gives them the specified name.
+     * 
+     * @param name the name of the threads
+     * @return the factory
+     */
+    private final static ThreadFactory namedThreadFactory(final String name)
+    {
+        final ThreadFactory base = dispatchThreadFactory;
+        return new ThreadFactory(){
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = base.newThread(runnable);
+                thread.setName(name);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Returns a factory that creates daemon polling threads with the
+     * specified name.  Polling threads never keep the JVM alive; only
+     * listeners, on the dispatcher threads, decide that.
+     * 
+     * @param name the name of the threads
+     * @return the factory
+     */
+    private final static ThreadFactory pollingThreadFactory(final String name)
+    {
+        final ThreadFactory base = Executors.defaultThreadFactory();
+        return new ThreadFactory(){
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = base.newThread(runnable);
+                thread.setName(name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Returns whether or not this Java runtime supports virtual threads.
+     * 
+     * @return <code>true</code> if {@link #newVirtualThreadFactory()} can
+     * be used
+     */
+    public final static boolean isVirtualThreadSupported()
+    {
+        try
+        {
+            newVirtualThreadFactory();
+            return true;
+        }
+        catch (UnsupportedOperationException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a factory for virtual threads, for use with
+     * {@link #initialize(int, OverflowPolicy, ThreadFactory, boolean)}.
+     * <p>
+     * Virtual threads are only available on Java 21 and later; the factory
+     * is looked up reflectively so that the framework still runs on older
+     * runtimes.
+     * 
+     * @return a factory for virtual threads
+     * @throws UnsupportedOperationException if this runtime does not
+     * support virtual threads
+     */
+    public final static ThreadFactory newVirtualThreadFactory()
+    {
+        try
+        {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder")
+                .getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        }
+        catch (Exception e)
+        {
+            // Not present, or present only as a disabled preview feature.
+            throw new UnsupportedOperationException(
+                    "Virtual threads are not supported by this runtime.", e);
+        }
+    }
+
+    /**
+     * Creates a new dispatch lane: a dedicated queue and thread for
+     * delivering events to the listeners registered with it.  The lane is
+     * shut down along with the framework.
+     * 
+     * @param name the name of the lane, used to name its thread and to
+     * identify it in metrics
+     * @param capacity the maximum number of events waiting in the lane
+     * @param overflowPolicy what to do when the lane is full; coalescing
+     * is not supported
+     * @return the new lane
+     * @throws IllegalStateException if the framework has not been
+     * initialized or has been shut down
+     * @throws IllegalArgumentException if the capacity is not positive or
+     * the policy is <code>null</code> or {@link OverflowPolicy#COALESCE}
+     * @see DispatchLane
+     */
+    public final static DispatchLane createDispatchLane(String name,
+            int capacity, OverflowPolicy overflowPolicy)
+    {
+        synchronized(staticLock)
+        {
+            if (state != FrameworkState.INITIALIZED)
+            {
+                throw new IllegalStateException(
+                        "Framework is not running.");
+            }
+            DispatchLane lane = new DispatchLane(name, capacity,
+                    overflowPolicy,
+                    namedThreadFactory("nicegamepads-lane-" + name));
+            dispatchLanes.add(lane);
+            return lane;
+        }
+    }
+
+    /**
+     * Returns all of the dispatch lanes created so far, for inspecting
+     * their metrics.
+     * 
+     * @return an unmodifiable list of the lanes
+     */
+    public final static List<DispatchLane> getDispatchLanes()
+    {
+        return Collections.unmodifiableList(dispatchLanes);
+    }
+
+    /**
+     * Returns the number of events that the event dispatchers have dropped
+     * because their queues were full.  Events dropped by dispatch lanes are
+     * counted by the lanes themselves.
+     * 
+     * @return the number of dropped events
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     */
+    public final static long getDroppedEventCount()
+    {
+        long count = ((EventDispatcher) getEventDispatcher()).getDroppedEventCount();
+        for (EventDispatcher dispatcher : controllerDispatchers.values())
+        {
+            count += dispatcher.getDroppedEventCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the total number of tasks waiting in the queues of the event
+     * dispatchers.  Tasks waiting on dispatch lanes are counted by the
+     * lanes themselves.
+     * 
+     * @return the total queue depth
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     */
+    final static int getDispatcherQueueDepth()
+    {
+        int depth = ((EventDispatcher) getEventDispatcher()).getQueueDepth();
+        for (EventDispatcher dispatcher : controllerDispatchers.values())
+        {
+            depth += dispatcher.getQueueDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of events that have been merged into later events
+     * by pollers, either because the event dispatcher's queue was full or
+     * because coalescing was enabled on the poller.
+     * 
+     * @return the number of coalesced events
+     * @throws IllegalStateException if the framework has not yet been
+     * initialized via {@link #initialize()}
+     */
+    public final static long getCoalescedEventCount()
+    {
+        long count = ((EventDispatcher) getEventDispatcher()).getCoalescedEventCount();
+        for (EventDispatcher dispatcher : controllerDispatchers.values())
+        {
+            count += dispatcher.getCoalescedEventCount();
+        }
+        return count;
+    }
+
+    /**
+     * Possible states of the framework.
+     * 
+     * @author Andrew Hayden
+     */
+    private static enum FrameworkState
+    {
+        UNINITIALIZED, INITIALIZED, SHUTDOWN;
+    }
 }
\ No newline at end of file
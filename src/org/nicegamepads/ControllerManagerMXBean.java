@@ -0,0 +1,75 @@
+package org.nicegamepads;
+
+/**
+ * Management interface of the framework as a whole, registered with the
+ * platform MBean server under
+ * <code>org.nicegamepads:type=ControllerManager</code> when the framework
+ * is initialized.
+ *
+ * @author Andrew Hayden
+ * @see ControllerPollerMXBean
+ */
+public interface ControllerManagerMXBean
+{
+    /**
+     * Returns whether or not the framework has been shut down.
+     *
+     * @return <code>true</code> if the framework has been shut down
+     */
+    public abstract boolean isShutdown();
+
+    /**
+     * Returns the number of polling threads.
+     *
+     * @return the number of polling threads
+     */
+    public abstract int getPollingThreadCount();
+
+    /**
+     * Returns the number of controllers that have pollers.
+     *
+     * @return the number of controllers
+     */
+    public abstract int getControllerCount();
+
+    /**
+     * Returns the number of dispatch lanes.
+     *
+     * @return the number of lanes
+     */
+    public abstract int getDispatchLaneCount();
+
+    /**
+     * Returns the total number of tasks waiting in the queues of all of the
+     * event dispatchers.
+     *
+     * @return the total queue depth
+     */
+    public abstract int getDispatcherQueueDepth();
+
+    /**
+     * Returns the number of events dropped by all of the event dispatchers.
+     *
+     * @return the number of dropped events
+     * @see ControllerManager#getDroppedEventCount()
+     */
+    public abstract long getDroppedEventCount();
+
+    /**
+     * Returns the number of events coalesced by all of the pollers.
+     *
+     * @return the number of coalesced events
+     * @see ControllerManager#getCoalescedEventCount()
+     */
+    public abstract long getCoalescedEventCount();
+
+    /**
+     * Starts polling every controller whose polling has been stopped.
+     */
+    public abstract void startAllPolling();
+
+    /**
+     * Stops polling every controller.
+     */
+    public abstract void stopAllPolling();
+}
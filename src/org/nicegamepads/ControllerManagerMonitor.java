@@ -0,0 +1,73 @@
+package org.nicegamepads;
+
+import java.util.List;
+
+/**
+ * The MBean for the framework as a whole.
+ *
+ * @author Andrew Hayden
+ */
+final class ControllerManagerMonitor implements ControllerManagerMXBean
+{
+    @Override
+    public final boolean isShutdown()
+    {
+        return ControllerManager.isShutdown();
+    }
+
+    @Override
+    public final int getPollingThreadCount()
+    {
+        return ControllerManager.getPollingThreadCount();
+    }
+
+    @Override
+    public final int getControllerCount()
+    {
+        return ControllerPoller.getInstances().size();
+    }
+
+    @Override
+    public final int getDispatchLaneCount()
+    {
+        return ControllerManager.getDispatchLanes().size();
+    }
+
+    @Override
+    public final int getDispatcherQueueDepth()
+    {
+        return ControllerManager.getDispatcherQueueDepth();
+    }
+
+    @Override
+    public final long getDroppedEventCount()
+    {
+        return ControllerManager.getDroppedEventCount();
+    }
+
+    @Override
+    public final long getCoalescedEventCount()
+    {
+        return ControllerManager.getCoalescedEventCount();
+    }
+
+    @Override
+    public final void startAllPolling()
+    {
+        final List<ControllerPoller> pollers = ControllerPoller.getInstances();
+        for (ControllerPoller poller : pollers)
+        {
+            poller.resumePolling();
+        }
+    }
+
+    @Override
+    public final void stopAllPolling()
+    {
+        final List<ControllerPoller> pollers = ControllerPoller.getInstances();
+        for (ControllerPoller poller : pollers)
+        {
+            poller.stopPolling();
+        }
+    }
+}
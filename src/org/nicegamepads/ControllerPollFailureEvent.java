@@ -0,0 +1,31 @@
+package org.nicegamepads;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a failure to poll a controller.
+ *
+ * @author Andrew Hayden
+ * @see FlightRecording
+ */
+@Name("org.nicegamepads.ControllerPollFailure")
+@Label("Controller Poll Failure")
+@Description("A controller could not be polled")
+@Category("NiceGamepads")
+final class ControllerPollFailureEvent extends jdk.jfr.Event
+{
+    /**
+     * The declared name of the controller.
+     */
+    @Label("Controller")
+    String controller;
+
+    /**
+     * Why polling failed.
+     */
+    @Label("Message")
+    String message;
+}
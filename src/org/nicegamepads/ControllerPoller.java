@@ -1,717 +1,3161 @@
-package org.nicegamepads;
-
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-
-import org.nicegamepads.configuration.ControlConfiguration;
-import org.nicegamepads.configuration.ControllerConfiguration;
-
-/**
- * Abstracts the polling of a single processor.
- * 
- * @author Andrew Hayden
- */
-// FIXME: This class should not enforce itself as a singleton.
-public final class ControllerPoller
-{
-    /**
-     * The controller this poller polls.
-     */
-    private final NiceController controller;
-
-    /**
-     * The controller state used to store the state of the controller and
-     * all of its controls.
-     */
-    private final ControllerState controllerState;
-
-    /**
-     * All pollers.  There is exactly one poller per controller.
-     */
-    private final static Map<NiceController, ControllerPoller>
-        pollersByController = new HashMap<NiceController, ControllerPoller>();
-
-    /**
-     * Holds cache of granularity calculations.
-     */
-    private final static Map<Float, float[]> granularityBinsByGranularity =
-        new ConcurrentHashMap<Float, float[]>();
-
-    /**
-     * Listeners.
-     */
-    private final List<ControlActivationListener> activationListeners =
-        new CopyOnWriteArrayList<ControlActivationListener>();
-
-    /**
-     * Listeners.
-     */
-    private final List<ControlChangeListener> changeListeners =
-        new CopyOnWriteArrayList<ControlChangeListener>();
-
-    /**
-     * Listeners.
-     */
-    private final List<ControlPollingListener> controlPollingListeners =
-        new CopyOnWriteArrayList<ControlPollingListener>();
-
-    /**
-     * Listeners.
-     */
-    private final List<ControllerPollingListener> controllerPollingListeners =
-        new CopyOnWriteArrayList<ControllerPollingListener>();
-
-    /**
-     * Used to call the {@link #poll()} method periodically.
-     */
-    private final PollingInvoker pollingInvoker;
-
-    /**
-     * Currently-scheduled polling task, if any.
-     */
-    private ScheduledFuture<?> pollingTask = null;
-
-    /**
-     * Constructs a new poller for the specified controller.
-     * <p>
-     * All of the controls found within the controller can be polled
-     * conveniently with this object.
-     * 
-     * @param controller the controller to be polled
-     */
-    private ControllerPoller(NiceController controller) {
-        this.controller = controller;
-        this.controllerState = new ControllerState(controller);
-        pollingInvoker = new PollingInvoker(this);
-    }
-
-    private final void init() {
-        // By default, start polling 60x per second
-        startPolling(1000L / 60L, TimeUnit.MILLISECONDS);
-    }
-
-    public final static ControllerPoller getInstance(NiceController controller) {
-        synchronized(pollersByController) {
-            ControllerPoller instance = pollersByController.get(controller);
-            if (instance == null) {
-                instance = new ControllerPoller(controller);
-                instance.init();
-                pollersByController.put(controller, instance);
-            }
-            return instance;
-        }
-    }
-
-    /**
-     * Requests that <strong>all</strong> polling cease in the near future.
-     * Events that are currently enqueued are allowed to start and complete.
-     */
-    final static void shutdownAllPolling() {
-        ControllerManager.getPollingService().shutdown();
-    }
-
-    /**
-     * Requests that <strong>all</strong> polling cease as soon as possible.
-     * All currently-executing events are asked to halt (via interrupt)
-     * and all enqueued events are dropped on the floor.
-     */
-    final static void shutdownAllPollingNow() {
-        ControllerManager.getPollingService().shutdownNow();
-    }
-
-    /**
-     * Waits for all polling to cease.
-     * 
-     * @param timeout the maximum amount of time to wait for termination
-     * @param unit the unit of time to wait for
-     * @return <code>true</code> if all polling has ceased when this method
-     * returns; otherwise, <code>false</code> if the timeout expires first
-     * @throws InterruptedException if interrupted while waiting
-     */
-    final static boolean awaitTermination(long timeout, TimeUnit unit)
-    throws InterruptedException {
-        return ControllerManager.getPollingService().awaitTermination(timeout, unit);
-    }
-
-    /**
-     * Retrieves the bins appropriate for the specified granularity.
-     * <p>
-     * If the bins haven't been cached, they are cached before being returned
-     * so that later access will be fast.
-     * 
-     * @param granularity the granularity to use to generate the bins
-     * @return an array of bins, sorted in natural order from least to
-     * greatest
-     */
-    private final static float[] getGranularityBins(float granularity)
-    {
-        float[] bins = granularityBinsByGranularity.get(granularity);
-        if (bins != null) {
-            // Cached.  Return this immediately.
-            return bins;
-        }
-
-        final List<Float> listing = new LinkedList<Float>();
-        int counter = 1;
-        float currentValue = 0f;
-        while (currentValue > -1.0f) {
-            currentValue = 0f - (((float) counter) * granularity);
-            listing.add(0, currentValue);
-            counter++;
-        }
-        listing.add(0f);
-        counter = 1;
-        currentValue = 0f;
-        while (currentValue < 1.0f) {
-            currentValue = ((float) counter) * granularity;
-            listing.add(currentValue);
-            counter++;
-        }
-
-        bins = new float[listing.size()];
-        counter = 0;
-        for (Float f : listing) {
-            bins[counter++] = f;
-        }
-
-        // List complete!
-        granularityBinsByGranularity.put(granularity, bins);
-        return bins;
-    }
-
-    /**
-     * Starts or resumes polling the controller associated with this poller.
-     * <p>
-     * If polling is already running, cancels the next polling interval and
-     * reschedules polling at the specified interval.
-     * <p>
-     * In any case, polling will start after the specified interval has
-     * passed.
-     * 
-     * @param interval the interval at which to poll
-     * @param unit the time unit for the interval
-     */
-    private final void startPolling(final long interval, final TimeUnit unit) {
-        synchronized(pollingInvoker) {
-            if (pollingTask != null) {
-                pollingTask.cancel(false);
-            }
-            pollingTask = ControllerManager.getPollingService().scheduleAtFixedRate(
-                    pollingInvoker, interval, interval, unit);
-        }
-    }
-
-    /**
-     * Cancels any outstanding polling schedules immediately and stops all
-     * future polling.  No further polling will be performed.
-     * <p>
-     * Note that this method may result in one last polling event executing
-     * if the request to stop overlaps with such an event.  If you need
-     * to guarantee that polling has terminated by the time this call
-     * returns, use {@link #stopPollingAndWait(long, TimeUnit)} instead.
-     */
-    final void stopPolling() {
-        synchronized(pollingInvoker) {
-            if (pollingTask != null) {
-                pollingTask.cancel(false);
-            }
-            pollingTask = null;
-        }
-    }
-
-    /**
-     * Cancels any outstanding polling schedules immediately waits until
-     * the currently-executing polling process, if any, has completed.
-     * After this method has returned, it is guaranteed that no further
-     * polling events will be enqueued for dispatch (any unprocessed
-     * events will still be fired).
-     */
-    final void stopPollingAndWait(final long interval, final TimeUnit unit)
-    throws InterruptedException, ExecutionException, TimeoutException {
-        synchronized(pollingInvoker) {
-            try {
-                if (pollingTask != null) {
-                    pollingTask.cancel(false);
-                    pollingTask.get(interval, unit);
-                }
-            } finally {
-                pollingTask = null;
-            }
-        }
-    }
-
-    /**
-     * Forces this controller to poll all of its controls immediately.
-     * <p>
-     * Polling will dispatch events for the controls as necessary.
-     * 
-     * @throws IllegalStateException if no configuration has been set for
-     * this poller
-     */
-    private final void poll() {
-        // Start by obtaining a copy of the current configuration.  We will
-        // use only this copy for our entire method lifetime.
-        // Since the source is volatile we are guaranteed that we are getting
-        // the latest copy here.
-        final ControllerConfiguration config = controller.getConfiguration();
-        if (config == null) {
-            throw new IllegalStateException("Null configuration.");
-        }
-
-        ControlConfiguration controlConfig = null;
-        final long now = System.currentTimeMillis();
-        controllerState.timestamp = now;
-
-        // Poll the controller
-        try {
-            config.getController().pollAllControls(controllerState);
-        } catch(ControllerException e) {
-            // FIXME: raise event!
-            e.printStackTrace();
-            stopPolling();
-        }
-
-        // Process each control.
-        for (ControlState state : controllerState.controlStates) {
-            // Look up configuration for this control
-            controlConfig = config.getConfiguration(state.control);
-            // Poll the value
-            float polledValue = state.rawCurrentValue;
-            // Transform according to configuration rules
-            polledValue = transform(polledValue, controlConfig, state.control.getControlType());
-            // Get any user ID bound to this value
-            boolean forceFireTurboEvent = false;
-
-            switch (state.control.getControlType()) {
-                case DISCRETE_INPUT:
-                    state.newValue(polledValue, now, polledValue == 1f);
-                    // Check for turbo stuff
-                    if (controlConfig.isTurboEnabled() && polledValue == 1f) {
-                        if (controlConfig.getTurboDelayMillis() == 0) {
-                            // If button is pressed, force an event.
-                            forceFireTurboEvent = true;
-                        } else if (state.lastTurboTimerStart > 0) {
-                            // There is a specific delay for turbo and the
-                            // timer is running.  Has enough time gone by?
-                            if (now - state.lastTurboTimerStart >= controlConfig.getTurboDelayMillis()) {
-                                // Yes.
-                                forceFireTurboEvent = true;
-                            }
-                        }
-                    }
-                    break;
-                case CONTINUOUS_INPUT:
-                    state.newValue(polledValue, now, false);
-                    break;
-                default:
-                    throw new RuntimeException("Unsupported control type: "
-                            + state.control.getControlType());
-            }
-
-            ControlEvent event = makeEvent(state, controlConfig);
-            // Figure out which events need to be fired.
-
-            // Start with activation/deactivation events:
-            if (event.previousValueId != Integer.MIN_VALUE && event.currentValueId != Integer.MIN_VALUE) {
-                // Both values are bound.
-                if (event.previousValueId != event.currentValueId) {
-                    // Previous id deactivated.
-                    dispatchControlDeactivated(event);
-                    // Current id activated
-                    dispatchControlActivated(event);
-                } else {
-                    // Previous id is still active.
-                    if (forceFireTurboEvent) {
-                        // Turbo mode engaged.  Force an event to fire even
-                        // though nothing has really changed.
-                        dispatchControlActivated(event);
-                    }
-                }
-            } else if (event.previousValueId != Integer.MIN_VALUE) {
-                // Previous value is bound but current value isn't.
-                dispatchControlDeactivated(event);
-            } else if (event.currentValueId != Integer.MIN_VALUE) {
-                // Current value is bound but previous value isn't.
-                dispatchControlActivated(event);
-            } else {
-                // Neither the current nor the previous value is bound
-                // No-op (only thing that can happen is a change event,
-                // which we don't test by ID since IDs aren't guaranteed
-                // to be unique).
-            }
-
-            // Check for a value change and fire event if the value has changed
-            if (event.previousValue != event.currentValue) {
-                dispatchValueChanged(event);
-            }
-
-            // Fire generic polling event
-            dispatchControlPolled(event);
-        }
-
-        // Dispatch controller-polled event.
-        // We check to see if there are any listeners or not as cloning the
-        // controller state can be a relatively expensive operation.  If
-        // nobody is listening, it will be slightly less resource-intensive
-        // to simply skip cloning the state.
-        if (controllerPollingListeners.size() > 0) {
-            ControllerState stateCopy = new ControllerState(controllerState);
-            dispatchControllerPolled(stateCopy);
-        }
-    }
-
-    /**
-     * Applies any and all transforms to the polled value, as defined by
-     * the configuration, and returns the result.
-     * 
-     * @param polledValue the value that was polled from the control
-     * @param controlConfig the control configuration to consult
-     * @param the type of control
-     * @return the post-transform result for the value
-     */
-    private final float transform(float polledValue, final ControlConfiguration controlConfig, final NiceControlType controlType) {
-        // STEP 1: Granularity
-        // Get granularity bins and collapse.
-        if (!Float.isNaN(controlConfig.getGranularity())) {
-            final float[] bins = getGranularityBins(controlConfig.getGranularity());
-            int index = Arrays.binarySearch(bins, polledValue);
-            if (index < 0) {
-                // Value isn't an exact match to any bin, so we must clamp
-                // it to the bin boundary nearest to zero
-                // Index returned by binary search is
-                // (-1 * insertionPoint) - 1, such that an insertion point
-                // of zero maps to -1, one maps to -2, and so on.
-                // Start by getting 
-                index = (index + 1) * -1;
-                // Now we have zero mapping to 0, one to 1, two to 2...
-                // If the value is less than zero, it has to move in a positive
-                // direction, and therefore it must have 1 added to its index
-                if (polledValue < 0)
-                {
-                    index++;
-                }
-
-                // Now we have the right bin for the value.
-                polledValue = bins[index];
-            }
-        }
-
-        // STEP 2: Dead zone
-        if (!Float.isNaN(controlConfig.getDeadZoneLowerBound())) {
-            // We have a dead zone to consider.
-            if (controlConfig.getDeadZoneLowerBound() <= polledValue && polledValue <= controlConfig.getDeadZoneUpperBound()) {
-                // Value is in the dead zone.  Set to zero.
-                polledValue = 0f;
-            }
-        }
-
-        // STEP 3: Inversion
-        if (controlConfig.isInverted()) {
-            if (controlType == NiceControlType.DISCRETE_INPUT) {
-                // FIXME: need to correct this behavior.
-                // Buttons should be treated specially... this was originally
-                // for buttons when buttons existed as a type
-
-                // Reflect around 0.5f
-                polledValue = 1f - polledValue;
-            } else {
-                // Reflect around 0f
-                polledValue *= -1f;
-            }
-        }
-
-        // STEP 4: Recentering
-        if (!Float.isNaN(controlConfig.getCenterValueOverride()) && controlConfig.getCenterValueOverride() != 0f) {
-            float positiveExpansion;
-            float negativeExpansion;
-            if (controlConfig.getCenterValueOverride() > 0f) {
-                positiveExpansion = 1f - controlConfig.getCenterValueOverride();
-                negativeExpansion = 1f + controlConfig.getCenterValueOverride();
-            } else {
-                negativeExpansion = 1f - Math.abs(controlConfig.getCenterValueOverride());
-                positiveExpansion = 1f - controlConfig.getCenterValueOverride();
-            }
-
-            if (polledValue > 0) {
-                polledValue *= positiveExpansion;
-            } else if (polledValue < 0) {
-                polledValue *= negativeExpansion;
-            } else {
-                polledValue = controlConfig.getCenterValueOverride();
-            }
-        }
-
-        // STEP 5: Clamp to sane range
-        // We don't expect to get out of this range because of any errors
-        // in the code, but rather it is possible because of floating point
-        // precision loss.
-        if (polledValue < -1.0f) {
-            polledValue = -1.0f;
-        } else if (polledValue > 1.0f) {
-            polledValue = 1.0f;
-        }
-
-        // All done!
-        return polledValue;
-    }
-
-    /**
-     * Adds a listener to this poller to be notified whenever
-     * a control is activated or deactivated.
-     * <p>
-     * It is guaranteed that all control-related events will be
-     * dispatched before any {@link ControllerPollingListener} events.
-     * Thus the caller may safely rely on the {@link ControllerPollingListener}
-     * events as a notification mechanism that all values seen in the
-     * control-related events since the previous controller-polled event
-     * were obtained from one controller polling session.
-     * <p>
-     * Additionally, it is guaranteed that the timestamp on the
-     * {@link ControllerState} object passed to the listener will match
-     * the timestamps on any and all {@link ControlEvent}s that were
-     * dispatched as part of that same same polling operation.
-     * 
-     * @param listener the listener to add.
-     */
-    public final void addControlActivationListener(final ControlActivationListener listener) {
-        activationListeners.add(listener);
-    }
-
-    /**
-     * Removes the specified listener.
-     * 
-     * @param listener the listener to be removed
-     */
-    public final void removeControlActivationListener(final ControlActivationListener listener) {
-        activationListeners.remove(listener);
-    }
-
-    /**
-     * Adds a listener to this poller to be notified whenever
-     * a control's value changes.
-     * <p>
-     * It is guaranteed that all control-related events will be
-     * dispatched before any {@link ControllerPollingListener} events.
-     * Thus the caller may safely rely on the {@link ControllerPollingListener}
-     * events as a notification mechanism that all values seen in the
-     * control-related events since the previous controller-polled event
-     * were obtained from one controller polling session.
-     * <p>
-     * Additionally, it is guaranteed that the timestamp on the
-     * {@link ControllerState} object passed to the listener will match
-     * the timestamps on any and all {@link ControlEvent}s that were
-     * dispatched as part of that same same polling operation.
-     * 
-     * @param listener the listener to add.
-     */
-    public final void addControlChangeListener(ControlChangeListener listener) {
-        changeListeners.add(listener);
-    }
-
-    /**
-     * Removes the specified listener.
-     * 
-     * @param listener the listener to be removed
-     */
-    public final void removeControlChangeListener(final ControlChangeListener listener) {
-        changeListeners.remove(listener);
-    }
-
-    /**
-     * Adds a listener to this poller to be notified whenever
-     * a control is polled.
-     * <p>
-     * It is guaranteed that all control-related events will be
-     * dispatched before any {@link ControllerPollingListener} events.
-     * Thus the caller may safely rely on the {@link ControllerPollingListener}
-     * events as a notification mechanism that all values seen in the
-     * control-related events since the previous controller-polled event
-     * were obtained from one controller polling session.
-     * <p>
-     * Additionally, it is guaranteed that the timestamp on the
-     * {@link ControllerState} object passed to the listener will match
-     * the timestamps on any and all {@link ControlEvent}s that were
-     * dispatched as part of that same same polling operation.
-     * 
-     * @param listener the listener to add.
-     */
-    public final void addControlPollingListener(final ControlPollingListener listener) {
-        controlPollingListeners.add(listener);
-    }
-
-    /**
-     * Removes the specified listener.
-     * 
-     * @param listener the listener to be removed
-     */
-    public final void removeControlPollingListener(final ControlPollingListener listener) {
-        controlPollingListeners.remove(listener);
-    }
-
-    /**
-     * Adds a listener to this poller to be notified whenever
-     * the controller completes polling.
-     * <p>
-     * It is guaranteed that all control-related events will be
-     * dispatched before any {@link ControllerPollingListener} events.
-     * Thus the caller may safely rely on the {@link ControllerPollingListener}
-     * events as a notification mechanism that all values seen in the
-     * control-related events since the previous controller-polled event
-     * were obtained from one controller polling session.
-     * <p>
-     * Additionally, it is guaranteed that the timestamp on the
-     * {@link ControllerState} object passed to the listener will match
-     * the timestamps on any and all {@link ControlEvent}s that were
-     * dispatched as part of that same same polling operation.
-     * 
-     * @param listener the listener to add.
-     */
-    public final void addControllerPollingListener(final ControllerPollingListener listener) {
-        controllerPollingListeners.add(listener);
-    }
-
-    /**
-     * Removes the specified listener.
-     * 
-     * @param listener the listener to be removed
-     */
-    public final void removeControllerPollingListener(final ControllerPollingListener listener) {
-        controllerPollingListeners.remove(listener);
-    }
-
-    /**
-     * Makes an event from the specified state and configuration.
-     * 
-     * @param state the state to base the event on
-     * @param config the config associated with the control
-     * @return the event
-     */
-    private final static ControlEvent makeEvent(final ControlState state, final ControlConfiguration config) {
-        return new ControlEvent(
-                state.control.getController(),
-                state.control, config.getUserDefinedId(),
-                state.currentValue, config.getValueId(state.currentValue),
-                state.lastValue, config.getValueId(state.lastValue));
-    }
-
-    /**
-     * Dispatches a new "control activated" event to all registered
-     * listeners.
-     * 
-     * @param event the event to be dispatched
-     */
-    private final void dispatchControlActivated(final ControlEvent event) {
-        ControllerManager.getEventDispatcher().submit(new LoggingRunnable(){
-            @Override
-            protected void runInternal() {
-                for (ControlActivationListener listener : activationListeners) {
-                    listener.controlActivated(event);
-                }
-            }
-        });
-    }
-
-    /**
-     * Dispatches a new "control deactivated" event to all registered
-     * listeners.
-     * 
-     * @param event the event to be dispatched
-     */
-    private final void dispatchControlDeactivated(final ControlEvent event) {
-        ControllerManager.getEventDispatcher().submit(new LoggingRunnable(){
-            @Override
-            protected void runInternal() {
-                for (ControlActivationListener listener : activationListeners) {
-                    listener.controlDeactivated(event);
-                }
-            }
-        });
-    }
-
-    /**
-     * Dispatches a new "value changed" event to all registered
-     * listeners.
-     * 
-     * @param event the event to be dispatched
-     */
-    private final void dispatchValueChanged(final ControlEvent event) {
-        ControllerManager.getEventDispatcher().submit(new LoggingRunnable(){
-            @Override
-            protected void runInternal() {
-                for (ControlChangeListener listener : changeListeners) {
-                    listener.valueChanged(event);
-                }
-            }
-        });
-    }
-
-    /**
-     * Dispatches a new "control polled" event to all registered
-     * listeners.
-     * 
-     * @param event the event to be dispatched
-     */
-    private final void dispatchControlPolled(final ControlEvent event) {
-        ControllerManager.getEventDispatcher().submit(new LoggingRunnable(){
-            @Override
-            protected void runInternal() {
-                for (ControlPollingListener listener : controlPollingListeners) {
-                    listener.controlPolled(event);
-                }
-            }
-        });
-    }
-
-    /**
-     * Dispatches a new "controller polled" event to all registered
-     * listeners.
-     * 
-     * @param state the state to be dispatched
-     */
-    private final void dispatchControllerPolled(final ControllerState state) {
-        ControllerManager.getEventDispatcher().submit(new LoggingRunnable(){
-            @Override
-            protected void runInternal() {
-                for (ControllerPollingListener listener : controllerPollingListeners) {
-                    listener.controllerPolled(state);
-                }
-            }
-        });
-    }
-
-    /**
-     * Utility class to invoke polling on a controller poller.
-     * 
-     * @author Andrew Hayden
-     */
-    private final static class PollingInvoker extends LoggingRunnable {
-        /**
-         * The poller to invoke polling on.
-         */
-        private final ControllerPoller poller;
-
-        /**
-         * Constructs a new invoker that will invoke polling on the specified
-         * controller poller.
-         * 
-         * @param poller the poller to invoke polling on
-         */
-        PollingInvoker (final ControllerPoller poller) {
-            this.poller = poller;
-        }
-
-        @Override
-        protected final void runInternal() {
-            poller.poll();
-        }
-    }
+package org.nicegamepads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+
+import org.nicegamepads.configuration.ControlConfiguration;
+import org.nicegamepads.configuration.ControllerConfiguration;
+
+/**
+ * Abstracts the polling of a single processor.
+ * 
+ * @author Andrew Hayden
+ */
+// FIXME: This class should not enforce itself as a singleton.
+public final class ControllerPoller
+{
+    /**
+     * The lowest polling rate that may be requested, in polls per second.
+     */
+    public final static int MIN_POLLING_RATE = 10;
+
+    /**
+     * The highest polling rate that may be requested, in polls per second.
+     */
+    public final static int MAX_POLLING_RATE = 1000;
+
+    /**
+     * The polling rate of a new poller, in polls per second.
+     */
+    public final static int DEFAULT_POLLING_RATE = 60;
+
+    /**
+     * Length of the window over which achieved rates are measured, in
+     * nanoseconds.
+     */
+    private final static long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The controller this poller polls.
+     */
+    private final NiceController controller;
+
+    /**
+     * The controller state used to store the state of the controller and
+     * all of its controls.
+     */
+    private final ControllerState controllerState;
+
+    /**
+     * All pollers.  There is exactly one poller per controller.
+     */
+    private final static Map<NiceController, ControllerPoller>
+        pollersByController = new HashMap<NiceController, ControllerPoller>();
+
+    /**
+     * Listeners.
+     */
+    private final List<ControlActivationListener> activationListeners =
+        new CopyOnWriteArrayList<ControlActivationListener>();
+
+    /**
+     * Listeners.
+     */
+    private final List<ControlChangeListener> changeListeners =
+        new CopyOnWriteArrayList<ControlChangeListener>();
+
+    /**
+     * Listeners.
+     */
+    private final List<ControlPollingListener> controlPollingListeners =
+        new CopyOnWriteArrayList<ControlPollingListener>();
+
+    /**
+     * Listeners.
+     */
+    private final List<ControllerPollingListener> controllerPollingListeners =
+        new CopyOnWriteArrayList<ControllerPollingListener>();
+
+    /**
+     * Used to call the {@link #poll()} method periodically.
+     */
+    private final PollingInvoker pollingInvoker;
+
+    /**
+     * Currently-scheduled polling task, if any.
+     */
+    private ScheduledFuture<?> pollingTask = null;
+
+    /**
+     * Whether or not polling is scheduled, either on the polling service
+     * or on a deadline ticker.  Guarded by {@link #pollingInvoker}.
+     */
+    private boolean pollingScheduled = false;
+
+    /**
+     * Dedicated polling thread, if deadline scheduling is enabled.
+     * Guarded by {@link #pollingInvoker}.
+     */
+    private DeadlineTicker deadlineTicker = null;
+
+    /**
+     * Polls missed by deadline tickers that have since been stopped.
+     * Guarded by {@link #pollingInvoker}.
+     */
+    private long retiredMissedTicks = 0L;
+
+    /**
+     * How late each scheduled poll started.
+     */
+    private final LatencyHistogram schedulingJitter = new LatencyHistogram();
+
+    /**
+     * Where the time goes between polling and delivery.
+     */
+    private final PollerLatencies latencies = new PollerLatencies();
+
+    /**
+     * When the next poll is due on the polling service, as a
+     * {@link System#nanoTime()}.
+     */
+    private volatile long nextPollNanos = 0L;
+
+    /**
+     * The requested polling rate, in polls per second.
+     */
+    private volatile int pollingRate = DEFAULT_POLLING_RATE;
+
+    /**
+     * The rate at which polling is actually scheduled, in polls per
+     * second.  Lower than {@link #pollingRate} while backing off.
+     */
+    private volatile int currentPollingRate = DEFAULT_POLLING_RATE;
+
+    /**
+     * Whether or not the polling rate backs off while the controller is
+     * idle.
+     */
+    private volatile boolean idleBackOff = false;
+
+    /**
+     * The lowest rate that polling backs off to, in polls per second.
+     */
+    private volatile int idleFloorRate = MIN_POLLING_RATE;
+
+    /**
+     * How long the controller must be idle before each back-off step, in
+     * nanoseconds.
+     */
+    private volatile long idleTimeNanos = 0L;
+
+    /**
+     * Whether or not polling has been suspended because nothing is
+     * consuming the controller's state.  Guarded by
+     * {@link #pollingInvoker} for writes.
+     */
+    private volatile boolean pollingSuspended = false;
+
+    /**
+     * The {@link System#nanoTime()} of the last call to
+     * {@link #readLatest(ControllerState)} while backing off is enabled.
+     */
+    private volatile long lastReadNanos = 0L;
+
+    /**
+     * Whether the back-off timers below have been started.  Cleared when
+     * polling resumes so that the timers restart.
+     */
+    private volatile boolean idleTimersStarted = false;
+
+    /**
+     * The {@link System#nanoTime()} of the last value change, or of the
+     * last back-off step if later.  Only accessed by the polling thread.
+     */
+    private long lastStepNanos = 0L;
+
+    /**
+     * The {@link System#nanoTime()} of the last poll that had anybody
+     * consuming its results.  Only accessed by the polling thread.
+     */
+    private long lastConsumedNanos = 0L;
+
+    /**
+     * Extra polling period that was in effect when activity was last
+     * detected after backing off, in nanoseconds.
+     */
+    private volatile long lastWakeUpLatencyNanos = 0L;
+
+    /**
+     * Largest value of {@link #lastWakeUpLatencyNanos} so far.
+     */
+    private volatile long maxWakeUpLatencyNanos = 0L;
+
+    /**
+     * How events are handed to the event dispatcher.
+     */
+    private volatile DispatchMode dispatchMode = DispatchMode.PER_EVENT;
+
+    /**
+     * Head of the stack of batches that have been delivered and may be
+     * reused.  Only the polling thread removes batches from this stack,
+     * which makes a simple compare-and-set safe here.
+     */
+    private final AtomicReference<EventBatch> freeBatches =
+        new AtomicReference<EventBatch>();
+
+    /**
+     * Head of the stack of lane tasks that have run and may be reused.
+     * Only the polling thread removes tasks from this stack, which makes a
+     * simple compare-and-set safe here.
+     */
+    private final AtomicReference<LaneTask> freeLaneTasks =
+        new AtomicReference<LaneTask>();
+
+    /**
+     * Whether or not events are recycled instead of allocated.
+     */
+    private volatile boolean allocationFreeMode = false;
+
+    /**
+     * Pool of events used in allocation-free mode.
+     */
+    private final ControlEventPool eventPool = new ControlEventPool();
+
+    /**
+     * Pool of snapshots handed to controller polling listeners.
+     */
+    private final ControllerStatePool snapshotPool = new ControllerStatePool();
+
+    /**
+     * Copy of the controller state as of the last completed polling cycle,
+     * for {@link #readLatest(ControllerState)}.
+     */
+    private final ControllerState latestState;
+
+    /**
+     * Sequence lock guarding {@link #latestState}.  Only the polling thread
+     * ever takes the write lock; readers use optimistic reads exclusively,
+     * so they never block and never hold a lock.
+     */
+    private final StampedLock latestLock = new StampedLock();
+
+    /**
+     * Queues filled directly by the polling thread.  Replaced wholesale
+     * (under {@link #eventQueueLock}) whenever a queue is added or removed,
+     * so that the polling thread can walk it without allocating.
+     */
+    private volatile ControlEventQueue[] eventQueues = new ControlEventQueue[0];
+
+    /**
+     * Lock for changes to {@link #eventQueues}.
+     */
+    private final Object eventQueueLock = new Object();
+
+    /**
+     * Listeners registered with their own dispatch lanes.  Replaced
+     * wholesale (under {@link #laneListenerLock}) whenever a listener is
+     * added or removed, so that the polling thread can walk it without
+     * allocating.
+     */
+    private volatile LaneListener[] laneListeners = new LaneListener[0];
+
+    /**
+     * Lock for changes to {@link #laneListeners}.
+     */
+    private final Object laneListenerLock = new Object();
+
+    /**
+     * The period at which polling is scheduled, in nanoseconds, or 0 if it
+     * is not scheduled.
+     */
+    private volatile long pollingIntervalNanos = 0L;
+
+    /**
+     * Time spent in listeners called directly during the current polling
+     * cycle.  Only accessed by the polling thread.
+     */
+    private long directListenerNanos = 0L;
+
+    /**
+     * Number of events produced so far in the current polling cycle.  Only
+     * accessed by the polling thread.
+     */
+    private int cycleEvents = 0;
+
+    /**
+     * Watches the time spent in listeners called directly.
+     */
+    private final ListenerWatchdog directWatchdog;
+
+    /**
+     * The event dispatcher for this poller's controller.
+     */
+    private final ExecutorService eventDispatcher;
+
+    /**
+     * The polling service that this poller's controller is assigned to.
+     */
+    private final ScheduledExecutorService pollingService;
+
+    /**
+     * The most recent value-change task submitted for each control, by
+     * control index, for coalescing.  Only accessed by the polling thread.
+     */
+    private final EventTask[] pendingValueChanges;
+
+    /**
+     * The most recent control-polled task submitted for each control, by
+     * control index, for coalescing.  Only accessed by the polling thread.
+     */
+    private final EventTask[] pendingControlPolls;
+
+    /**
+     * Whether or not value-change and control-polled events are always
+     * coalesced with undelivered events for the same control.
+     */
+    private volatile boolean coalescingEnabled = false;
+
+    /**
+     * Number of events this poller has coalesced into later events.
+     */
+    private final AtomicLong coalescedEvents = new AtomicLong();
+
+    /**
+     * Number of exceptions thrown by this poller's listeners.
+     */
+    private final AtomicLong listenerFailures = new AtomicLong();
+
+    /**
+     * When the current rate window started, as a {@link System#nanoTime()}.
+     * Only accessed by the polling thread.
+     */
+    private long windowStartNanos = ControllerState.NO_TIMESTAMP;
+
+    /**
+     * Number of polls in the current rate window.  Only accessed by the
+     * polling thread.
+     */
+    private long windowPolls = 0L;
+
+    /**
+     * Number of events of each type produced in the current rate window,
+     * by ordinal.  Only accessed by the polling thread.
+     */
+    private final long[] windowEvents =
+        new long[ControlEventType.values().length];
+
+    /**
+     * Polls per second over the last complete rate window.
+     */
+    private volatile long achievedPollingRate = 0L;
+
+    /**
+     * Events of each type per second over the last complete rate window,
+     * by ordinal.
+     */
+    private final AtomicLongArray eventRates =
+        new AtomicLongArray(ControlEventType.values().length);
+
+    /**
+     * When the last complete rate window ended, as a
+     * {@link System#nanoTime()}.
+     */
+    private volatile long ratesPublishedNanos = ControllerState.NO_TIMESTAMP;
+
+    /**
+     * The most recent failure to poll the controller, if any.
+     */
+    private volatile ControllerException lastPollFailure = null;
+
+    /**
+     * When the most recent failure to poll the controller happened, in
+     * milliseconds since the epoch, or -1 if polling has never failed.
+     */
+    private volatile long lastPollFailureTime = -1L;
+
+    /**
+     * Whether or not polls read only the controls that the controller's
+     * event queue reports as changed, between full scans.
+     */
+    private volatile boolean eventDriven = false;
+
+    /**
+     * How often event-driven polling falls back to a full scan, in
+     * nanoseconds.
+     */
+    private volatile long fullScanIntervalNanos = 0L;
+
+    /**
+     * The {@link System#nanoTime()} of the last poll that read every
+     * control.  Only accessed by the polling thread.
+     */
+    private long lastFullScanNanos = ControllerState.NO_TIMESTAMP;
+
+    /**
+     * Bit set of the controls to process in the current poll, indexed like
+     * the controls.  Only accessed by the polling thread.
+     */
+    private final long[] dirtyControls;
+
+    /**
+     * Bit set of the controls whose values changed in the previous poll,
+     * which are processed once more so that the change is archived.  Only
+     * accessed by the polling thread.
+     */
+    private final long[] changedControls;
+
+    /**
+     * Bit set of the controls whose turbo timers are running.  Only
+     * accessed by the polling thread.
+     */
+    private final long[] turboControls;
+
+    /**
+     * Bit set of the controls that produce
+     * {@link ControlEventType#CONTROL_POLLED} events on every poll, not
+     * just when their values change.  Replaced, never modified, under
+     * {@link #unchangedPollEventsLock}.
+     */
+    private volatile long[] unchangedPollEvents;
+
+    /**
+     * Lock for changes to {@link #unchangedPollEvents}.
+     */
+    private final Object unchangedPollEventsLock = new Object();
+
+    /**
+     * The raw value of each control as of the previous poll.  Only
+     * accessed by the polling thread.
+     */
+    private final float[] previousRawValues;
+
+    /**
+     * The configuration used by the previous poll.  Only accessed by the
+     * polling thread.
+     */
+    private ControllerConfiguration lastConfig = null;
+
+    /**
+     * Constructs a new poller for the specified controller.
+     * <p>
+     * All of the controls found within the controller can be polled
+     * conveniently with this object.
+     * 
+     * @param controller the controller to be polled
+     */
+    private ControllerPoller(NiceController controller) {
+        this.controller = controller;
+        this.controllerState = new ControllerState(controller);
+        this.latestState = new ControllerState(controller);
+        this.pendingValueChanges = new EventTask[controller.getControls().size()];
+        this.pendingControlPolls = new EventTask[controller.getControls().size()];
+        final int bitSetLength = (controller.getControls().size() + 63) >>> 6;
+        this.dirtyControls = new long[bitSetLength];
+        this.changedControls = new long[bitSetLength];
+        this.turboControls = new long[bitSetLength];
+        this.unchangedPollEvents = new long[bitSetLength];
+        this.previousRawValues = new float[controller.getControls().size()];
+        this.directWatchdog = new ListenerWatchdog();
+        this.eventDispatcher = ControllerManager.getEventDispatcher(controller);
+        this.pollingService = ControllerManager.assignPollingService();
+        pollingInvoker = new PollingInvoker(this);
+    }
+
+    private final void init() {
+        startPolling(pollingRate, periodNanos(pollingRate));
+    }
+
+    public final static ControllerPoller getInstance(NiceController controller) {
+        synchronized(pollersByController) {
+            ControllerPoller instance = pollersByController.get(controller);
+            if (instance == null) {
+                instance = new ControllerPoller(controller);
+                instance.init();
+                pollersByController.put(controller, instance);
+                ManagementRegistry.register(instance);
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Returns all of the pollers created so far.
+     * 
+     * @return a new list of the pollers
+     */
+    final static List<ControllerPoller> getInstances() {
+        synchronized(pollersByController) {
+            return new ArrayList<ControllerPoller>(pollersByController.values());
+        }
+    }
+
+    /**
+     * Returns the controller that this poller polls.
+     * 
+     * @return the controller
+     */
+    public final NiceController getController() {
+        return controller;
+    }
+
+    /**
+     * Requests that <strong>all</strong> polling cease in the near future.
+     * Events that are currently enqueued are allowed to start and complete.
+     */
+    final static void shutdownAllPolling() {
+        for (ScheduledExecutorService pollingService
+                : ControllerManager.getPollingServices()) {
+            pollingService.shutdown();
+        }
+    }
+
+    /**
+     * Requests that <strong>all</strong> polling cease as soon as possible.
+     * All currently-executing events are asked to halt (via interrupt)
+     * and all enqueued events are dropped on the floor.
+     */
+    final static void shutdownAllPollingNow() {
+        for (ScheduledExecutorService pollingService
+                : ControllerManager.getPollingServices()) {
+            pollingService.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for all polling to cease.
+     * 
+     * @param timeout the maximum amount of time to wait for termination
+     * @param unit the unit of time to wait for
+     * @return <code>true</code> if all polling has ceased when this method
+     * returns; otherwise, <code>false</code> if the timeout expires first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    final static boolean awaitTermination(long timeout, TimeUnit unit)
+    throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ScheduledExecutorService pollingService
+                : ControllerManager.getPollingServices()) {
+            if (!pollingService.awaitTermination(
+                    deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the rate at which the controller is polled.
+     * <p>
+     * The rate may be changed at any time.  If polling is running, the next
+     * poll happens one new period from now and every period after that;
+     * all state, listeners and pending events are kept.  If polling has
+     * been stopped, the rate is recorded but polling is not restarted.
+     * 
+     * @param pollsPerSecond the polling rate, from
+     * {@link #MIN_POLLING_RATE} to {@link #MAX_POLLING_RATE} inclusive
+     * @throws IllegalArgumentException if the rate is out of range
+     */
+    public final void setPollingRate(final int pollsPerSecond) {
+        if (pollsPerSecond < MIN_POLLING_RATE
+                || pollsPerSecond > MAX_POLLING_RATE) {
+            throw new IllegalArgumentException("Polling rate must be between "
+                    + MIN_POLLING_RATE + " and " + MAX_POLLING_RATE
+                    + " polls per second: " + pollsPerSecond);
+        }
+        synchronized(pollingInvoker) {
+            pollingRate = pollsPerSecond;
+            if (pollingScheduled && !pollingSuspended) {
+                startPolling(pollsPerSecond, periodNanos(pollsPerSecond));
+            }
+        }
+    }
+
+    /**
+     * Returns the rate at which the controller is polled, as last set by
+     * {@link #setPollingRate(int)}.
+     * 
+     * @return the polling rate, in polls per second
+     */
+    public final int getPollingRate() {
+        return pollingRate;
+    }
+
+    /**
+     * Returns the rate at which polling is currently scheduled.  This is
+     * the rate set by {@link #setPollingRate(int)}, unless polling has
+     * backed off because the controller is idle.
+     * 
+     * @return the current polling rate, in polls per second
+     * @see #enableIdleBackOff(int, long, TimeUnit)
+     */
+    public final int getCurrentPollingRate() {
+        return currentPollingRate;
+    }
+
+    /**
+     * Returns the number of polls actually made per second, measured over
+     * the most recent complete second.  This may fall short of the
+     * requested rate if polling is overloaded.
+     * 
+     * @return the achieved polling rate, in polls per second, or 0 if
+     * the controller has not been polled in the last two seconds
+     */
+    public final long getAchievedPollingRate() {
+        return ratesAreCurrent() ? achievedPollingRate : 0L;
+    }
+
+    /**
+     * Returns the number of events of the specified type produced per
+     * second, measured over the most recent complete second.  Every event
+     * is counted once, however many listeners, queues and lanes it is
+     * delivered to.
+     * 
+     * @param type the type of event
+     * @return the event rate, in events per second, or 0 if the controller
+     * has not been polled in the last two seconds
+     */
+    public final long getEventRate(final ControlEventType type) {
+        return ratesAreCurrent() ? eventRates.get(type.ordinal()) : 0L;
+    }
+
+    /**
+     * Returns whether or not the published rates are recent enough to be
+     * reported.
+     * 
+     * @return <code>true</code> if a rate window ended in the last two
+     * windows' time
+     */
+    private final boolean ratesAreCurrent() {
+        final long published = ratesPublishedNanos;
+        return published != ControllerState.NO_TIMESTAMP
+            && System.nanoTime() - published <= 2 * RATE_WINDOW_NANOS;
+    }
+
+    /**
+     * Counts a poll towards the achieved rates, ending the current rate
+     * window and publishing its rates if it has run its length.  Must only
+     * be called from the polling thread.
+     * 
+     * @param now the current {@link System#nanoTime()}
+     */
+    private final void countPoll(final long now) {
+        if (windowStartNanos == ControllerState.NO_TIMESTAMP) {
+            windowStartNanos = now;
+        } else if (now - windowStartNanos >= RATE_WINDOW_NANOS) {
+            final long elapsed = now - windowStartNanos;
+            final long second = TimeUnit.SECONDS.toNanos(1);
+            achievedPollingRate = (windowPolls * second + elapsed / 2) / elapsed;
+            for (int index = 0; index < windowEvents.length; index++) {
+                eventRates.lazySet(index,
+                        (windowEvents[index] * second + elapsed / 2) / elapsed);
+                windowEvents[index] = 0L;
+            }
+            windowPolls = 0L;
+            windowStartNanos = now;
+            ratesPublishedNanos = now;
+        }
+        windowPolls++;
+    }
+
+    /**
+     * Returns the most recent failure to poll the controller.  Polling
+     * stops when it fails.
+     * 
+     * @return the failure, or <code>null</code> if polling has never failed
+     */
+    public final ControllerException getLastPollFailure() {
+        return lastPollFailure;
+    }
+
+    /**
+     * Returns when the most recent failure to poll the controller happened.
+     * 
+     * @return the time of the failure, in milliseconds since the epoch, or
+     * -1 if polling has never failed
+     */
+    public final long getLastPollFailureTime() {
+        return lastPollFailureTime;
+    }
+
+    /**
+     * Enables event-driven polling, which saves CPU on controllers with
+     * many controls, such as keyboards.
+     * <p>
+     * Instead of reading the value of every control on every poll, the
+     * poller drains the controller's event queue and updates only the
+     * controls that it reports as changed.  As on any poll, only the
+     * controls that changed or otherwise need attention are then
+     * processed; see {@link #enableUnchangedPollEvents(NiceControl)}.
+     * <p>
+     * Event queues can overflow and drop changes, so every so often a poll
+     * reads every control as usual.  The full scan corrects any control
+     * left stale by a lost event.  The first poll after this method is
+     * called is a full scan if none has happened within the interval.
+     * 
+     * @param fullScanInterval how often to read every control
+     * @param unit the unit of the interval
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public final void enableEventDrivenPolling(final long fullScanInterval,
+            final TimeUnit unit) {
+        if (fullScanInterval <= 0) {
+            throw new IllegalArgumentException(
+                    "Full scan interval must be positive: " + fullScanInterval);
+        }
+        fullScanIntervalNanos = unit.toNanos(fullScanInterval);
+        eventDriven = true;
+    }
+
+    /**
+     * Disables event-driven polling, returning to reading every control on
+     * every poll.
+     * 
+     * @see #enableEventDrivenPolling(long, TimeUnit)
+     */
+    public final void disableEventDrivenPolling() {
+        eventDriven = false;
+    }
+
+    /**
+     * Returns whether or not event-driven polling is enabled.
+     * 
+     * @return <code>true</code> if polls read only changed controls
+     * between full scans
+     * @see #enableEventDrivenPolling(long, TimeUnit)
+     */
+    public final boolean isEventDrivenPolling() {
+        return eventDriven;
+    }
+
+    /**
+     * Makes the specified control produce a
+     * {@link ControlEventType#CONTROL_POLLED} event on every poll.
+     * <p>
+     * To keep the cost of a poll in proportion to how much is happening
+     * rather than to how many controls there are, each poll processes only
+     * the controls whose raw values have changed, plus those that need
+     * attention for other reasons, such as running turbo timers.  So by
+     * default, control polling listeners hear about a control only on its
+     * first poll and whenever its value has changed.  This method asks for
+     * the control to be processed, and its polling event produced, on every
+     * poll, as for a control whose value is sampled continuously.
+     * <p>
+     * Either way, every control in a polled state carries the time of the
+     * poll that produced it.
+     * 
+     * @param control the control
+     * @throws NoSuchControlException if the control does not belong to
+     * this poller's controller
+     * @see #disableUnchangedPollEvents(NiceControl)
+     */
+    public final void enableUnchangedPollEvents(final NiceControl control) {
+        setUnchangedPollEvents(control, true);
+    }
+
+    /**
+     * Returns the specified control to producing
+     * {@link ControlEventType#CONTROL_POLLED} events only when its value
+     * changes, which is the default.
+     * 
+     * @param control the control
+     * @throws NoSuchControlException if the control does not belong to
+     * this poller's controller
+     * @see #enableUnchangedPollEvents(NiceControl)
+     */
+    public final void disableUnchangedPollEvents(final NiceControl control) {
+        setUnchangedPollEvents(control, false);
+    }
+
+    /**
+     * Returns whether or not the specified control produces a
+     * {@link ControlEventType#CONTROL_POLLED} event on every poll.
+     * 
+     * @param control the control
+     * @return <code>true</code> if it does; <code>false</code> if it does
+     * only when its value changes
+     * @throws NoSuchControlException if the control does not belong to
+     * this poller's controller
+     * @see #enableUnchangedPollEvents(NiceControl)
+     */
+    public final boolean isUnchangedPollEventsEnabled(final NiceControl control) {
+        final int index = indexOf(control);
+        return (unchangedPollEvents[index >>> 6] & (1L << index)) != 0L;
+    }
+
+    /**
+     * Sets whether or not the specified control produces a polling event on
+     * every poll.
+     * 
+     * @param control the control
+     * @param enabled whether it does
+     */
+    private final void setUnchangedPollEvents(final NiceControl control,
+            final boolean enabled) {
+        final int index = indexOf(control);
+        synchronized(unchangedPollEventsLock) {
+            final long[] copy = unchangedPollEvents.clone();
+            if (enabled) {
+                copy[index >>> 6] |= 1L << index;
+            } else {
+                copy[index >>> 6] &= ~(1L << index);
+            }
+            unchangedPollEvents = copy;
+        }
+    }
+
+    /**
+     * Returns the index of the specified control.
+     * 
+     * @param control the control
+     * @return its index
+     * @throws NoSuchControlException if the control does not belong to
+     * this poller's controller
+     */
+    private final int indexOf(final NiceControl control) {
+        if (control.getController() != controller) {
+            throw new NoSuchControlException(
+                    "Control does not exist in the controller of this poller.");
+        }
+        return control.getIndex();
+    }
+
+    /**
+     * Enables adaptive polling, which saves CPU while the controller is
+     * idle.
+     * <p>
+     * Whenever no control has changed value for the specified idle time,
+     * the polling rate is halved, step by step, down to the specified floor
+     * rate.  The first change seen puts polling straight back to the full
+     * rate set by {@link #setPollingRate(int)}.  Values are compared after
+     * the control's configuration has been applied, so that noise inside a
+     * dead zone does not count as activity.
+     * <p>
+     * A change made while polling has backed off is seen up to one floor
+     * period late instead of one full-rate period late, so backing off
+     * adds at most <code>1/floorRate - 1/pollingRate</code> seconds of
+     * latency.  The extra period that was in effect each time activity was
+     * detected is reported by {@link #getLastWakeUpLatency(TimeUnit)} and
+     * {@link #getMaxWakeUpLatency(TimeUnit)}.
+     * <p>
+     * Additionally, polling stops altogether once the poller has had no
+     * listeners, event queues or calls to
+     * {@link #readLatest(ControllerState)} for the idle time.  It resumes
+     * at the full rate, with an immediate poll, as soon as a listener or
+     * queue is added or <code>readLatest</code> is called; that first call
+     * returns the state as of when polling stopped.
+     * 
+     * @param floorRate the lowest rate to back off to, in polls per second,
+     * from {@link #MIN_POLLING_RATE} to {@link #MAX_POLLING_RATE} inclusive
+     * @param idleTime how long the controller must be idle before each
+     * step down
+     * @param unit the unit of the idle time
+     * @throws IllegalArgumentException if the floor rate is out of range or
+     * the idle time is not positive
+     */
+    public final void enableIdleBackOff(final int floorRate,
+            final long idleTime, final TimeUnit unit) {
+        if (floorRate < MIN_POLLING_RATE || floorRate > MAX_POLLING_RATE) {
+            throw new IllegalArgumentException("Floor rate must be between "
+                    + MIN_POLLING_RATE + " and " + MAX_POLLING_RATE
+                    + " polls per second: " + floorRate);
+        }
+        if (idleTime <= 0) {
+            throw new IllegalArgumentException(
+                    "Idle time must be positive: " + idleTime);
+        }
+        idleFloorRate = floorRate;
+        idleTimeNanos = unit.toNanos(idleTime);
+        idleBackOff = true;
+    }
+
+    /**
+     * Disables adaptive polling, returning to polling at the full rate.
+     * 
+     * @see #enableIdleBackOff(int, long, TimeUnit)
+     */
+    public final void disableIdleBackOff() {
+        synchronized(pollingInvoker) {
+            idleBackOff = false;
+            wakeUp();
+            if (pollingScheduled && currentPollingRate != pollingRate) {
+                startPolling(pollingRate, periodNanos(pollingRate));
+            }
+        }
+    }
+
+    /**
+     * Returns whether or not adaptive polling is enabled.
+     * 
+     * @return <code>true</code> if polling backs off while idle
+     * @see #enableIdleBackOff(int, long, TimeUnit)
+     */
+    public final boolean isIdleBackOffEnabled() {
+        return idleBackOff;
+    }
+
+    /**
+     * Returns whether or not polling is currently suspended because
+     * nothing is consuming the controller's state.
+     * 
+     * @return <code>true</code> if polling is suspended
+     * @see #enableIdleBackOff(int, long, TimeUnit)
+     */
+    public final boolean isPollingSuspended() {
+        return pollingSuspended;
+    }
+
+    /**
+     * Returns how much longer than a full-rate period the polling period
+     * was when activity was last detected after backing off.  This bounds
+     * how much later than usual that activity was seen.
+     * 
+     * @param unit the unit to return the time in
+     * @return the added latency of the last wake-up
+     */
+    public final long getLastWakeUpLatency(final TimeUnit unit) {
+        return unit.convert(lastWakeUpLatencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the largest value that
+     * {@link #getLastWakeUpLatency(TimeUnit)} has had.
+     * 
+     * @param unit the unit to return the time in
+     * @return the largest added latency of any wake-up
+     */
+    public final long getMaxWakeUpLatency(final TimeUnit unit) {
+        return unit.convert(maxWakeUpLatencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the polling period for the specified rate.
+     * 
+     * @param pollsPerSecond the polling rate
+     * @return the period, in nanoseconds
+     */
+    private final static long periodNanos(final int pollsPerSecond) {
+        return TimeUnit.SECONDS.toNanos(1) / pollsPerSecond;
+    }
+
+    /**
+     * Returns whether or not anything is registered to consume the results
+     * of polling.
+     * 
+     * @return <code>true</code> if there are listeners or event queues
+     */
+    private final boolean hasConsumers() {
+        return activationListeners.size() > 0
+            || changeListeners.size() > 0
+            || controlPollingListeners.size() > 0
+            || controllerPollingListeners.size() > 0
+            || laneListeners.length > 0
+            || eventQueues.length > 0;
+    }
+
+    /**
+     * Resumes polling if it has been suspended for lack of consumers.
+     */
+    private final void wakeUp() {
+        if (!pollingSuspended) {
+            return;
+        }
+        synchronized(pollingInvoker) {
+            if (pollingSuspended) {
+                pollingSuspended = false;
+                idleTimersStarted = false;
+                if (pollingScheduled) {
+                    startPolling(pollingRate, 0L);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adjusts the polling rate at the end of a polling cycle, according to
+     * whether any control changed value.  Only called by the polling thread.
+     * 
+     * @param changed whether any control changed value in this cycle
+     */
+    private final void adaptPollingRate(final boolean changed) {
+        if (!idleBackOff) {
+            idleTimersStarted = false;
+            return;
+        }
+        final long now = System.nanoTime();
+        if (!idleTimersStarted) {
+            idleTimersStarted = true;
+            lastStepNanos = now;
+            lastConsumedNanos = now;
+        }
+        if (hasConsumers()) {
+            lastConsumedNanos = now;
+        }
+
+        final int fullRate = pollingRate;
+        final int rate = currentPollingRate;
+        if (changed) {
+            lastStepNanos = now;
+            if (rate != fullRate) {
+                final long extra = periodNanos(rate) - periodNanos(fullRate);
+                lastWakeUpLatencyNanos = extra;
+                if (extra > maxWakeUpLatencyNanos) {
+                    maxWakeUpLatencyNanos = extra;
+                }
+                reschedule(fullRate);
+            }
+            return;
+        }
+
+        final long idleTime = idleTimeNanos;
+        if (now - Math.max(lastConsumedNanos, lastReadNanos) >= idleTime) {
+            suspend(now);
+        } else if (now - lastStepNanos >= idleTime && rate > idleFloorRate) {
+            lastStepNanos = now;
+            reschedule(Math.max(idleFloorRate, rate / 2));
+        }
+    }
+
+    /**
+     * Reschedules polling from the polling thread, unless polling has been
+     * stopped in the meantime.
+     * 
+     * @param pollsPerSecond the new polling rate
+     */
+    private final void reschedule(final int pollsPerSecond) {
+        synchronized(pollingInvoker) {
+            if (!pollingScheduled || pollingSuspended) {
+                return;
+            }
+            startPolling(pollsPerSecond, periodNanos(pollsPerSecond));
+        }
+    }
+
+    /**
+     * Suspends polling from the polling thread, unless polling has been
+     * stopped in the meantime or a consumer has just turned up.
+     * 
+     * @param now the current {@link System#nanoTime()}
+     */
+    private final void suspend(final long now) {
+        synchronized(pollingInvoker) {
+            if (!pollingScheduled || pollingSuspended) {
+                return;
+            }
+            // Consumers publish themselves before checking this flag, and
+            // we check for them after setting it, so a consumer arriving
+            // now is either seen here or wakes polling up again itself.
+            pollingSuspended = true;
+            if (hasConsumers() || now - lastReadNanos < idleTimeNanos) {
+                pollingSuspended = false;
+                return;
+            }
+            cancelSchedule();
+        }
+    }
+
+    /**
+     * Returns the polling service that this poller's controller is assigned
+     * to.  Polling for the controller only ever happens on this service.
+     * 
+     * @return the polling service
+     */
+    final ScheduledExecutorService getPollingService() {
+        return pollingService;
+    }
+
+    /**
+     * Starts or resumes polling the controller associated with this poller.
+     * <p>
+     * If polling is already running, cancels the next polling interval and
+     * reschedules polling at the specified rate.
+     * 
+     * @param pollsPerSecond the rate at which to poll
+     * @param initialDelayNanos how long to wait before the first poll, in
+     * nanoseconds
+     */
+    private final void startPolling(final int pollsPerSecond,
+            final long initialDelayNanos) {
+        synchronized(pollingInvoker) {
+            cancelSchedule();
+            final long interval = periodNanos(pollsPerSecond);
+            if (deadlineTicker != null) {
+                deadlineTicker.schedule(interval, initialDelayNanos);
+            } else {
+                nextPollNanos = System.nanoTime() + initialDelayNanos;
+                pollingTask = pollingService.scheduleAtFixedRate(pollingInvoker,
+                        initialDelayNanos, interval, TimeUnit.NANOSECONDS);
+            }
+            pollingScheduled = true;
+            pollingIntervalNanos = interval;
+            currentPollingRate = pollsPerSecond;
+        }
+    }
+
+    /**
+     * Cancels whichever schedule polling is running on.  A poll in
+     * progress is allowed to finish.  Must be called while holding the
+     * lock on {@link #pollingInvoker}.
+     */
+    private final void cancelSchedule() {
+        if (pollingTask != null) {
+            pollingTask.cancel(false);
+            pollingTask = null;
+        }
+        if (deadlineTicker != null) {
+            deadlineTicker.cancel();
+        }
+    }
+
+    /**
+     * Called by the polling service for each scheduled poll.
+     */
+    private final void pollOnSchedule() {
+        final long due = nextPollNanos;
+        schedulingJitter.record(System.nanoTime() - due);
+        nextPollNanos = due + pollingIntervalNanos;
+        poll();
+    }
+
+    /**
+     * Moves polling of this controller onto a dedicated thread that polls
+     * at deadlines kept against {@link System#nanoTime()}, instead of the
+     * shared polling service, without spinning.  Equivalent to
+     * {@link #enableDeadlineScheduling(MissedTickPolicy, int, long, TimeUnit)}
+     * with a spin time of zero.
+     * 
+     * @param missedTickPolicy what to do about overdue polls
+     * @param maxCatchUpTicks the maximum number of overdue polls to catch
+     * up on; ignored for {@link MissedTickPolicy#SKIP}
+     * @throws IllegalArgumentException if the policy is <code>null</code>
+     * or the cap is negative
+     */
+    public final void enableDeadlineScheduling(
+            final MissedTickPolicy missedTickPolicy, final int maxCatchUpTicks) {
+        enableDeadlineScheduling(missedTickPolicy, maxCatchUpTicks, 0L,
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Moves polling of this controller onto a dedicated thread that polls
+     * at precise deadlines, instead of the shared polling service.
+     * <p>
+     * The polling service's scheduler typically starts polls anywhere up
+     * to a few milliseconds late under load.  The dedicated thread parks
+     * until it is within the specified spin time of each deadline and then
+     * spins until the deadline, which keeps polls within microseconds of
+     * their deadlines at the cost of keeping a processor busy for the spin
+     * time of every poll.  Spinning is opt-in: with a spin time of zero, as
+     * used by {@link #enableDeadlineScheduling(MissedTickPolicy, int)}, the
+     * thread parks all the way to each deadline and never busy-waits.
+     * The thread runs at normal priority.  Deadlines are kept against
+     * {@link System#nanoTime()}, so they never drift.  How late each poll
+     * starts is recorded in {@link #getSchedulingJitter()} under either
+     * kind of scheduling, for comparison.
+     * <p>
+     * If a poll starts so late that later polls are already due, the
+     * policy decides whether the overdue polls are skipped or caught up
+     * on; skipped polls are counted by {@link #getMissedTickCount()}.
+     * <p>
+     * The controller is still only ever polled by one thread at a time.
+     * Calling this method again changes the policy of the existing thread.
+     * The rate, back-off and all other settings are unaffected.
+     * 
+     * @param missedTickPolicy what to do about overdue polls
+     * @param maxCatchUpTicks the maximum number of overdue polls to catch
+     * up on; ignored for {@link MissedTickPolicy#SKIP}
+     * @param spinTime how long before each deadline to start spinning
+     * @param unit the unit of the spin time
+     * @throws IllegalArgumentException if the policy is <code>null</code>
+     * or the cap or spin time is negative
+     */
+    public final void enableDeadlineScheduling(
+            final MissedTickPolicy missedTickPolicy, final int maxCatchUpTicks,
+            final long spinTime, final TimeUnit unit) {
+        if (missedTickPolicy == null) {
+            throw new IllegalArgumentException(
+                    "Missed tick policy cannot be null.");
+        }
+        if (maxCatchUpTicks < 0 || spinTime < 0) {
+            throw new IllegalArgumentException(
+                    "Catch-up cap and spin time cannot be negative.");
+        }
+        synchronized(pollingInvoker) {
+            if (deadlineTicker != null) {
+                deadlineTicker.setPolicy(missedTickPolicy, maxCatchUpTicks,
+                        unit.toNanos(spinTime));
+                return;
+            }
+            if (pollingTask != null) {
+                pollingTask.cancel(false);
+                pollingTask = null;
+            }
+            deadlineTicker = new DeadlineTicker(this, schedulingJitter,
+                    "nicegamepads-deadline-" + controller.getDeclaredName(),
+                    missedTickPolicy, maxCatchUpTicks, unit.toNanos(spinTime));
+            deadlineTicker.start();
+            if (pollingScheduled && !pollingSuspended) {
+                startPolling(currentPollingRate, pollingIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Moves polling of this controller back onto the shared polling
+     * service.
+     * 
+     * @see #enableDeadlineScheduling(MissedTickPolicy, int, long, TimeUnit)
+     */
+    public final void disableDeadlineScheduling() {
+        final DeadlineTicker ticker;
+        synchronized(pollingInvoker) {
+            ticker = deadlineTicker;
+            if (ticker == null) {
+                return;
+            }
+            ticker.stop();
+            deadlineTicker = null;
+        }
+        // Let any poll in progress on the ticker finish before polling
+        // resumes elsewhere.  The lock must not be held, since the poll
+        // may need it.
+        if (Thread.currentThread() != ticker.getThread()) {
+            try {
+                ticker.getThread().join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized(pollingInvoker) {
+            retiredMissedTicks += ticker.getMissedTicks();
+            if (deadlineTicker == null && pollingScheduled
+                    && !pollingSuspended) {
+                startPolling(currentPollingRate, pollingIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Stops this poller's deadline thread for good, if it has one, as the
+     * framework shuts down.  A poll in progress is allowed to finish; the
+     * caller waits for it by joining the returned thread.
+     * 
+     * @return the deadline thread, or <code>null</code> if there is none
+     */
+    final Thread stopDeadlineTicker() {
+        synchronized(pollingInvoker) {
+            if (deadlineTicker == null) {
+                return null;
+            }
+            deadlineTicker.stop();
+            return deadlineTicker.getThread();
+        }
+    }
+
+    /**
+     * Returns whether or not the controller is polled by a dedicated
+     * deadline thread.
+     * 
+     * @return <code>true</code> if deadline scheduling is enabled
+     * @see #enableDeadlineScheduling(MissedTickPolicy, int, long, TimeUnit)
+     */
+    public final boolean isDeadlineSchedulingEnabled() {
+        synchronized(pollingInvoker) {
+            return deadlineTicker != null;
+        }
+    }
+
+    /**
+     * Returns a histogram of how late each scheduled poll started relative
+     * to its deadline, whichever way polling is scheduled.  Polls forced
+     * by other means are not included.
+     * 
+     * @return the live histogram, which may be reset by the caller
+     */
+    public final LatencyHistogram getSchedulingJitter() {
+        return schedulingJitter;
+    }
+
+    /**
+     * Returns the histograms of how long each stage between polling the
+     * controller and delivering to listeners takes.
+     * 
+     * @return the live histograms, which may be reset by the caller
+     */
+    public final PollerLatencies getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the number of polls that the deadline thread has skipped
+     * because they were overdue.
+     * 
+     * @return the number of missed polls, or 0 if deadline scheduling has
+     * never been enabled
+     * @see MissedTickPolicy
+     */
+    public final long getMissedTickCount() {
+        synchronized(pollingInvoker) {
+            return deadlineTicker == null ? retiredMissedTicks
+                : retiredMissedTicks + deadlineTicker.getMissedTicks();
+        }
+    }
+
+    /**
+     * Cancels any outstanding polling schedules immediately and stops all
+     * future polling.  No further polling will be performed.
+     * <p>
+     * Note that this method may result in one last polling event executing
+     * if the request to stop overlaps with such an event.  If you need
+     * to guarantee that polling has terminated by the time this call
+     * returns, use {@link #stopPollingAndWait(long, TimeUnit)} instead.
+     */
+    final void stopPolling() {
+        synchronized(pollingInvoker) {
+            cancelSchedule();
+            pollingScheduled = false;
+            pollingIntervalNanos = 0L;
+            pollingSuspended = false;
+        }
+    }
+
+    /**
+     * Starts polling again at the polling rate after a call to
+     * {@link #stopPolling()}.  Does nothing if polling is already running.
+     */
+    final void resumePolling() {
+        synchronized(pollingInvoker) {
+            if (!pollingScheduled) {
+                startPolling(pollingRate, 0L);
+            }
+        }
+    }
+
+    /**
+     * Returns whether or not polling is scheduled.  Polling that has been
+     * suspended for want of consumers still counts as scheduled.
+     * 
+     * @return <code>true</code> if polling is scheduled
+     */
+    final boolean isPollingScheduled() {
+        synchronized(pollingInvoker) {
+            return pollingScheduled;
+        }
+    }
+
+    /**
+     * Cancels any outstanding polling schedules immediately waits until
+     * the currently-executing polling process, if any, has completed.
+     * After this method has returned, it is guaranteed that no further
+     * polling events will be enqueued for dispatch (any unprocessed
+     * events will still be fired).
+     */
+    final void stopPollingAndWait(final long interval, final TimeUnit unit)
+    throws InterruptedException, ExecutionException, TimeoutException {
+        final boolean wasPolling;
+        final DeadlineTicker ticker;
+        synchronized(pollingInvoker) {
+            wasPolling = pollingScheduled;
+            ticker = deadlineTicker;
+            stopPolling();
+        }
+        // Wait without holding the lock, since a poll in progress may need
+        // it to reschedule itself (and will find that it has been stopped).
+        if (wasPolling && ticker != null) {
+            if (!ticker.awaitIdle(interval, unit)) {
+                throw new TimeoutException();
+            }
+        } else if (wasPolling) {
+            // Waiting on the cancelled task itself would return at once.
+            // The polling service has only one thread, so once an empty task
+            // has run, so has any poll that was in progress.
+            pollingService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // Nothing to do.
+                }
+            }).get(interval, unit);
+        }
+    }
+
+    /**
+     * Sets the first <code>count</code> bits of the specified bit set and
+     * clears the rest.
+     * 
+     * @param bits the bit set
+     * @param count the number of bits to set
+     */
+    private final static void setAll(final long[] bits, final int count) {
+        Arrays.fill(bits, 0L);
+        for (int word = 0; word < (count >>> 6); word++) {
+            bits[word] = -1L;
+        }
+        if ((count & 63) != 0) {
+            bits[count >>> 6] = (1L << count) - 1L;
+        }
+    }
+
+    /**
+     * Sets the bit of every control whose raw value differs from that of
+     * the previous poll, and remembers the new raw values.
+     * 
+     * @param rawValues the raw values just polled
+     * @param dirty the bit set to mark the changed controls in
+     */
+    private final void markRawChanges(final float[] rawValues,
+            final long[] dirty) {
+        final float[] previous = previousRawValues;
+        for (int word = 0; word < dirty.length; word++) {
+            final int first = word << 6;
+            final int last = Math.min(first + 64, rawValues.length);
+            long bits = 0L;
+            for (int index = first; index < last; index++) {
+                if (rawValues[index] != previous[index]) {
+                    bits |= 1L << index;
+                    previous[index] = rawValues[index];
+                }
+            }
+            dirty[word] = bits;
+        }
+    }
+
+    /**
+     * Remembers the new raw values of the controls reported by an
+     * event-driven poll, all of which are already marked dirty.
+     * 
+     * @param rawValues the raw values just polled
+     * @param dirty the bit set of the reported controls
+     */
+    private final void recordReportedValues(final float[] rawValues,
+            final long[] dirty) {
+        final float[] previous = previousRawValues;
+        for (int word = 0; word < dirty.length; word++) {
+            for (long bits = dirty[word]; bits != 0L; bits &= bits - 1L) {
+                final int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                previous[index] = rawValues[index];
+            }
+        }
+    }
+
+    /**
+     * Forces this controller to poll all of its controls immediately.
+     * <p>
+     * Polling will dispatch events for the controls as necessary.
+     * 
+     * @throws IllegalStateException if no configuration has been set for
+     * this poller
+     */
+    final void poll() {
+        // Start by obtaining a copy of the current configuration.  We will
+        // use only this copy for our entire method lifetime.
+        // Since the source is volatile we are guaranteed that we are getting
+        // the latest copy here.
+        final ControllerConfiguration config = controller.getConfiguration();
+        if (config == null) {
+            throw new IllegalStateException("Null configuration.");
+        }
+        if (config.getController() != controller) {
+            throw new IllegalStateException(
+                    "Configuration is for a different controller.");
+        }
+
+        ControlConfiguration controlConfig = null;
+        final boolean recycleEvents = allocationFreeMode;
+        final boolean direct = dispatchMode == DispatchMode.DIRECT;
+        final EventBatch batch = !direct && (recycleEvents
+                || dispatchMode == DispatchMode.BATCHED) ? acquireBatch() : null;
+        directListenerNanos = 0L;
+        cycleEvents = 0;
+        final PollCycleEvent cycleEvent = FlightRecording.recording
+            ? FlightRecording.beginPollCycle() : null;
+        // Stamp the cycle on the monotonic clock; the wall-clock time is
+        // kept alongside only so that it can be derived for the user.
+        final long nowNanos = System.nanoTime();
+        final long now = System.currentTimeMillis();
+        controllerState.timestampNanos = nowNanos;
+        controllerState.timestamp = now;
+        countPoll(nowNanos);
+
+        // Poll the controller, either in full or, when event-driven, just
+        // the controls its event queue reports.
+        final boolean fullScan = !eventDriven
+            || lastFullScanNanos == ControllerState.NO_TIMESTAMP
+            || nowNanos - lastFullScanNanos >= fullScanIntervalNanos;
+        try {
+            if (fullScan) {
+                config.getController().pollAllControls(controllerState);
+                lastFullScanNanos = nowNanos;
+            } else {
+                Arrays.fill(dirtyControls, 0L);
+                config.getController().pollChangedControls(
+                        controllerState, dirtyControls);
+            }
+        } catch(ControllerException e) {
+            // FIXME: raise event!
+            e.printStackTrace();
+            lastPollFailureTime = now;
+            lastPollFailure = e;
+            stopPolling();
+        }
+        final long polledNanos = System.nanoTime();
+        latencies.getPollDuration().record(polledNanos - nowNanos);
+
+        // Work out which controls to process: those whose raw values
+        // changed, those that changed last time and must have the change
+        // archived, those whose turbo timers are running and those whose
+        // polling events are wanted regardless.  A new configuration can
+        // change any transformed value, so it makes every control dirty.
+        final ControllerState state = controllerState;
+        final NiceControl[] controls = state.controls;
+        final long[] dirty = dirtyControls;
+        // Every control was polled, dirty or not, so every control carries
+        // the time of this poll.
+        state.stampAll(nowNanos);
+        final long[] pollUnchanged = unchangedPollEvents;
+        if (config != lastConfig) {
+            lastConfig = config;
+            setAll(dirty, controls.length);
+            System.arraycopy(state.rawValues, 0, previousRawValues, 0, controls.length);
+        } else if (fullScan) {
+            markRawChanges(state.rawValues, dirty);
+        } else {
+            recordReportedValues(state.rawValues, dirty);
+        }
+        for (int word = 0; word < dirty.length; word++) {
+            dirty[word] |= changedControls[word] | turboControls[word]
+                | pollUnchanged[word];
+            changedControls[word] = 0L;
+        }
+
+        // Process each dirty control.  The configuration is laid out in the
+        // same order as the controller state, so we can simply index into
+        // both.
+        int controlsChanged = 0;
+        for (int word = 0; word < dirty.length; word++) {
+            for (long bits = dirty[word]; bits != 0L; bits &= bits - 1L) {
+                final int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                final long bit = 1L << index;
+                final NiceControl control = controls[index];
+                // Look up configuration for this control
+                controlConfig = config.getConfiguration(index);
+                // Poll the value
+                float polledValue = state.rawValues[index];
+                // Transform according to configuration rules
+                polledValue = config.getTransform(index).apply(polledValue);
+                // Get any user ID bound to this value
+                boolean forceFireTurboEvent = false;
+
+                switch (control.getControlType()) {
+                    case DISCRETE_INPUT:
+                        state.newValue(index, polledValue, nowNanos, polledValue == 1f);
+                        // Check for turbo stuff
+                        if (controlConfig.isTurboEnabled() && polledValue == 1f) {
+                            if (controlConfig.getTurboDelayMillis() == 0) {
+                                // If button is pressed, force an event.
+                                forceFireTurboEvent = true;
+                            } else if (state.turboTimerStartNanos[index] != ControllerState.NO_TIMESTAMP) {
+                                // There is a specific delay for turbo and the
+                                // timer is running.  Has enough time gone by?
+                                if (nowNanos - state.turboTimerStartNanos[index] >= controlConfig.getTurboDelayNanos()) {
+                                    // Yes.
+                                    forceFireTurboEvent = true;
+                                }
+                            }
+                        }
+                        break;
+                    case CONTINUOUS_INPUT:
+                        state.newValue(index, polledValue, nowNanos, false);
+                        break;
+                    default:
+                        throw new RuntimeException("Unsupported control type: "
+                                + control.getControlType());
+                }
+
+                ControlEvent event = makeEvent(control, state.currentValues[index],
+                        state.lastValues[index], controlConfig, now, nowNanos,
+                        recycleEvents);
+                // Figure out which events need to be fired.
+
+                // Start with activation/deactivation events:
+                if (event.getPreviousValueId() != Integer.MIN_VALUE && event.getCurrentValueId() != Integer.MIN_VALUE) {
+                    // Both values are bound.
+                    if (event.getPreviousValueId() != event.getCurrentValueId()) {
+                        // Previous id deactivated.
+                        dispatch(ControlEventType.CONTROL_DEACTIVATED, event, batch, direct);
+                        // Current id activated
+                        dispatch(ControlEventType.CONTROL_ACTIVATED, event, batch, direct);
+                    } else {
+                        // Previous id is still active.
+                        if (forceFireTurboEvent) {
+                            // Turbo mode engaged.  Force an event to fire even
+                            // though nothing has really changed.
+                            dispatch(ControlEventType.CONTROL_ACTIVATED, event, batch, direct);
+                        }
+                    }
+                } else if (event.getPreviousValueId() != Integer.MIN_VALUE) {
+                    // Previous value is bound but current value isn't.
+                    dispatch(ControlEventType.CONTROL_DEACTIVATED, event, batch, direct);
+                } else if (event.getCurrentValueId() != Integer.MIN_VALUE) {
+                    // Current value is bound but previous value isn't.
+                    dispatch(ControlEventType.CONTROL_ACTIVATED, event, batch, direct);
+                } else {
+                    // Neither the current nor the previous value is bound
+                    // No-op (only thing that can happen is a change event,
+                    // which we don't test by ID since IDs aren't guaranteed
+                    // to be unique).
+                }
+
+                // Check for a value change and fire event if the value has changed,
+                // followed by the generic polling event.  Unchanged values only
+                // get the polling event on the control's first poll or if it
+                // has been asked for.
+                if (event.getPreviousValue() != event.getCurrentValue()) {
+                    controlsChanged++;
+                    changedControls[word] |= bit;
+                    dispatch(ControlEventType.VALUE_CHANGED, event, batch, direct);
+                    dispatch(ControlEventType.CONTROL_POLLED, event, batch, direct);
+                } else if ((pollUnchanged[word] & bit) != 0L
+                        || state.lastTimestampNanos[index] == ControllerState.NO_TIMESTAMP) {
+                    dispatch(ControlEventType.CONTROL_POLLED, event, batch, direct);
+                }
+
+                // Keep processing the control while its turbo timer runs.
+                if (controlConfig.isTurboEnabled()
+                        && state.turboTimerStartNanos[index] != ControllerState.NO_TIMESTAMP) {
+                    turboControls[word] |= bit;
+                } else {
+                    turboControls[word] &= ~bit;
+                }
+
+                // Give up our own reference; any batch holds its own.
+                event.release();
+            }
+        }
+        latencies.getProcessing().record(
+                System.nanoTime() - polledNanos - directListenerNanos);
+
+        // Publish the completed cycle for readLatest().
+        final long stamp = latestLock.writeLock();
+        try {
+            latestState.copyFrom(controllerState);
+        } finally {
+            latestLock.unlockWrite(stamp);
+        }
+
+        // Dispatch controller-polled event.
+        // We check to see if there are any listeners or not as there is no
+        // point in taking a snapshot that nobody will see.  In
+        // allocation-free mode, snapshots come from a small pool and are
+        // recycled once the listeners are done; otherwise each is new and
+        // listeners may keep it.
+        final LaneListener[] lanes = laneListeners;
+        boolean lanesWantState = false;
+        for (int index = 0; index < lanes.length; index++) {
+            lanesWantState |= lanes[index].kind == ListenerKind.CONTROLLER_POLLING;
+        }
+        if (controllerPollingListeners.size() > 0 || lanesWantState) {
+            final ControllerState stateCopy = recycleEvents
+                ? snapshotPool.acquire(controllerState)
+                : new ControllerState(controllerState);
+            for (int index = 0; index < lanes.length; index++) {
+                if (lanes[index].kind == ListenerKind.CONTROLLER_POLLING) {
+                    stateCopy.retain();
+                    lanes[index].lane.execute(
+                            acquireLaneTask(lanes[index], null, null, stateCopy));
+                }
+            }
+            if (controllerPollingListeners.size() == 0) {
+                stateCopy.release();
+            } else if (direct) {
+                final long start = System.nanoTime();
+                try {
+                    fireControllerPolled(stateCopy);
+                } finally {
+                    stateCopy.release();
+                }
+                directListenerNanos += System.nanoTime() - start;
+            } else if (batch != null) {
+                batch.setControllerState(stateCopy);
+            } else {
+                dispatchControllerPolled(stateCopy);
+            }
+        }
+
+        if (batch != null) {
+            if (batch.isEmpty()) {
+                releaseBatch(batch);
+            } else {
+                batch.submittedNanos = System.nanoTime();
+                eventDispatcher.execute(batch);
+            }
+        }
+
+        if (direct) {
+            directWatchdog.record(directListenerNanos, pollingIntervalNanos);
+        }
+
+        if (cycleEvent != null) {
+            FlightRecording.endPollCycle(cycleEvent, controller,
+                    controlsChanged, cycleEvents);
+        }
+        if (FlightRecording.recording && !direct
+                && eventDispatcher instanceof EventDispatcher) {
+            FlightRecording.dispatcherBacklog(controller,
+                    (EventDispatcher) eventDispatcher);
+        }
+
+        adaptPollingRate(controlsChanged > 0);
+    }
+
+    /**
+     * Returns a new state object for this poller's controller, suitable for
+     * passing to {@link #readLatest(ControllerState)}.  Callers should
+     * create one buffer and reuse it.
+     *
+     * @return a new, empty state for the controller
+     */
+    public final ControllerState createStateBuffer() {
+        return new ControllerState(controller);
+    }
+
+    /**
+     * Copies the state of the controller as of the most recently completed
+     * polling cycle into the specified buffer.
+     * <p>
+     * This is intended for callers such as game loops that would rather
+     * sample the controller once per frame than receive callbacks; it works
+     * whether or not any listeners are registered.  The copy is never torn:
+     * it always reflects exactly one polling cycle.  This method takes no
+     * locks and never blocks the polling thread; if a polling cycle is
+     * published while the copy is being made, the copy is simply retried.
+     * Nothing is allocated.
+     *
+     * @param target the buffer to copy into, as obtained from
+     * {@link #createStateBuffer()}
+     * @return <code>true</code> if the buffer now holds a completed polling
+     * cycle; <code>false</code> if the controller has not yet been polled
+     * @throws IllegalArgumentException if the buffer belongs to a different
+     * controller
+     */
+    public final boolean readLatest(final ControllerState target) {
+        if (target.controller != controller) {
+            throw new IllegalArgumentException(
+                    "State is for a different controller.");
+        }
+        if (idleBackOff) {
+            lastReadNanos = System.nanoTime();
+            wakeUp();
+        }
+        while (true) {
+            final long stamp = latestLock.tryOptimisticRead();
+            if (stamp == 0L) {
+                // A cycle is being published right now; it will be brief.
+                Thread.yield();
+                continue;
+            }
+            target.copyFrom(latestState);
+            if (latestLock.validate(stamp)) {
+                return target.timestamp >= 0L;
+            }
+        }
+    }
+
+    /**
+     * Creates a new queue that the polling thread fills directly with
+     * events from this poller, for the application to drain on its own
+     * thread with {@link ControlEventQueue#drainTo(EventSink, int)}.
+     * <p>
+     * Queued events bypass the event dispatcher entirely and are unaffected
+     * by the {@link DispatchMode}.  The queue receives events until it is
+     * removed with {@link #removeEventQueue(ControlEventQueue)}.
+     *
+     * @param capacity the maximum number of events in the queue
+     * @param overflowPolicy what to do with new events when the queue
+     * is full
+     * @param types the types of events to queue; if none are specified,
+     * events of all types are queued
+     * @return the new queue
+     * @throws IllegalArgumentException if the capacity is not positive or
+     * the policy is <code>null</code> or {@link OverflowPolicy#COALESCE}
+     */
+    public final ControlEventQueue createEventQueue(final int capacity,
+            final OverflowPolicy overflowPolicy,
+            final ControlEventType... types) {
+        final ControlEventQueue queue =
+            new ControlEventQueue(capacity, overflowPolicy, types);
+        synchronized(eventQueueLock) {
+            final ControlEventQueue[] oldQueues = eventQueues;
+            final ControlEventQueue[] newQueues =
+                new ControlEventQueue[oldQueues.length + 1];
+            System.arraycopy(oldQueues, 0, newQueues, 0, oldQueues.length);
+            newQueues[oldQueues.length] = queue;
+            eventQueues = newQueues;
+        }
+        wakeUp();
+        return queue;
+    }
+
+    /**
+     * Stops filling the specified queue.  Events already in the queue can
+     * still be drained.
+     *
+     * @param queue the queue to be removed
+     */
+    public final void removeEventQueue(final ControlEventQueue queue) {
+        synchronized(eventQueueLock) {
+            final ControlEventQueue[] oldQueues = eventQueues;
+            for (int index = 0; index < oldQueues.length; index++) {
+                if (oldQueues[index] == queue) {
+                    final ControlEventQueue[] newQueues =
+                        new ControlEventQueue[oldQueues.length - 1];
+                    System.arraycopy(oldQueues, 0, newQueues, 0, index);
+                    System.arraycopy(oldQueues, index + 1, newQueues, index,
+                            oldQueues.length - index - 1);
+                    eventQueues = newQueues;
+                    break;
+                }
+            }
+        }
+        queue.close();
+    }
+
+    /**
+     * Adds a listener to this poller to be notified whenever
+     * a control is activated or deactivated.
+     * <p>
+     * It is guaranteed that all control-related events will be
+     * dispatched before any {@link ControllerPollingListener} events.
+     * Thus the caller may safely rely on the {@link ControllerPollingListener}
+     * events as a notification mechanism that all values seen in the
+     * control-related events since the previous controller-polled event
+     * were obtained from one controller polling session.
+     * <p>
+     * Additionally, it is guaranteed that the timestamp on the
+     * {@link ControllerState} object passed to the listener will match
+     * the timestamps on any and all {@link ControlEvent}s that were
+     * dispatched as part of that same same polling operation.
+     * 
+     * @param listener the listener to add.
+     */
+    public final void addControlActivationListener(final ControlActivationListener listener) {
+        activationListeners.add(listener);
+        wakeUp();
+    }
+
+    /**
+     * Removes the specified listener.
+     * 
+     * @param listener the listener to be removed
+     */
+    public final void removeControlActivationListener(final ControlActivationListener listener) {
+        activationListeners.remove(listener);
+        removeLaneListener(ListenerKind.ACTIVATION, listener);
+    }
+
+    /**
+     * Adds a listener to this poller to be notified whenever a control is
+     * activated or deactivated, with events delivered on the specified
+     * dispatch lane instead of the shared event dispatcher.
+     * <p>
+     * Events are delivered in order within the lane, but there are no
+     * ordering guarantees relative to other lanes or to listeners on the
+     * shared dispatcher.
+     * 
+     * @param listener the listener to add
+     * @param lane the lane to deliver events on
+     */
+    public final void addControlActivationListener(
+            final ControlActivationListener listener, final DispatchLane lane) {
+        addLaneListener(ListenerKind.ACTIVATION, listener, lane);
+    }
+
+    /**
+     * Adds a listener to this poller to be notified whenever
+     * a control's value changes.
+     * <p>
+     * It is guaranteed that all control-related events will be
+     * dispatched before any {@link ControllerPollingListener} events.
+     * Thus the caller may safely rely on the {@link ControllerPollingListener}
+     * events as a notification mechanism that all values seen in the
+     * control-related events since the previous controller-polled event
+     * were obtained from one controller polling session.
+     * <p>
+     * Additionally, it is guaranteed that the timestamp on the
+     * {@link ControllerState} object passed to the listener will match
+     * the timestamps on any and all {@link ControlEvent}s that were
+     * dispatched as part of that same same polling operation.
+     * 
+     * @param listener the listener to add.
+     */
+    public final void addControlChangeListener(ControlChangeListener listener) {
+        changeListeners.add(listener);
+        wakeUp();
+    }
+
+    /**
+     * Removes the specified listener.
+     * 
+     * @param listener the listener to be removed
+     */
+    public final void removeControlChangeListener(final ControlChangeListener listener) {
+        changeListeners.remove(listener);
+        removeLaneListener(ListenerKind.CHANGE, listener);
+    }
+
+    /**
+     * Adds a listener to this poller to be notified whenever the value of
+     * a control changes, with events delivered on the specified dispatch
+     * lane instead of the shared event dispatcher.
+     * <p>
+     * Events are delivered in order within the lane, but there are no
+     * ordering guarantees relative to other lanes or to listeners on the
+     * shared dispatcher.  Coalescing does not apply to lanes.
+     * 
+     * @param listener the listener to add
+     * @param lane the lane to deliver events on
+     */
+    public final void addControlChangeListener(
+            final ControlChangeListener listener, final DispatchLane lane) {
+        addLaneListener(ListenerKind.CHANGE, listener, lane);
+    }
+
+    /**
+     * Adds a listener to this poller to be notified when a control is
+     * polled on its first poll and on every poll that changes its value.
+     * Polls that leave a control's value unchanged are only reported for
+     * controls enabled with {@link #enableUnchangedPollEvents(NiceControl)}.
+     * <p>
+     * It is guaranteed that all control-related events will be
+     * dispatched before any {@link ControllerPollingListener} events.
+     * Thus the caller may safely rely on the {@link ControllerPollingListener}
+     * events as a notification mechanism that all values seen in the
+     * control-related events since the previous controller-polled event
+     * were obtained from one controller polling session.
+     * <p>
+     * Additionally, it is guaranteed that the timestamp on the
+     * {@link ControllerState} object passed to the listener will match
+     * the timestamps on any and all {@link ControlEvent}s that were
+     * dispatched as part of that same same polling operation.
+     * 
+     * @param listener the listener to add.
+     */
+    public final void addControlPollingListener(final ControlPollingListener listener) {
+        controlPollingListeners.add(listener);
+        wakeUp();
+    }
+
+    /**
+     * Removes the specified listener.
+     * 
+     * @param listener the listener to be removed
+     */
+    public final void removeControlPollingListener(final ControlPollingListener listener) {
+        controlPollingListeners.remove(listener);
+        removeLaneListener(ListenerKind.CONTROL_POLLING, listener);
+    }
+
+    /**
+     * Adds a listener to this poller to be notified when a control is
+     * polled, with events delivered on the specified dispatch lane instead
+     * of the shared event dispatcher.  Which polls are reported is as per
+     * {@link #addControlPollingListener(ControlPollingListener)}.
+     * <p>
+     * Events are delivered in order within the lane, but there are no
+     * ordering guarantees relative to other lanes or to listeners on the
+     * shared dispatcher.  Coalescing does not apply to lanes.
+     * 
+     * @param listener the listener to add
+     * @param lane the lane to deliver events on
+     */
+    public final void addControlPollingListener(
+            final ControlPollingListener listener, final DispatchLane lane) {
+        addLaneListener(ListenerKind.CONTROL_POLLING, listener, lane);
+    }
+
+    /**
+     * Adds a listener to this poller to be notified whenever
+     * the controller completes polling.
+     * <p>
+     * It is guaranteed that all control-related events will be
+     * dispatched before any {@link ControllerPollingListener} events.
+     * Thus the caller may safely rely on the {@link ControllerPollingListener}
+     * events as a notification mechanism that all values seen in the
+     * control-related events since the previous controller-polled event
+     * were obtained from one controller polling session.
+     * <p>
+     * Additionally, it is guaranteed that the timestamp on the
+     * {@link ControllerState} object passed to the listener will match
+     * the timestamps on any and all {@link ControlEvent}s that were
+     * dispatched as part of that same same polling operation.
+     * 
+     * @param listener the listener to add.
+     */
+    public final void addControllerPollingListener(final ControllerPollingListener listener) {
+        controllerPollingListeners.add(listener);
+        wakeUp();
+    }
+
+    /**
+     * Removes the specified listener.
+     * 
+     * @param listener the listener to be removed
+     */
+    public final void removeControllerPollingListener(final ControllerPollingListener listener) {
+        controllerPollingListeners.remove(listener);
+        removeLaneListener(ListenerKind.CONTROLLER_POLLING, listener);
+    }
+
+    /**
+     * Adds a listener to this poller to be notified whenever the controller
+     * is polled, with events delivered on the specified dispatch lane
+     * instead of the shared event dispatcher.
+     * <p>
+     * Listeners on a lane are called once the polling cycle is complete,
+     * but there are no ordering guarantees relative to the control events
+     * delivered on other lanes or on the shared dispatcher.
+     * 
+     * @param listener the listener to add
+     * @param lane the lane to deliver events on
+     */
+    public final void addControllerPollingListener(
+            final ControllerPollingListener listener, final DispatchLane lane) {
+        addLaneListener(ListenerKind.CONTROLLER_POLLING, listener, lane);
+    }
+
+    /**
+     * Registers a listener with a dispatch lane.
+     * 
+     * @param kind the kind of listener
+     * @param listener the listener
+     * @param lane the lane to deliver events on
+     */
+    private final void addLaneListener(final ListenerKind kind,
+            final Object listener, final DispatchLane lane) {
+        if (listener == null || lane == null) {
+            throw new IllegalArgumentException(
+                    "Listener and lane cannot be null.");
+        }
+        synchronized(laneListenerLock) {
+            final LaneListener[] oldListeners = laneListeners;
+            final LaneListener[] newListeners =
+                new LaneListener[oldListeners.length + 1];
+            System.arraycopy(oldListeners, 0, newListeners, 0, oldListeners.length);
+            newListeners[oldListeners.length] = new LaneListener(kind, listener, lane);
+            laneListeners = newListeners;
+        }
+        wakeUp();
+    }
+
+    /**
+     * Removes every lane registration of the specified listener as the
+     * specified kind.
+     * 
+     * @param kind the kind of listener
+     * @param listener the listener
+     */
+    private final void removeLaneListener(final ListenerKind kind,
+            final Object listener) {
+        synchronized(laneListenerLock) {
+            final LaneListener[] oldListeners = laneListeners;
+            int remaining = 0;
+            final LaneListener[] newListeners = new LaneListener[oldListeners.length];
+            for (LaneListener registration : oldListeners) {
+                if (registration.kind != kind || registration.listener != listener) {
+                    newListeners[remaining++] = registration;
+                }
+            }
+            if (remaining != oldListeners.length) {
+                final LaneListener[] trimmed = new LaneListener[remaining];
+                System.arraycopy(newListeners, 0, trimmed, 0, remaining);
+                laneListeners = trimmed;
+            }
+        }
+    }
+
+    /**
+     * Makes an event from the specified values and configuration.
+     * 
+     * @param control the control the event is for
+     * @param currentValue the current value of the control
+     * @param lastValue the previous value of the control
+     * @param config the config associated with the control
+     * @param timestamp the time of the poll, in milliseconds since the epoch
+     * @param timestampNanos the time of the poll, as a
+     * {@link System#nanoTime()} value
+     * @param recycle whether to take the event from the pool instead of
+     * allocating it
+     * @return the event
+     */
+    private final ControlEvent makeEvent(final NiceControl control,
+            final float currentValue, final float lastValue,
+            final ControlConfiguration config, final long timestamp,
+            final long timestampNanos, final boolean recycle) {
+        if (!recycle) {
+            return new ControlEvent(
+                    control.getController(),
+                    control, config.getUserDefinedId(),
+                    currentValue, config.getValueId(currentValue),
+                    lastValue, config.getValueId(lastValue),
+                    timestamp, timestampNanos);
+        }
+        final ReusableControlEvent event = eventPool.acquire();
+        event.set(control.getController(),
+                control, config.getUserDefinedId(),
+                currentValue, config.getValueId(currentValue),
+                lastValue, config.getValueId(lastValue),
+                timestamp, timestampNanos);
+        return event;
+    }
+
+    /**
+     * Sets how this poller hands its events to the event dispatcher.
+     * <p>
+     * The change takes effect at the start of the next polling cycle.
+     * See {@link DispatchMode} for the available modes.
+     *
+     * @param dispatchMode the mode to use
+     */
+    public final void setDispatchMode(final DispatchMode dispatchMode) {
+        if (dispatchMode == null) {
+            throw new IllegalArgumentException("Dispatch mode cannot be null.");
+        }
+        this.dispatchMode = dispatchMode;
+    }
+
+    /**
+     * Returns how this poller hands its events to the event dispatcher.
+     *
+     * @return the current dispatch mode
+     */
+    public final DispatchMode getDispatchMode() {
+        return dispatchMode;
+    }
+
+    /**
+     * Returns the time that listeners called directly on the polling thread
+     * took in the most recent polling cycle.  Only meaningful in
+     * {@link DispatchMode#DIRECT} mode.
+     *
+     * @param unit the unit to return the time in
+     * @return the time
+     */
+    public final long getDirectListenerTime(final TimeUnit unit) {
+        return directWatchdog.getLast(unit);
+    }
+
+    /**
+     * Returns the longest time that listeners called directly on the
+     * polling thread have taken in any polling cycle.  Only meaningful in
+     * {@link DispatchMode#DIRECT} mode.
+     *
+     * @param unit the unit to return the time in
+     * @return the time
+     */
+    public final long getMaxDirectListenerTime(final TimeUnit unit) {
+        return directWatchdog.getMax(unit);
+    }
+
+    /**
+     * Returns the number of polling cycles in which listeners called
+     * directly on the polling thread took longer than the polling period.
+     * Also available as an attribute of the poller's MBean.  Only
+     * meaningful in {@link DispatchMode#DIRECT} mode.
+     *
+     * @return the number of overruns
+     */
+    public final long getDirectListenerOverrunCount() {
+        return directWatchdog.getOverrunCount();
+    }
+
+    /**
+     * Returns the number of exceptions that this poller's listeners have
+     * thrown, however they are dispatched.  Each one is also logged, as
+     * with {@link LoggingRunnable}.  Also available as an attribute of the
+     * poller's MBean.
+     *
+     * @return the number of listener failures
+     */
+    public final long getListenerFailureCount() {
+        return listenerFailures.get();
+    }
+
+    /**
+     * Enables or disables coalescing of value-change and control-polled
+     * events.
+     * <p>
+     * When coalescing is enabled and a {@link ControlChangeListener} or
+     * {@link ControlPollingListener} event is produced for a control that
+     * already has an event of the same kind waiting to be delivered, the
+     * waiting event is updated in place instead of a new one being queued:
+     * it keeps its original previous value and takes the new current value.
+     * Listeners therefore see at most one pending event of each kind per
+     * control, however far behind the event dispatcher gets, and always
+     * see the latest value.  A value-change event whose merged changes
+     * end where they started is not delivered at all, and is counted as
+     * coalesced.  Activation and deactivation events are never coalesced.
+     * <p>
+     * Because a coalesced event carries a value from a later polling cycle
+     * than the one it was queued in, the guarantee that all control events
+     * delivered before a {@link ControllerPollingListener} event come from
+     * the same polling cycle does not hold while coalescing is enabled.
+     * <p>
+     * Coalescing applies to {@link DispatchMode#PER_EVENT} dispatch; in
+     * batched and allocation-free modes each polling cycle is already a
+     * single task.  The change takes effect at the start of the next
+     * polling cycle.
+     *
+     * @param enabled <code>true</code> to coalesce; otherwise,
+     * <code>false</code>
+     */
+    public final void setCoalescingEnabled(final boolean enabled) {
+        this.coalescingEnabled = enabled;
+    }
+
+    /**
+     * Returns whether or not value-change and control-polled events are
+     * coalesced.
+     *
+     * @return <code>true</code> if coalescing is enabled; otherwise,
+     * <code>false</code>
+     */
+    public final boolean isCoalescingEnabled() {
+        return coalescingEnabled;
+    }
+
+    /**
+     * Returns the number of events from this poller that have been merged
+     * into later events, either because coalescing is enabled or because
+     * the event dispatcher's queue was full.
+     *
+     * @return the number of coalesced events
+     */
+    public final long getCoalescedEventCount() {
+        return coalescedEvents.get();
+    }
+
+    /**
+     * Enables or disables allocation-free mode.
+     * <p>
+     * In allocation-free mode, events are dispatched in batches (regardless
+     * of the {@link DispatchMode}) and the {@link ControlEvent}s themselves
+     * are recycled once every listener has seen them, so that polling
+     * produces no garbage in steady state.  Listeners must therefore not
+     * hold on to events beyond the callback that receives them unless they
+     * explicitly {@link ControlEvent#retain() retain} them, and must read
+     * the events' values from their getters, such as
+     * {@link ControlEvent#getCurrentValue()}: the public fields of recycled
+     * events hold no values.  Events from pollers that are not in this mode
+     * are never recycled or changed.
+     * <p>
+     * The hand-off of each batch to the event dispatcher is left to the
+     * dispatcher itself; the default dispatcher's queue is a preallocated
+     * array and allocates nothing.  The snapshots passed to
+     * {@link ControllerPollingListener}s are pooled in the same way, so the
+     * same rules apply to them (see {@link ControllerState#retain()}), but
+     * a new one is allocated whenever the listeners fall too far behind.
+     * <p>
+     * The change takes effect at the start of the next polling cycle.
+     *
+     * @param enabled <code>true</code> to recycle events; otherwise,
+     * <code>false</code>
+     */
+    public final void setAllocationFreeMode(final boolean enabled) {
+        this.allocationFreeMode = enabled;
+    }
+
+    /**
+     * Returns whether or not allocation-free mode is enabled.
+     *
+     * @return <code>true</code> if events are being recycled; otherwise,
+     * <code>false</code>
+     * @see #setAllocationFreeMode(boolean)
+     */
+    public final boolean isAllocationFreeMode() {
+        return allocationFreeMode;
+    }
+
+    /**
+     * Dispatches an event of the specified type, either by calling the
+     * listeners directly, by appending it to the specified batch or, if
+     * there is no batch, by submitting it to the event dispatcher
+     * immediately.
+     *
+     * @param type the type of event
+     * @param event the event to be dispatched
+     * @param batch the batch for the current polling cycle, or
+     * <code>null</code> if events are being dispatched individually
+     * @param direct whether listeners are to be called immediately on the
+     * polling thread ({@link DispatchMode#DIRECT})
+     */
+    private final void dispatch(final ControlEventType type,
+            final ControlEvent event, final EventBatch batch,
+            final boolean direct) {
+        windowEvents[type.ordinal()]++;
+        cycleEvents++;
+
+        // Queues are filled right here on the polling thread.
+        final ControlEventQueue[] queues = eventQueues;
+        for (int index = 0; index < queues.length; index++) {
+            queues[index].offer(type, event);
+        }
+
+        // Listeners with lanes of their own get a task each.
+        final LaneListener[] lanes = laneListeners;
+        for (int index = 0; index < lanes.length; index++) {
+            if (lanes[index].accepts(type)) {
+                event.retain();
+                lanes[index].lane.execute(
+                        acquireLaneTask(lanes[index], type, event, null));
+            }
+        }
+
+        // Nobody to deliver to means nothing to batch or submit.
+        if (!hasListeners(type)) {
+            return;
+        }
+
+        if (direct) {
+            final long start = System.nanoTime();
+            deliverEvent(type, event);
+            directListenerNanos += System.nanoTime() - start;
+            return;
+        }
+
+        if (batch != null) {
+            event.retain();
+            batch.add(type, event);
+            return;
+        }
+
+        dispatchEvent(type, event);
+    }
+
+    /**
+     * Returns whether or not any listeners are registered for events of the
+     * specified type.
+     *
+     * @param type the type of event
+     * @return <code>true</code> if at least one listener would receive
+     * the event; otherwise, <code>false</code>
+     */
+    private final boolean hasListeners(final ControlEventType type) {
+        switch (type) {
+            case CONTROL_ACTIVATED:
+            case CONTROL_DEACTIVATED:
+                return !activationListeners.isEmpty();
+            case VALUE_CHANGED:
+                return !changeListeners.isEmpty();
+            case CONTROL_POLLED:
+                return !controlPollingListeners.isEmpty();
+            default:
+                throw new RuntimeException("Unsupported event type: " + type);
+        }
+    }
+
+    /**
+     * Returns the number of activation listeners, including those with
+     * dispatch lanes of their own.
+     *
+     * @return the number of listeners
+     */
+    final int getActivationListenerCount() {
+        return activationListeners.size()
+            + countLaneListeners(ListenerKind.ACTIVATION);
+    }
+
+    /**
+     * Returns the number of change listeners, including those with
+     * dispatch lanes of their own.
+     *
+     * @return the number of listeners
+     */
+    final int getChangeListenerCount() {
+        return changeListeners.size() + countLaneListeners(ListenerKind.CHANGE);
+    }
+
+    /**
+     * Returns the number of control polling listeners, including those with
+     * dispatch lanes of their own.
+     *
+     * @return the number of listeners
+     */
+    final int getControlPollingListenerCount() {
+        return controlPollingListeners.size()
+            + countLaneListeners(ListenerKind.CONTROL_POLLING);
+    }
+
+    /**
+     * Returns the number of controller polling listeners, including those
+     * with dispatch lanes of their own.
+     *
+     * @return the number of listeners
+     */
+    final int getControllerPollingListenerCount() {
+        return controllerPollingListeners.size()
+            + countLaneListeners(ListenerKind.CONTROLLER_POLLING);
+    }
+
+    /**
+     * Returns the number of listeners of the specified kind that have
+     * dispatch lanes of their own.
+     *
+     * @param kind the kind of listener
+     * @return the number of listeners
+     */
+    private final int countLaneListeners(final ListenerKind kind) {
+        final LaneListener[] lanes = laneListeners;
+        int count = 0;
+        for (int index = 0; index < lanes.length; index++) {
+            if (lanes[index].kind == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the event dispatcher for this poller's controller.
+     *
+     * @return the event dispatcher
+     */
+    final ExecutorService getEventDispatcher() {
+        return eventDispatcher;
+    }
+
+    /**
+     * Obtains an empty batch for the current polling cycle, reusing
+     * a previously-delivered batch if one is available.
+     * <p>
+     * This method must only be called from the polling thread.
+     *
+     * @return an empty batch
+     */
+    private final EventBatch acquireBatch() {
+        while (true) {
+            final EventBatch head = freeBatches.get();
+            if (head == null) {
+                return new EventBatch(this);
+            }
+            // Only this thread ever removes batches, so if the head is
+            // unchanged its successor is unchanged as well.
+            if (freeBatches.compareAndSet(head, head.nextFree)) {
+                head.nextFree = null;
+                return head;
+            }
+        }
+    }
+
+    /**
+     * Clears the specified batch and makes it available for reuse.
+     *
+     * @param batch the batch to be released
+     */
+    final void releaseBatch(final EventBatch batch) {
+        batch.clear();
+        while (true) {
+            final EventBatch head = freeBatches.get();
+            batch.nextFree = head;
+            if (freeBatches.compareAndSet(head, batch)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes a lane task from the pool, creating a new one if the pool is
+     * empty, and sets it up to deliver the specified event or state.  The
+     * task takes over one reference to the event or state.
+     * <p>
+     * This method must only be called from the polling thread.
+     *
+     * @param registration the listener to deliver to
+     * @param type the type of the event, if any
+     * @param event the event, if any
+     * @param state the controller state, if any
+     * @return the task
+     */
+    private final LaneTask acquireLaneTask(final LaneListener registration,
+            final ControlEventType type, final ControlEvent event,
+            final ControllerState state) {
+        LaneTask task;
+        while (true) {
+            task = freeLaneTasks.get();
+            if (task == null) {
+                task = new LaneTask(this);
+                break;
+            }
+            // Only this thread ever removes tasks, so if the head is
+            // unchanged its successor is unchanged as well.
+            if (freeLaneTasks.compareAndSet(task, task.nextFree)) {
+                task.nextFree = null;
+                break;
+            }
+        }
+        task.set(registration, type, event, state);
+        return task;
+    }
+
+    /**
+     * Clears the specified lane task and makes it available for reuse.
+     *
+     * @param task the task to be released
+     */
+    private final void releaseLaneTask(final LaneTask task) {
+        // Drop references so that the pool doesn't pin listeners or events.
+        task.set(null, null, null, null);
+        while (true) {
+            final LaneTask head = freeLaneTasks.get();
+            task.nextFree = head;
+            if (freeLaneTasks.compareAndSet(head, task)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Delivers every event in the specified batch to the appropriate
+     * listeners, in order, followed by the controller state (if any).
+     * The batch is released for reuse afterwards.
+     * <p>
+     * An exception thrown by a listener is logged and does not prevent
+     * delivery of the remainder of the batch.
+     *
+     * @param batch the batch to be delivered
+     */
+    final void deliverBatch(final EventBatch batch) {
+        latencies.getQueueWait().record(
+                System.nanoTime() - batch.submittedNanos);
+        try {
+            final int size = batch.size();
+            for (int index = 0; index < size; index++) {
+                deliverEvent(batch.getType(index), batch.getEvent(index));
+            }
+
+            final ControllerState state = batch.getControllerState();
+            if (state != null) {
+                fireControllerPolled(state);
+            }
+        } finally {
+            releaseBatch(batch);
+        }
+    }
+
+    /**
+     * Invokes all registered activation listeners with the specified event.
+     *
+     * @param event the event
+     */
+    private final void fireControlActivated(final ControlEvent event) {
+        final boolean recording = FlightRecording.recording;
+        for (ControlActivationListener listener : activationListeners) {
+            final ListenerInvocationEvent invocation = recording
+                ? FlightRecording.beginListenerInvocation() : null;
+            listener.controlActivated(event);
+            if (invocation != null) {
+                FlightRecording.endListenerInvocation(invocation, listener,
+                        "CONTROL_ACTIVATED");
+            }
+        }
+    }
+
+    /**
+     * Invokes all registered activation listeners with the specified event.
+     *
+     * @param event the event
+     */
+    private final void fireControlDeactivated(final ControlEvent event) {
+        final boolean recording = FlightRecording.recording;
+        for (ControlActivationListener listener : activationListeners) {
+            final ListenerInvocationEvent invocation = recording
+                ? FlightRecording.beginListenerInvocation() : null;
+            listener.controlDeactivated(event);
+            if (invocation != null) {
+                FlightRecording.endListenerInvocation(invocation, listener,
+                        "CONTROL_DEACTIVATED");
+            }
+        }
+    }
+
+    /**
+     * Invokes all registered change listeners with the specified event.
+     *
+     * @param event the event
+     */
+    private final void fireValueChanged(final ControlEvent event) {
+        final boolean recording = FlightRecording.recording;
+        for (ControlChangeListener listener : changeListeners) {
+            final ListenerInvocationEvent invocation = recording
+                ? FlightRecording.beginListenerInvocation() : null;
+            listener.valueChanged(event);
+            if (invocation != null) {
+                FlightRecording.endListenerInvocation(invocation, listener,
+                        "VALUE_CHANGED");
+            }
+        }
+    }
+
+    /**
+     * Invokes all registered control polling listeners with the specified
+     * event.
+     *
+     * @param event the event
+     */
+    private final void fireControlPolled(final ControlEvent event) {
+        final boolean recording = FlightRecording.recording;
+        for (ControlPollingListener listener : controlPollingListeners) {
+            final ListenerInvocationEvent invocation = recording
+                ? FlightRecording.beginListenerInvocation() : null;
+            listener.controlPolled(event);
+            if (invocation != null) {
+                FlightRecording.endListenerInvocation(invocation, listener,
+                        "CONTROL_POLLED");
+            }
+        }
+    }
+
+    /**
+     * Invokes all registered controller polling listeners with the
+     * specified state.
+     *
+     * @param state the state
+     */
+    private final void fireControllerPolled(final ControllerState state) {
+        final long start = System.nanoTime();
+        latencies.recordInputLatency(start, state.timestampNanos);
+        final boolean recording = FlightRecording.recording;
+        try {
+            for (ControllerPollingListener listener : controllerPollingListeners) {
+                final ListenerInvocationEvent invocation = recording
+                    ? FlightRecording.beginListenerInvocation() : null;
+                listener.controllerPolled(state);
+                if (invocation != null) {
+                    FlightRecording.endListenerInvocation(invocation,
+                            listener, "CONTROLLER_POLLED");
+                }
+            }
+        } catch (Throwable t) {
+            listenerFailed(t);
+        } finally {
+            latencies.getControllerPollingListenerTime().record(
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Dispatches a new event to all registered listeners of the appropriate
+     * type, as its own task.
+     * <p>
+     * Value-change and control-polled events are instead merged into the
+     * event of the same kind for the same control that is still waiting to
+     * be delivered, if any, when coalescing is enabled.  Value-change events
+     * are also merged this way if the event dispatcher is coalescing and
+     * its queue is full.
+     * 
+     * @param type the type of the event
+     * @param event the event to be dispatched
+     */
+    private final void dispatchEvent(final ControlEventType type,
+            final ControlEvent event) {
+        final ExecutorService dispatcher = eventDispatcher;
+        final EventTask[] pendingTasks;
+        switch (type) {
+            case VALUE_CHANGED:
+                pendingTasks = pendingValueChanges;
+                break;
+            case CONTROL_POLLED:
+                pendingTasks = pendingControlPolls;
+                break;
+            default:
+                // Never coalesced.
+                dispatcher.execute(new EventTask(this, type, event));
+                return;
+        }
+
+        final int index = event.getSourceControl().getIndex();
+        final EventDispatcher bounded = dispatcher instanceof EventDispatcher
+            ? (EventDispatcher) dispatcher : null;
+        final boolean overflowing = bounded != null
+            && type == ControlEventType.VALUE_CHANGED
+            && bounded.getOverflowPolicy() == OverflowPolicy.COALESCE
+            && bounded.isSaturated();
+        if (coalescingEnabled || overflowing) {
+            final EventTask pending = pendingTasks[index];
+            if (pending != null && pending.merge(event)) {
+                countCoalesced();
+                return;
+            }
+        }
+
+        final EventTask task = new EventTask(this, type, event);
+        pendingTasks[index] = task;
+        dispatcher.execute(task);
+    }
+
+    /**
+     * Counts an event that was merged into another, or merged away
+     * altogether, rather than delivered.
+     */
+    private final void countCoalesced() {
+        coalescedEvents.incrementAndGet();
+        if (eventDispatcher instanceof EventDispatcher) {
+            ((EventDispatcher) eventDispatcher).recordCoalesced();
+        }
+    }
+
+    /**
+     * Dispatches a new "controller polled" event to all registered
+     * listeners.
+     * 
+     * @param state the state to be dispatched
+     */
+    private final void dispatchControllerPolled(final ControllerState state) {
+        final long submittedNanos = System.nanoTime();
+        eventDispatcher.execute(new DispatchTask(){
+            @Override
+            protected void runInternal() {
+                latencies.getQueueWait().record(
+                        System.nanoTime() - submittedNanos);
+                try {
+                    fireControllerPolled(state);
+                } finally {
+                    state.release();
+                }
+            }
+
+            @Override
+            int discard() {
+                state.release();
+                return 1;
+            }
+        });
+    }
+
+    /**
+     * Delivers a single event to all registered listeners of the
+     * appropriate type.  A listener that throws is logged and counted, and
+     * the event is not delivered to the listeners after it.
+     *
+     * @param type the type of the event
+     * @param event the event to be delivered
+     */
+    final void deliverEvent(final ControlEventType type, final ControlEvent event) {
+        final long start = System.nanoTime();
+        latencies.recordInputLatency(start, event.getTimestampNanos());
+        try {
+            switch (type) {
+                case CONTROL_ACTIVATED:
+                    fireControlActivated(event);
+                    break;
+                case CONTROL_DEACTIVATED:
+                    fireControlDeactivated(event);
+                    break;
+                case VALUE_CHANGED:
+                    fireValueChanged(event);
+                    break;
+                case CONTROL_POLLED:
+                    fireControlPolled(event);
+                    break;
+                default:
+                    throw new RuntimeException("Unsupported event type: " + type);
+            }
+        } catch (Throwable t) {
+            listenerFailed(t);
+        } finally {
+            latencies.listenerTime(type).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Handles an exception thrown by a listener the same way as one that
+     * escapes a {@link LoggingRunnable}, and counts it.
+     *
+     * @param t the exception
+     */
+    private final void listenerFailed(final Throwable t) {
+        listenerFailures.incrementAndGet();
+        LoggingRunnable.log(t);
+    }
+
+    /**
+     * Task that delivers a single event.
+     * 
+     * @author Andrew Hayden
+     */
+    private final static class EventTask extends DispatchTask {
+        /**
+         * The poller whose listeners the event is delivered to.
+         */
+        private final ControllerPoller poller;
+
+        /**
+         * The type of the event.
+         */
+        private final ControlEventType type;
+
+        /**
+         * The event as submitted.
+         */
+        private final ControlEvent event;
+
+        /**
+         * Whether or not a later event has been merged into this task.
+         * Guarded by this task's monitor, as are the merged values below.
+         */
+        private boolean merged = false;
+
+        /**
+         * The current value of the latest merged event.
+         */
+        private float mergedValue;
+
+        /**
+         * The ID bound to the current value of the latest merged event.
+         */
+        private int mergedValueId;
+
+        /**
+         * The timestamp of the latest merged event, in milliseconds.
+         */
+        private long mergedTimestamp;
+
+        /**
+         * The timestamp of the latest merged event, in nanoseconds.
+         */
+        private long mergedTimestampNanos;
+
+        /**
+         * Whether or not delivery has started.  Guarded by this task's
+         * monitor.
+         */
+        private boolean started = false;
+
+        /**
+         * When the task was submitted, in nanoseconds.
+         */
+        private final long submittedNanos;
+
+        /**
+         * Constructs a new task.
+         * 
+         * @param poller the poller whose listeners the event is delivered to
+         * @param type the type of the event
+         * @param event the event
+         */
+        EventTask(final ControllerPoller poller, final ControlEventType type,
+                final ControlEvent event) {
+            this.poller = poller;
+            this.type = type;
+            this.event = event;
+            this.submittedNanos = System.nanoTime();
+        }
+
+        /**
+         * Merges a later event for the same control into this task, if
+         * delivery has not yet started.  The merged event keeps this task's
+         * previous value and takes the later event's current value and
+         * timestamps.
+         * 
+         * @param later the later event
+         * @return <code>true</code> if the event was merged; otherwise,
+         * <code>false</code>
+         */
+        final synchronized boolean merge(final ControlEvent later) {
+            if (started) {
+                return false;
+            }
+            // The original event may be shared with other tasks, so keep
+            // the later values aside rather than changing it.  The merged
+            // event is only made once, when the task runs.
+            merged = true;
+            mergedValue = later.getCurrentValue();
+            mergedValueId = later.getCurrentValueId();
+            mergedTimestamp = later.getTimestamp();
+            mergedTimestampNanos = later.getTimestampNanos();
+            return true;
+        }
+
+        @Override
+        protected final void runInternal() {
+            poller.latencies.getQueueWait().record(
+                    System.nanoTime() - submittedNanos);
+            synchronized(this) {
+                started = true;
+            }
+            if (!merged) {
+                poller.deliverEvent(type, event);
+                return;
+            }
+            if (type == ControlEventType.VALUE_CHANGED
+                    && mergedValue == event.getPreviousValue()
+                    && mergedValueId == event.getPreviousValueId()) {
+                // The merged changes ended where they started, so there is
+                // no change left to report.
+                poller.countCoalesced();
+                return;
+            }
+            poller.deliverEvent(type, new ControlEvent(
+                    event.getSourceController(), event.getSourceControl(),
+                    event.getUserDefinedControlId(),
+                    mergedValue, mergedValueId,
+                    event.getPreviousValue(), event.getPreviousValueId(),
+                    mergedTimestamp, mergedTimestampNanos));
+        }
+
+        @Override
+        final int discard() {
+            synchronized(this) {
+                started = true;
+            }
+            event.release();
+            return 1;
+        }
+    }
+
+    /**
+     * The kinds of listener that can be registered.
+     */
+    private static enum ListenerKind {
+        ACTIVATION, CHANGE, CONTROL_POLLING, CONTROLLER_POLLING;
+    }
+
+    /**
+     * A listener registered with its own dispatch lane.
+     * 
+     * @author Andrew Hayden
+     */
+    private final static class LaneListener {
+        /**
+         * The kind of listener.
+         */
+        final ListenerKind kind;
+
+        /**
+         * The listener itself.
+         */
+        final Object listener;
+
+        /**
+         * The lane on which the listener is called.
+         */
+        final DispatchLane lane;
+
+        /**
+         * Constructs a new registration.
+         * 
+         * @param kind the kind of listener
+         * @param listener the listener
+         * @param lane the lane on which the listener is called
+         */
+        LaneListener(final ListenerKind kind, final Object listener,
+                final DispatchLane lane) {
+            this.kind = kind;
+            this.listener = listener;
+            this.lane = lane;
+        }
+
+        /**
+         * Returns whether or not this listener receives events of the
+         * specified type.
+         * 
+         * @param type the type of event
+         * @return <code>true</code> if the listener receives such events;
+         * otherwise, <code>false</code>
+         */
+        final boolean accepts(final ControlEventType type) {
+            switch (type) {
+                case CONTROL_ACTIVATED:
+                case CONTROL_DEACTIVATED:
+                    return kind == ListenerKind.ACTIVATION;
+                case VALUE_CHANGED:
+                    return kind == ListenerKind.CHANGE;
+                case CONTROL_POLLED:
+                    return kind == ListenerKind.CONTROL_POLLING;
+                default:
+                    throw new RuntimeException("Unsupported event type: " + type);
+            }
+        }
+
+        /**
+         * Calls the listener with the specified event.
+         * 
+         * @param type the type of the event
+         * @param event the event
+         */
+        final void deliver(final ControlEventType type, final ControlEvent event) {
+            switch (type) {
+                case CONTROL_ACTIVATED:
+                    ((ControlActivationListener) listener).controlActivated(event);
+                    break;
+                case CONTROL_DEACTIVATED:
+                    ((ControlActivationListener) listener).controlDeactivated(event);
+                    break;
+                case VALUE_CHANGED:
+                    ((ControlChangeListener) listener).valueChanged(event);
+                    break;
+                case CONTROL_POLLED:
+                    ((ControlPollingListener) listener).controlPolled(event);
+                    break;
+                default:
+                    throw new RuntimeException("Unsupported event type: " + type);
+            }
+        }
+    }
+
+    /**
+     * Task that delivers one event, or one controller state, to a listener
+     * on its own lane.  Tasks are pooled by their poller and reused once
+     * they have run or been discarded.
+     * 
+     * @author Andrew Hayden
+     */
+    private final static class LaneTask extends DispatchTask {
+        /**
+         * The poller that owns this task.
+         */
+        private final ControllerPoller poller;
+
+        /**
+         * The registration of the listener to deliver to.
+         */
+        private LaneListener registration;
+
+        /**
+         * The type of the event, or <code>null</code> for a controller state.
+         */
+        private ControlEventType type;
+
+        /**
+         * The event, or <code>null</code> for a controller state.
+         */
+        private ControlEvent event;
+
+        /**
+         * The controller state, or <code>null</code> for an event.
+         */
+        private ControllerState state;
+
+        /**
+         * When the task was submitted, in nanoseconds.
+         */
+        private long submittedNanos;
+
+        /**
+         * Next free task in the owning poller's pool, if any.
+         */
+        LaneTask nextFree = null;
+
+        /**
+         * Constructs a new, empty task.
+         * 
+         * @param poller the poller that owns the task
+         */
+        LaneTask(final ControllerPoller poller) {
+            this.poller = poller;
+        }
+
+        /**
+         * Sets up this task to deliver the specified event or state.  The
+         * task takes over one reference to the event or state.
+         * 
+         * @param registration the listener to deliver to
+         * @param type the type of the event, if any
+         * @param event the event, if any
+         * @param state the controller state, if any
+         */
+        final void set(final LaneListener registration,
+                final ControlEventType type, final ControlEvent event,
+                final ControllerState state) {
+            this.registration = registration;
+            this.type = type;
+            this.event = event;
+            this.state = state;
+            this.submittedNanos = System.nanoTime();
+        }
+
+        @Override
+        protected final void runInternal() {
+            final PollerLatencies latencies = poller.latencies;
+            registration.lane.recordDelivery(submittedNanos);
+            final long start = System.nanoTime();
+            latencies.getQueueWait().record(start - submittedNanos);
+            final ListenerInvocationEvent invocation = FlightRecording.recording
+                ? FlightRecording.beginListenerInvocation() : null;
+            try {
+                if (state != null) {
+                    latencies.recordInputLatency(start, state.timestampNanos);
+                    ((ControllerPollingListener) registration.listener)
+                        .controllerPolled(state);
+                } else {
+                    latencies.recordInputLatency(start, event.getTimestampNanos());
+                    registration.deliver(type, event);
+                }
+                if (invocation != null) {
+                    FlightRecording.endListenerInvocation(invocation,
+                            registration.listener, state != null
+                            ? "CONTROLLER_POLLED" : type.name());
+                }
+            } catch (Throwable t) {
+                poller.listenerFailed(t);
+            } finally {
+                final long elapsed = System.nanoTime() - start;
+                if (state != null) {
+                    latencies.getControllerPollingListenerTime().record(elapsed);
+                } else {
+                    latencies.listenerTime(type).record(elapsed);
+                }
+                discard();
+            }
+        }
+
+        @Override
+        final int discard() {
+            if (state != null) {
+                state.release();
+            } else {
+                event.release();
+            }
+            poller.releaseLaneTask(this);
+            return 1;
+        }
+    }
+
+    /**
+     * Utility class to invoke polling on a controller poller.
+     * 
+     * @author Andrew Hayden
+     */
+    private final static class PollingInvoker extends LoggingRunnable {
+        /**
+         * The poller to invoke polling on.
+         */
+        private final ControllerPoller poller;
+
+        /**
+         * Constructs a new invoker that will invoke polling on the specified
+         * controller poller.
+         * 
+         * @param poller the poller to invoke polling on
+         */
+        PollingInvoker (final ControllerPoller poller) {
+            this.poller = poller;
+        }
+
+        @Override
+        protected final void runInternal() {
+            poller.pollOnSchedule();
+        }
+    }
 }
\ No newline at end of file
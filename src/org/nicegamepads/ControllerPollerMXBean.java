@@ -0,0 +1,216 @@
+package org.nicegamepads;
+
+/**
+ * Management interface of a {@link ControllerPoller}, registered with the
+ * platform MBean server under
+ * <code>org.nicegamepads:type=ControllerPoller,name=<i>controller</i></code>
+ * when the poller is created.
+ * <p>
+ * Reading any attribute is cheap; the rates are measured by the poller over
+ * the most recent complete second.
+ *
+ * @author Andrew Hayden
+ */
+public interface ControllerPollerMXBean
+{
+    /**
+     * Returns the declared name of the polled controller.
+     *
+     * @return the name
+     */
+    public abstract String getControllerName();
+
+    /**
+     * Returns whether or not polling is scheduled.
+     *
+     * @return <code>true</code> if polling is scheduled
+     */
+    public abstract boolean isPolling();
+
+    /**
+     * Starts polling again if it has been stopped.
+     */
+    public abstract void startPolling();
+
+    /**
+     * Stops polling.
+     */
+    public abstract void stopPolling();
+
+    /**
+     * Returns the requested polling rate.
+     *
+     * @return the rate, in polls per second
+     * @see ControllerPoller#getPollingRate()
+     */
+    public abstract int getPollingRate();
+
+    /**
+     * Changes the requested polling rate.
+     *
+     * @param pollsPerSecond the rate, in polls per second
+     * @see ControllerPoller#setPollingRate(int)
+     */
+    public abstract void setPollingRate(int pollsPerSecond);
+
+    /**
+     * Returns the requested polling interval.
+     *
+     * @return the interval, in microseconds
+     */
+    public abstract long getPollingIntervalMicros();
+
+    /**
+     * Changes the requested polling interval.  The interval is rounded to
+     * the nearest whole polling rate.
+     *
+     * @param micros the interval, in microseconds
+     */
+    public abstract void setPollingIntervalMicros(long micros);
+
+    /**
+     * Returns the rate at which polling is currently scheduled, which is
+     * lower than the requested rate while polling has backed off.
+     *
+     * @return the rate, in polls per second
+     * @see ControllerPoller#getCurrentPollingRate()
+     */
+    public abstract int getCurrentPollingRate();
+
+    /**
+     * Returns the rate at which polls were actually made.
+     *
+     * @return the rate, in polls per second
+     * @see ControllerPoller#getAchievedPollingRate()
+     */
+    public abstract long getAchievedPollingRate();
+
+    /**
+     * Returns the rate at which activation events are produced.
+     *
+     * @return the rate, in events per second
+     */
+    public abstract long getControlActivatedRate();
+
+    /**
+     * Returns the rate at which deactivation events are produced.
+     *
+     * @return the rate, in events per second
+     */
+    public abstract long getControlDeactivatedRate();
+
+    /**
+     * Returns the rate at which value-change events are produced.
+     *
+     * @return the rate, in events per second
+     */
+    public abstract long getValueChangedRate();
+
+    /**
+     * Returns the rate at which control-polled events are produced.
+     *
+     * @return the rate, in events per second
+     */
+    public abstract long getControlPolledRate();
+
+    /**
+     * Returns the number of tasks waiting in the queue of the event
+     * dispatcher for this poller's controller.
+     *
+     * @return the queue depth
+     */
+    public abstract int getDispatcherQueueDepth();
+
+    /**
+     * Returns the number of events dropped by the event dispatcher for this
+     * poller's controller.  Unless each controller has a dispatcher of its
+     * own, this includes events of other controllers.
+     *
+     * @return the number of dropped events
+     */
+    public abstract long getDroppedEventCount();
+
+    /**
+     * Returns the number of events this poller has coalesced into later
+     * events.
+     *
+     * @return the number of coalesced events
+     */
+    public abstract long getCoalescedEventCount();
+
+    /**
+     * Returns the time that listeners called directly on the polling
+     * thread took in the most recent polling cycle.
+     *
+     * @return the time, in microseconds
+     */
+    public abstract long getDirectListenerTimeMicros();
+
+    /**
+     * Returns the longest time that listeners called directly on the
+     * polling thread have taken in any polling cycle.
+     *
+     * @return the time, in microseconds
+     */
+    public abstract long getMaxDirectListenerTimeMicros();
+
+    /**
+     * Returns the number of polling cycles in which listeners called
+     * directly on the polling thread took longer than the polling period.
+     *
+     * @return the number of overruns
+     */
+    public abstract long getDirectListenerOverrunCount();
+
+    /**
+     * Returns the number of exceptions that the poller's listeners have
+     * thrown.
+     *
+     * @return the number of listener failures
+     */
+    public abstract long getListenerFailureCount();
+
+    /**
+     * Returns the number of activation listeners.
+     *
+     * @return the number of listeners
+     */
+    public abstract int getActivationListenerCount();
+
+    /**
+     * Returns the number of change listeners.
+     *
+     * @return the number of listeners
+     */
+    public abstract int getChangeListenerCount();
+
+    /**
+     * Returns the number of control polling listeners.
+     *
+     * @return the number of listeners
+     */
+    public abstract int getControlPollingListenerCount();
+
+    /**
+     * Returns the number of controller polling listeners.
+     *
+     * @return the number of listeners
+     */
+    public abstract int getControllerPollingListenerCount();
+
+    /**
+     * Returns a description of the most recent failure to poll the
+     * controller.
+     *
+     * @return the failure, or <code>null</code> if polling has never failed
+     */
+    public abstract String getLastPollFailure();
+
+    /**
+     * Returns when the most recent failure to poll the controller happened.
+     *
+     * @return the time, in milliseconds since the epoch, or -1 if polling
+     * has never failed
+     */
+    public abstract long getLastPollFailureTime();
+}
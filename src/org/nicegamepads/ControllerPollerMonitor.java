@@ -0,0 +1,201 @@
+package org.nicegamepads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MBean for a single {@link ControllerPoller}.
+ *
+ * @author Andrew Hayden
+ */
+final class ControllerPollerMonitor implements ControllerPollerMXBean
+{
+    /**
+     * The poller being monitored.
+     */
+    private final ControllerPoller poller;
+
+    /**
+     * Constructs a new MBean for the specified poller.
+     *
+     * @param poller the poller
+     */
+    ControllerPollerMonitor(final ControllerPoller poller)
+    {
+        this.poller = poller;
+    }
+
+    @Override
+    public final String getControllerName()
+    {
+        return poller.getController().getDeclaredName();
+    }
+
+    @Override
+    public final boolean isPolling()
+    {
+        return poller.isPollingScheduled();
+    }
+
+    @Override
+    public final void startPolling()
+    {
+        poller.resumePolling();
+    }
+
+    @Override
+    public final void stopPolling()
+    {
+        poller.stopPolling();
+    }
+
+    @Override
+    public final int getPollingRate()
+    {
+        return poller.getPollingRate();
+    }
+
+    @Override
+    public final void setPollingRate(final int pollsPerSecond)
+    {
+        poller.setPollingRate(pollsPerSecond);
+    }
+
+    @Override
+    public final long getPollingIntervalMicros()
+    {
+        return TimeUnit.SECONDS.toMicros(1) / poller.getPollingRate();
+    }
+
+    @Override
+    public final void setPollingIntervalMicros(final long micros)
+    {
+        if (micros <= 0L)
+        {
+            throw new IllegalArgumentException(
+                    "Polling interval must be positive: " + micros);
+        }
+        final long second = TimeUnit.SECONDS.toMicros(1);
+        final long rate = (second + micros / 2) / micros;
+        poller.setPollingRate((int) Math.min(rate, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public final int getCurrentPollingRate()
+    {
+        return poller.getCurrentPollingRate();
+    }
+
+    @Override
+    public final long getAchievedPollingRate()
+    {
+        return poller.getAchievedPollingRate();
+    }
+
+    @Override
+    public final long getControlActivatedRate()
+    {
+        return poller.getEventRate(ControlEventType.CONTROL_ACTIVATED);
+    }
+
+    @Override
+    public final long getControlDeactivatedRate()
+    {
+        return poller.getEventRate(ControlEventType.CONTROL_DEACTIVATED);
+    }
+
+    @Override
+    public final long getValueChangedRate()
+    {
+        return poller.getEventRate(ControlEventType.VALUE_CHANGED);
+    }
+
+    @Override
+    public final long getControlPolledRate()
+    {
+        return poller.getEventRate(ControlEventType.CONTROL_POLLED);
+    }
+
+    @Override
+    public final int getDispatcherQueueDepth()
+    {
+        final ExecutorService dispatcher = poller.getEventDispatcher();
+        return dispatcher instanceof EventDispatcher
+            ? ((EventDispatcher) dispatcher).getQueueDepth() : 0;
+    }
+
+    @Override
+    public final long getDroppedEventCount()
+    {
+        final ExecutorService dispatcher = poller.getEventDispatcher();
+        return dispatcher instanceof EventDispatcher
+            ? ((EventDispatcher) dispatcher).getDroppedEventCount() : 0L;
+    }
+
+    @Override
+    public final long getCoalescedEventCount()
+    {
+        return poller.getCoalescedEventCount();
+    }
+
+    @Override
+    public final long getDirectListenerTimeMicros()
+    {
+        return poller.getDirectListenerTime(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public final long getMaxDirectListenerTimeMicros()
+    {
+        return poller.getMaxDirectListenerTime(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public final long getDirectListenerOverrunCount()
+    {
+        return poller.getDirectListenerOverrunCount();
+    }
+
+    @Override
+    public final long getListenerFailureCount()
+    {
+        return poller.getListenerFailureCount();
+    }
+
+    @Override
+    public final int getActivationListenerCount()
+    {
+        return poller.getActivationListenerCount();
+    }
+
+    @Override
+    public final int getChangeListenerCount()
+    {
+        return poller.getChangeListenerCount();
+    }
+
+    @Override
+    public final int getControlPollingListenerCount()
+    {
+        return poller.getControlPollingListenerCount();
+    }
+
+    @Override
+    public final int getControllerPollingListenerCount()
+    {
+        return poller.getControllerPollingListenerCount();
+    }
+
+    @Override
+    public final String getLastPollFailure()
+    {
+        final ControllerException failure = poller.getLastPollFailure();
+        return failure == null ? null : failure.toString();
+    }
+
+    @Override
+    public final long getLastPollFailureTime()
+    {
+        return poller.getLastPollFailureTime();
+    }
+}
@@ -1,118 +1,411 @@
-package org.nicegamepads;
-
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-/**
- * Encapsulates the state of a controller.
- * 
- * @author Andrew Hayden
- */
-public final class ControllerState
-{
-    /**
-     * All of the control states associated with this controller state,
-     * possibly recursively expanded (according to the constructor parameters
-     * provided)
-     */
-    final ControlState[] controlStates;
-
-    /**
-     * The controller whose state this is.
-     */
-    final NiceController controller;
-
-    /**
-     * Lazily-initialized mapping of states by their controls.
-     */
-    private final Map<NiceControl, ControlState> statesByControl;
-
-    /**
-     * The last time at which this controller state was completely refreshed,
-     * in milliseconds since the epoch.
-     */
-    volatile long timestamp = -1L;
-
-    /**
-     * Constructs a new controller state for the specified controller.
-     * 
-     * @param configuration the configuration to create state for
-     */
-    ControllerState(NiceController controller)
-    {
-        this.controller = controller;
-        List<NiceControl> allControls = controller.getControls();
-
-        // Create control states.
-        controlStates = new ControlState[allControls.size()];
-        Map<NiceControl, ControlState> tempMap =
-            new HashMap<NiceControl, ControlState>();
-        int index = 0;
-        for (NiceControl control : allControls)
-        {
-            controlStates[index] = new ControlState(control);
-            tempMap.put(control, controlStates[index]);
-            index++;
-        }
-        statesByControl = Collections.unmodifiableMap(tempMap);
-    }
-
-    /**
-     * Constructs an independent copy of the specified source object.
-     * <p>
-     * This method creates a deep copy.  It is entirely independent of the
-     * source in all respects.
-     * 
-     * @param source the source to copy from
-     */
-    ControllerState(ControllerState source)
-    {
-        this.controller = source.controller;
-        timestamp = source.timestamp;
-        controlStates = new ControlState[source.controlStates.length];
-        Map<NiceControl, ControlState> tempMap =
-            new HashMap<NiceControl, ControlState>();
-        for (int index=0; index<controlStates.length; index++)
-        {
-            controlStates[index] =
-                new ControlState(source.controlStates[index]);
-            tempMap.put(
-                    controlStates[index].control, controlStates[index]);
-        }
-        statesByControl = Collections.unmodifiableMap(tempMap);
-    }
-
-    /**
-     * Returns the state for the specified control within this controller
-     * state.
-     * 
-     * @param control the control whose state should be retrieved
-     * @return the state of the control
-     * @throws NoSuchControlException if the specified control is not
-     * part of the controller associated with this state
-     */
-    public final ControlState getControlState(NiceControl control)
-    {
-        ControlState state = statesByControl.get(control);
-        if (state == null)
-        {
-            throw new NoSuchControlException(
-                    "Control does not exist in the controller "
-                    + "associated with this state.");
-        }
-        return state;
-    }
-
-    /**
-     * Returns the last time at which this controller state was completely
-     * refreshed, in milliseconds since the epoch.
-     * 
-     * @return the time
-     */
-    public final long getTimestamp()
-    {
-        return timestamp;
-    }
-}
\ No newline at end of file
+package org.nicegamepads;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Encapsulates the state of a controller.
+ * <p>
+ * The values of all of the controls are kept in parallel arrays indexed by
+ * each control's {@link NiceControl#getIndex() index}, so that looking up
+ * a control is a simple array access and copying the whole state is
+ * a handful of array copies.  The {@link ControlState} objects returned by
+ * {@link #getControlState(NiceControl)} are views onto these arrays.
+ * <p>
+ * The snapshots passed to {@link ControllerPollingListener}s by a poller in
+ * allocation-free mode (see
+ * {@link ControllerPoller#setAllocationFreeMode(boolean)}) are pooled and
+ * recycled once every listener has seen them.  Such a snapshot is only
+ * valid for the duration of the listener callback that receives it; a
+ * listener that needs to hold on to it for longer must call
+ * {@link #retain()} before returning and {@link #release()} when done with
+ * it, or else copy the values it needs.  For all other states these methods
+ * do nothing.
+ * <p>
+ * All timestamps are kept as {@link System#nanoTime()} values, which never
+ * go backwards and are precise enough to tell polls a millisecond apart.
+ * Each state also records the wall-clock time of the poll that produced
+ * it, from which {@link #toMillis(long)} derives a wall-clock time for any
+ * of its timestamps.
+ * 
+ * @author Andrew Hayden
+ */
+public final class ControllerState
+{
+    /**
+     * The value of a nanosecond timestamp that has never been set.
+     */
+    public final static long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /**
+     * Updater for the reference count of pooled snapshots.
+     */
+    private final static AtomicIntegerFieldUpdater<ControllerState> refCountUpdater =
+        AtomicIntegerFieldUpdater.newUpdater(ControllerState.class, "refCount");
+
+    /**
+     * The controls whose states are held here, in index order.
+     */
+    final NiceControl[] controls;
+
+    /**
+     * The {@link System#nanoTime()} at which each control's current value
+     * was acquired.
+     */
+    final long[] currentTimestampNanos;
+
+    /**
+     * Value of each control at the time its state was acquired.
+     */
+    final float[] currentValues;
+
+    /**
+     * Raw current value of each control before any configuration-driven
+     * changes.
+     */
+    final float[] rawValues;
+
+    /**
+     * The {@link System#nanoTime()} at which each control's last polling
+     * was completed.
+     */
+    final long[] lastTimestampNanos;
+
+    /**
+     * The value of each control at the last polling time.
+     */
+    final float[] lastValues;
+
+    /**
+     * The {@link System#nanoTime()} at which each control's turbo timer
+     * last started, if any.
+     */
+    final long[] turboTimerStartNanos;
+
+    /**
+     * Lazily-created views onto each control's slot.
+     */
+    private final ControlState[] views;
+
+    /**
+     * The controller whose state this is.
+     */
+    final NiceController controller;
+
+    /**
+     * The last time at which this controller state was completely refreshed,
+     * in milliseconds since the epoch.
+     */
+    volatile long timestamp = -1L;
+
+    /**
+     * The {@link System#nanoTime()} at which this controller state was last
+     * completely refreshed.  Always written before {@link #timestamp}.
+     */
+    long timestampNanos = NO_TIMESTAMP;
+
+    /**
+     * The pool this snapshot returns to when released, or <code>null</code>
+     * if this state is not pooled.
+     */
+    private final ControllerStatePool pool;
+
+    /**
+     * Number of outstanding references to a pooled snapshot.
+     */
+    private volatile int refCount = 0;
+
+    /**
+     * Next free snapshot in the owning pool, if any.
+     */
+    ControllerState nextFree = null;
+
+    /**
+     * Constructs a new controller state for the specified controller.
+     * 
+     * @param controller the controller to create state for
+     */
+    ControllerState(NiceController controller)
+    {
+        this.controller = controller;
+        this.pool = null;
+        List<NiceControl> allControls = controller.getControls();
+        int numControls = allControls.size();
+        controls = allControls.toArray(new NiceControl[numControls]);
+        currentTimestampNanos = new long[numControls];
+        currentValues = new float[numControls];
+        rawValues = new float[numControls];
+        lastTimestampNanos = new long[numControls];
+        lastValues = new float[numControls];
+        turboTimerStartNanos = new long[numControls];
+        views = new ControlState[numControls];
+        Arrays.fill(currentTimestampNanos, NO_TIMESTAMP);
+        Arrays.fill(lastTimestampNanos, NO_TIMESTAMP);
+        Arrays.fill(turboTimerStartNanos, NO_TIMESTAMP);
+    }
+
+    /**
+     * Constructs an independent copy of the specified source object.
+     * <p>
+     * This method creates a deep copy.  It is entirely independent of the
+     * source in all respects.
+     * 
+     * @param source the source to copy from
+     */
+    ControllerState(ControllerState source)
+    {
+        this(source, null);
+    }
+
+    /**
+     * Constructs an independent copy of the specified source object that
+     * belongs to the specified pool.
+     * 
+     * @param source the source to copy from
+     * @param pool the pool the copy returns to when released, or
+     * <code>null</code> if it is not pooled
+     */
+    ControllerState(ControllerState source, ControllerStatePool pool)
+    {
+        this.pool = pool;
+        this.controller = source.controller;
+        this.controls = source.controls;
+        timestampNanos = source.timestampNanos;
+        timestamp = source.timestamp;
+        currentTimestampNanos = source.currentTimestampNanos.clone();
+        currentValues = source.currentValues.clone();
+        rawValues = source.rawValues.clone();
+        lastTimestampNanos = source.lastTimestampNanos.clone();
+        lastValues = source.lastValues.clone();
+        turboTimerStartNanos = source.turboTimerStartNanos.clone();
+        views = new ControlState[controls.length];
+    }
+
+    /**
+     * Overwrites this state with the contents of the specified state, which
+     * must belong to the same controller.  Nothing is allocated.
+     * 
+     * @param source the state to copy from
+     */
+    final void copyFrom(ControllerState source)
+    {
+        final int length = controls.length;
+        timestampNanos = source.timestampNanos;
+        timestamp = source.timestamp;
+        System.arraycopy(source.currentTimestampNanos, 0, currentTimestampNanos, 0, length);
+        System.arraycopy(source.currentValues, 0, currentValues, 0, length);
+        System.arraycopy(source.rawValues, 0, rawValues, 0, length);
+        System.arraycopy(source.lastTimestampNanos, 0, lastTimestampNanos, 0, length);
+        System.arraycopy(source.lastValues, 0, lastValues, 0, length);
+        System.arraycopy(source.turboTimerStartNanos, 0, turboTimerStartNanos, 0, length);
+    }
+
+    /**
+     * Claims an additional reference to this snapshot, preventing it from
+     * being recycled until a matching call to {@link #release()}.
+     * <p>
+     * Has no effect on states that are not pooled.
+     */
+    public final void retain()
+    {
+        if (pool != null)
+        {
+            refCountUpdater.incrementAndGet(this);
+        }
+    }
+
+    /**
+     * Gives up a reference previously claimed by {@link #retain()}.  When the
+     * last reference is released, a pooled snapshot is returned to its pool
+     * and must no longer be used.
+     * <p>
+     * Has no effect on states that are not pooled.
+     */
+    public final void release()
+    {
+        if (pool != null)
+        {
+            final int remaining = refCountUpdater.decrementAndGet(this);
+            if (remaining == 0)
+            {
+                pool.release(this);
+            }
+            else if (remaining < 0)
+            {
+                throw new IllegalStateException(
+                        "State released more times than retained.");
+            }
+        }
+    }
+
+    /**
+     * Resets the reference count of a pooled snapshot as it is taken from
+     * the pool, giving the caller the one and only reference.
+     */
+    final void claim()
+    {
+        refCount = 1;
+    }
+
+    /**
+     * Archives the current timestamp of every control and stamps every
+     * control with the specified time.  Called once per poll, before
+     * {@link #newValue(int, float, long, boolean)} is called for the
+     * controls that may have changed.
+     * 
+     * @param timestampNanos the new timestamp, as a {@link System#nanoTime()}
+     * value
+     */
+    final void stampAll(long timestampNanos)
+    {
+        System.arraycopy(currentTimestampNanos, 0, lastTimestampNanos, 0,
+                controls.length);
+        Arrays.fill(currentTimestampNanos, timestampNanos);
+    }
+
+    /**
+     * Archives the current value of the control at the specified index and
+     * sets the new value.  The control's timestamps must already have been
+     * updated by {@link #stampAll(long)}.
+     * 
+     * @param index the index of the control
+     * @param value the new value
+     * @param timestampNanos the new timestamp, as a {@link System#nanoTime()}
+     * value
+     * @param canPerpetuateTurbo whether or not the value represents a value
+     * that starts or perptuates the turbo state
+     */
+    final void newValue(int index, float value, long timestampNanos,
+            boolean canPerpetuateTurbo)
+    {
+        lastValues[index] = currentValues[index];
+        currentValues[index] = value;
+
+        if (canPerpetuateTurbo)
+        {
+            if (turboTimerStartNanos[index] == NO_TIMESTAMP)
+            {
+                // Haven't started turbo timer yet.  Start it.
+                turboTimerStartNanos[index] = timestampNanos;
+            }
+        }
+        else
+        {
+            // Turbo timer must be cleared since this value doesn't
+            // represent a value that can apply to turbo
+            turboTimerStartNanos[index] = NO_TIMESTAMP;
+        }
+    }
+
+    /**
+     * Returns the index of the specified control within this state.
+     * 
+     * @param control the control
+     * @return its index
+     * @throws NoSuchControlException if the specified control is not
+     * part of the controller associated with this state
+     */
+    private final int indexOf(NiceControl control)
+    {
+        int index = control.getIndex();
+        if (control.getController() != controller
+                || index < 0 || index >= controls.length)
+        {
+            throw new NoSuchControlException(
+                    "Control does not exist in the controller "
+                    + "associated with this state.");
+        }
+        return index;
+    }
+
+    /**
+     * Returns the state for the specified control within this controller
+     * state.
+     * 
+     * @param control the control whose state should be retrieved
+     * @return the state of the control
+     * @throws NoSuchControlException if the specified control is not
+     * part of the controller associated with this state
+     */
+    public final ControlState getControlState(NiceControl control)
+    {
+        int index = indexOf(control);
+        ControlState view = views[index];
+        if (view == null)
+        {
+            // Racing threads may each create a view; any of them will do.
+            view = new ControlState(this, index);
+            views[index] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Returns the current value of the specified control within this
+     * controller state.
+     * <p>
+     * This is equivalent to
+     * <code>getControlState(control).getCurrentValue()</code>.
+     * 
+     * @param control the control whose value should be retrieved
+     * @return the current value of the control
+     * @throws NoSuchControlException if the specified control is not
+     * part of the controller associated with this state
+     */
+    public final float getCurrentValue(NiceControl control)
+    {
+        return currentValues[indexOf(control)];
+    }
+
+    /**
+     * Returns the last time at which this controller state was completely
+     * refreshed, in milliseconds since the epoch.
+     * 
+     * @return the time
+     */
+    public final long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at which this controller state
+     * was last completely refreshed.
+     * <p>
+     * If the controller has never been polled, the value is
+     * {@link #NO_TIMESTAMP}.
+     * 
+     * @return the time
+     */
+    public final long getTimestampNanos()
+    {
+        return timestampNanos;
+    }
+
+    /**
+     * Converts a nanosecond timestamp taken from this state into
+     * milliseconds since the epoch.
+     * <p>
+     * The conversion is made relative to the wall-clock time of the last
+     * refresh, so timestamps from the same state are always consistent with
+     * each other and with {@link #getTimestamp()}, even if the system clock
+     * has been changed in between.
+     * 
+     * @param timestampNanos a {@link System#nanoTime()} value from this
+     * state
+     * @return the time in milliseconds since the epoch, or -1 if the
+     * timestamp is {@link #NO_TIMESTAMP} or the state has never been
+     * refreshed
+     */
+    public final long toMillis(long timestampNanos)
+    {
+        final long refreshed = timestamp;
+        if (timestampNanos == NO_TIMESTAMP || refreshed < 0L)
+        {
+            return -1L;
+        }
+        return refreshed - Math.floorDiv(this.timestampNanos - timestampNanos,
+                1000000L);
+    }
+}
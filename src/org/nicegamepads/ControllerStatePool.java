@@ -0,0 +1,98 @@
+package org.nicegamepads;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of reusable {@link ControllerState} snapshots for a single poller.
+ * <p>
+ * The pool holds at most a handful of snapshots; enough that a polling
+ * cycle can fill one while listeners are still reading the previous one or
+ * two.  When every pooled snapshot is still in use (that is, when a listener
+ * is falling behind) a plain, unpooled snapshot is allocated instead and
+ * left for the garbage collector.
+ * <p>
+ * As with {@link ControlEventPool}, snapshots are taken from the pool only
+ * by the polling thread and may be released back to it from any thread, so
+ * the free list is a simple compare-and-set stack.
+ *
+ * @author Andrew Hayden
+ */
+final class ControllerStatePool
+{
+    /**
+     * The maximum number of snapshots that are pooled.
+     */
+    final static int MAX_POOLED_SNAPSHOTS = 3;
+
+    /**
+     * Head of the stack of free snapshots.
+     */
+    private final AtomicReference<ControllerState> head =
+        new AtomicReference<ControllerState>();
+
+    /**
+     * Number of pooled snapshots created so far.  Only accessed by the
+     * polling thread.
+     */
+    private int created = 0;
+
+    /**
+     * Takes a snapshot of the specified state, reusing a pooled snapshot if
+     * one is free.  The caller holds the only reference to the snapshot.
+     * <p>
+     * This method must only be called from the polling thread.
+     *
+     * @param source the state to take a snapshot of
+     * @return a snapshot owned by the caller
+     */
+    final ControllerState acquire(final ControllerState source)
+    {
+        ControllerState snapshot;
+        while (true)
+        {
+            snapshot = head.get();
+            if (snapshot == null)
+            {
+                if (created < MAX_POOLED_SNAPSHOTS)
+                {
+                    created++;
+                    snapshot = new ControllerState(source, this);
+                }
+                else
+                {
+                    // Everything is in use; fall back to allocating.
+                    snapshot = new ControllerState(source, null);
+                }
+                break;
+            }
+            if (head.compareAndSet(snapshot, snapshot.nextFree))
+            {
+                snapshot.nextFree = null;
+                snapshot.copyFrom(source);
+                break;
+            }
+        }
+        snapshot.claim();
+        return snapshot;
+    }
+
+    /**
+     * Returns a snapshot to the pool.  Called by
+     * {@link ControllerState#release()} when the last reference is
+     * released.
+     *
+     * @param snapshot the snapshot to return
+     */
+    final void release(final ControllerState snapshot)
+    {
+        while (true)
+        {
+            final ControllerState current = head.get();
+            snapshot.nextFree = current;
+            if (head.compareAndSet(current, snapshot))
+            {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A dedicated thread that polls a single controller at precise deadlines.
+ * <p>
+ * Deadlines are kept against {@link System#nanoTime()}.  The thread parks
+ * until it is within the spin time of the next deadline and then spins
+ * until the deadline arrives, which avoids most of the wake-up jitter of
+ * parking alone at the cost of keeping a processor busy for the spin time
+ * of every poll.  With a spin time of zero it only ever parks.  How late
+ * each poll starts is recorded in a histogram, and polls that are missed
+ * altogether are handled according to a {@link MissedTickPolicy}.
+ * <p>
+ * The thread runs at normal priority.  A poll that throws is logged as by
+ * {@link LoggingRunnable} and, as for a periodic task on the polling
+ * service, stops polling until the ticker is scheduled again.
+ * <p>
+ * The ticker can be rescheduled, paused and stopped from any thread,
+ * including its own.
+ *
+ * @author Andrew Hayden
+ */
+final class DeadlineTicker implements Runnable
+{
+    /**
+     * How long a paused ticker waits before checking whether the framework
+     * has been shut down, in milliseconds.
+     */
+    private final static long PAUSED_CHECK_MILLIS = 100L;
+
+    /**
+     * The poller to poll.
+     */
+    private final ControllerPoller poller;
+
+    /**
+     * Where to record how late each poll starts.
+     */
+    private final LatencyHistogram jitter;
+
+    /**
+     * The thread that does the polling.
+     */
+    private final Thread thread;
+
+    /**
+     * Polls the poller, logging anything it throws.
+     */
+    private final LoggingRunnable pollTask = new LoggingRunnable(){
+        @Override
+        protected void runInternal()
+        {
+            poller.poll();
+        }
+    };
+
+    /**
+     * What to do about missed polls.
+     */
+    private volatile MissedTickPolicy missedTickPolicy;
+
+    /**
+     * Maximum number of overdue polls to catch up on.
+     */
+    private volatile int maxCatchUpTicks;
+
+    /**
+     * How long before each deadline to start spinning, in nanoseconds.
+     */
+    private volatile long spinNanos;
+
+    /**
+     * Number of polls that were skipped.
+     */
+    private volatile long missedTicks = 0L;
+
+    /**
+     * The polling period, in nanoseconds.  Guarded by <code>this</code>.
+     */
+    private long periodNanos = 0L;
+
+    /**
+     * The {@link System#nanoTime()} of the next poll.  Guarded by
+     * <code>this</code>.
+     */
+    private long nextDeadline = 0L;
+
+    /**
+     * Incremented whenever the schedule changes, so that a poll in
+     * progress knows not to advance a schedule that has been replaced.
+     * Guarded by <code>this</code>.
+     */
+    private long generation = 0L;
+
+    /**
+     * Whether or not polls are scheduled.  Guarded by <code>this</code>.
+     */
+    private boolean active = false;
+
+    /**
+     * Whether or not the ticker has been stopped for good.  Guarded by
+     * <code>this</code>.
+     */
+    private boolean stopped = false;
+
+    /**
+     * Whether or not a poll is in progress.  Guarded by <code>this</code>.
+     */
+    private boolean polling = false;
+
+    /**
+     * Constructs a new ticker.  The ticker does nothing until it is started
+     * with {@link #start()} and scheduled with {@link #schedule(long, long)}.
+     *
+     * @param poller the poller to poll
+     * @param jitter where to record how late each poll starts
+     * @param name the name of the thread
+     * @param missedTickPolicy what to do about missed polls
+     * @param maxCatchUpTicks the maximum number of overdue polls to catch
+     * up on
+     * @param spinNanos how long before each deadline to start spinning
+     */
+    DeadlineTicker(final ControllerPoller poller, final LatencyHistogram jitter,
+            final String name, final MissedTickPolicy missedTickPolicy,
+            final int maxCatchUpTicks, final long spinNanos)
+    {
+        this.poller = poller;
+        this.jitter = jitter;
+        this.missedTickPolicy = missedTickPolicy;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.spinNanos = spinNanos;
+        this.thread = new Thread(this, name);
+        // Never keep the application alive on our account.
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the ticker's thread.
+     */
+    final void start()
+    {
+        thread.start();
+    }
+
+    /**
+     * Changes how missed polls are handled and how long to spin.
+     *
+     * @param missedTickPolicy what to do about missed polls
+     * @param maxCatchUpTicks the maximum number of overdue polls to catch
+     * up on
+     * @param spinNanos how long before each deadline to start spinning
+     */
+    final void setPolicy(final MissedTickPolicy missedTickPolicy,
+            final int maxCatchUpTicks, final long spinNanos)
+    {
+        this.missedTickPolicy = missedTickPolicy;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.spinNanos = spinNanos;
+    }
+
+    /**
+     * Schedules polling at the specified period, replacing any previous
+     * schedule.
+     *
+     * @param periodNanos the polling period, in nanoseconds
+     * @param initialDelayNanos the time until the first poll, in
+     * nanoseconds
+     */
+    final synchronized void schedule(final long periodNanos,
+            final long initialDelayNanos)
+    {
+        this.periodNanos = periodNanos;
+        this.nextDeadline = System.nanoTime() + initialDelayNanos;
+        generation++;
+        active = true;
+        notifyAll();
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Stops polling until the ticker is scheduled again.  A poll in
+     * progress is allowed to finish.
+     */
+    final synchronized void cancel()
+    {
+        generation++;
+        active = false;
+    }
+
+    /**
+     * Stops the ticker for good.  A poll in progress is allowed to finish.
+     */
+    final synchronized void stop()
+    {
+        generation++;
+        active = false;
+        stopped = true;
+        notifyAll();
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Waits until no poll is in progress.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return <code>true</code> if no poll is in progress; <code>false</code>
+     * if the timeout expired first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    final synchronized boolean awaitIdle(final long timeout,
+            final TimeUnit unit) throws InterruptedException
+    {
+        if (Thread.currentThread() == thread)
+        {
+            // Our own poll is the one in progress.
+            return true;
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (polling)
+        {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L)
+            {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the ticker's thread.
+     *
+     * @return the thread
+     */
+    final Thread getThread()
+    {
+        return thread;
+    }
+
+    /**
+     * Returns the number of polls that were skipped.
+     *
+     * @return the number of missed polls
+     */
+    final long getMissedTicks()
+    {
+        return missedTicks;
+    }
+
+    @Override
+    public final void run()
+    {
+        // Make sure that any poll already running on the polling service
+        // has finished, so that the controller is never polled by two
+        // threads at once.
+        try
+        {
+            poller.getPollingService().submit(new Runnable(){
+                @Override
+                public void run()
+                {
+                    // Nothing to do.
+                }
+            }).get();
+        }
+        catch (Exception e)
+        {
+            // The framework has been shut down, or we were interrupted.
+            return;
+        }
+
+        while (true)
+        {
+            final long deadline;
+            final long scheduledGeneration;
+            synchronized(this)
+            {
+                while (!stopped && !active)
+                {
+                    if (poller.getPollingService().isShutdown())
+                    {
+                        return;
+                    }
+                    try
+                    {
+                        wait(PAUSED_CHECK_MILLIS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                }
+                if (stopped || poller.getPollingService().isShutdown())
+                {
+                    return;
+                }
+                deadline = nextDeadline;
+                scheduledGeneration = generation;
+            }
+
+            // Park until close to the deadline.  Parking may end early, and
+            // the schedule may change meanwhile, so start over afterwards.
+            final long remaining = deadline - System.nanoTime();
+            if (remaining > spinNanos)
+            {
+                LockSupport.parkNanos(this, remaining - spinNanos);
+                continue;
+            }
+            // Spin the rest of the way.
+            while (System.nanoTime() - deadline < 0L)
+            {
+                // Spin.
+            }
+
+            synchronized(this)
+            {
+                if (scheduledGeneration != generation)
+                {
+                    // Rescheduled or cancelled while we were waiting.
+                    continue;
+                }
+                polling = true;
+            }
+            jitter.record(System.nanoTime() - deadline);
+            boolean failed = false;
+            try
+            {
+                pollTask.run();
+            }
+            catch (RuntimeException e)
+            {
+                // Already logged.
+                failed = true;
+            }
+            synchronized(this)
+            {
+                polling = false;
+                notifyAll();
+                if (failed)
+                {
+                    // Like a periodic task that throws, stop until
+                    // scheduled again.
+                    generation++;
+                    active = false;
+                }
+                else if (scheduledGeneration == generation)
+                {
+                    advance(System.nanoTime());
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the schedule on to the next poll, applying the missed tick
+     * policy if polls are overdue.  Must be called while holding the lock.
+     *
+     * @param now the current {@link System#nanoTime()}
+     */
+    private final void advance(final long now)
+    {
+        nextDeadline += periodNanos;
+        final long late = now - nextDeadline;
+        if (late < 0L)
+        {
+            return;
+        }
+        // Number of deadlines, including the next one, already passed.
+        final long overdue = late / periodNanos + 1L;
+        final long allowed = missedTickPolicy == MissedTickPolicy.CATCH_UP
+            ? maxCatchUpTicks : 0L;
+        if (overdue > allowed)
+        {
+            final long skipped = overdue - allowed;
+            nextDeadline += skipped * periodNanos;
+            missedTicks += skipped;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.nicegamepads;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A dispatch lane is a dedicated event queue and thread that delivers
+ * events to the listeners registered with it, isolated from the framework's
+ * shared event dispatcher and from all other lanes.
+ * <p>
+ * Listeners that are slow (for example, because they write to disk) can be
+ * given a lane of their own so that they cannot delay events for anybody
+ * else.  Events are delivered in order within a lane; there is no ordering
+ * between lanes, or between a lane and the shared dispatcher.  Each lane
+ * keeps metrics on its queue depth and on how long events wait before
+ * delivery, so that a lane that is falling behind can be found.
+ * <p>
+ * Lanes are created with
+ * {@link ControllerManager#createDispatchLane(String, int, OverflowPolicy)}
+ * and shut down along with the framework.  Listeners are added to a lane via
+ * the <code>add*Listener</code> overloads of {@link ControllerPoller} that
+ * take a lane.
+ * <p>
+ * This class is threadsafe.
+ *
+ * @author Andrew Hayden
+ */
+public final class DispatchLane
+{
+    /**
+     * The name of this lane.
+     */
+    private final String name;
+
+    /**
+     * The executor that runs this lane.
+     */
+    private final EventDispatcher dispatcher;
+
+    /**
+     * Number of events delivered.
+     */
+    private final AtomicLong deliveredEvents = new AtomicLong();
+
+    /**
+     * Longest time an event has waited before delivery, in nanoseconds.
+     */
+    private final AtomicLong maxLagNanos = new AtomicLong();
+
+    /**
+     * Time the most recently delivered event waited, in nanoseconds.
+     */
+    private volatile long lastLagNanos = 0L;
+
+    /**
+     * Constructs a new lane.
+     *
+     * @param name the name of the lane, used to name its thread
+     * @param capacity the maximum number of events waiting in the lane
+     * @param overflowPolicy what to do when the lane is full
+     * @param threadFactory the factory for the lane's thread
+     */
+    DispatchLane(final String name, final int capacity,
+            final OverflowPolicy overflowPolicy,
+            final ThreadFactory threadFactory)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Capacity must be positive: " + capacity);
+        }
+        if (overflowPolicy == null)
+        {
+            throw new IllegalArgumentException(
+                    "Overflow policy cannot be null.");
+        }
+        if (overflowPolicy == OverflowPolicy.COALESCE)
+        {
+            throw new IllegalArgumentException(
+                    "Dispatch lanes do not support coalescing.");
+        }
+        this.name = name;
+        this.dispatcher = new EventDispatcher(capacity, overflowPolicy,
+                threadFactory);
+    }
+
+    /**
+     * Submits a task to this lane.
+     *
+     * @param task the task to run
+     */
+    final void execute(final DispatchTask task)
+    {
+        dispatcher.execute(task);
+    }
+
+    /**
+     * Records the delivery of an event that was submitted at the specified
+     * time.
+     *
+     * @param submittedNanos the {@link System#nanoTime()} at which the event
+     * was submitted
+     */
+    final void recordDelivery(final long submittedNanos)
+    {
+        final long lag = System.nanoTime() - submittedNanos;
+        lastLagNanos = lag;
+        deliveredEvents.incrementAndGet();
+        long max = maxLagNanos.get();
+        while (lag > max && !maxLagNanos.compareAndSet(max, lag))
+        {
+            max = maxLagNanos.get();
+        }
+    }
+
+    /**
+     * Returns the name of this lane.
+     *
+     * @return the name
+     */
+    public final String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the maximum number of events waiting in this lane.
+     *
+     * @return the capacity
+     */
+    public final int getCapacity()
+    {
+        return dispatcher.getCapacity();
+    }
+
+    /**
+     * Returns what happens when this lane is full.
+     *
+     * @return the overflow policy
+     */
+    public final OverflowPolicy getOverflowPolicy()
+    {
+        return dispatcher.getOverflowPolicy();
+    }
+
+    /**
+     * Returns the number of events currently waiting in this lane.
+     *
+     * @return the queue depth
+     */
+    public final int getQueueDepth()
+    {
+        return dispatcher.getQueueDepth();
+    }
+
+    /**
+     * Returns the number of events delivered by this lane.
+     *
+     * @return the number of delivered events
+     */
+    public final long getDeliveredEventCount()
+    {
+        return deliveredEvents.get();
+    }
+
+    /**
+     * Returns the number of events this lane has dropped because it was
+     * full.
+     *
+     * @return the number of dropped events
+     */
+    public final long getDroppedEventCount()
+    {
+        return dispatcher.getDroppedEventCount();
+    }
+
+    /**
+     * Returns how long the most recently delivered event waited in this
+     * lane before delivery started.
+     *
+     * @param unit the unit to return the time in
+     * @return the lag of the last event
+     */
+    public final long getLastLag(final TimeUnit unit)
+    {
+        return unit.convert(lastLagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest time any event has waited in this lane before
+     * delivery started.
+     *
+     * @param unit the unit to return the time in
+     * @return the maximum lag
+     */
+    public final long getMaxLag(final TimeUnit unit)
+    {
+        return unit.convert(maxLagNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the executor that runs this lane.
+     *
+     * @return the executor
+     */
+    final EventDispatcher getDispatcher()
+    {
+        return dispatcher;
+    }
+
+    @Override
+    public final String toString()
+    {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(DispatchLane.class.getName());
+        buffer.append(": [");
+        buffer.append("name=");
+        buffer.append(name);
+        buffer.append(", queueDepth=");
+        buffer.append(getQueueDepth());
+        buffer.append(", delivered=");
+        buffer.append(getDeliveredEventCount());
+        buffer.append(", dropped=");
+        buffer.append(getDroppedEventCount());
+        buffer.append(", maxLagMillis=");
+        buffer.append(getMaxLag(TimeUnit.MILLISECONDS));
+        buffer.append("]");
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package org.nicegamepads;
+
+/**
+ * Possible strategies for handing the events produced by a
+ * {@link ControllerPoller} to the event dispatcher.
+ * <p>
+ * Except in {@link #DIRECT} mode, listeners are always invoked on the event
+ * dispatcher.  In every mode, all of the ordering guarantees documented on
+ * the poller's <code>add*Listener</code> methods are honored.  Listeners
+ * registered with a {@link DispatchLane} are unaffected by the mode.
+ *
+ * @author Andrew Hayden
+ */
+public enum DispatchMode
+{
+    /**
+     * Every event is submitted to the event dispatcher as its own task.
+     * This is the default.
+     */
+    PER_EVENT,
+
+    /**
+     * All of the events produced by one polling cycle are collected into
+     * a single batch, which is submitted to the event dispatcher as one
+     * task and fanned out to the listeners there.  This greatly reduces
+     * the number of tasks submitted to the dispatcher for controllers with
+     * many controls.
+     */
+    BATCHED,
+
+    /**
+     * Listeners are called directly on the polling thread, inside the
+     * polling cycle, as each event is produced.  This gives the lowest
+     * possible latency between polling and the listeners, but the time the
+     * listeners take is added to every polling cycle; listeners must be
+     * fast and must never block.  The poller watches how long the listeners
+     * take and reports cycles where they take longer than the polling
+     * period (see {@link ControllerPoller#getDirectListenerOverrunCount()}).
+     * Events are never coalesced in this mode.
+     */
+    DIRECT;
+}
@@ -0,0 +1,21 @@
+package org.nicegamepads;
+
+/**
+ * A task submitted by a poller to the event dispatcher.
+ * <p>
+ * In addition to running normally, a dispatch task can be abandoned by the
+ * dispatcher when its queue overflows, in which case it gives back any
+ * pooled resources it holds and reports how many events were lost.
+ *
+ * @author Andrew Hayden
+ */
+abstract class DispatchTask extends LoggingRunnable
+{
+    /**
+     * Abandons this task without running it, releasing anything it holds.
+     * The task must not be run afterwards.
+     *
+     * @return the number of events that will now never be delivered
+     */
+    abstract int discard();
+}
@@ -0,0 +1,46 @@
+package org.nicegamepads;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the backlog of an event dispatcher, taken as
+ * a poller hands off the events of a polling cycle.
+ *
+ * @author Andrew Hayden
+ * @see FlightRecording
+ */
+@Name("org.nicegamepads.DispatcherBacklog")
+@Label("Dispatcher Backlog")
+@Description("Tasks waiting in an event dispatcher after a polling cycle")
+@Category("NiceGamepads")
+@StackTrace(false)
+final class DispatcherBacklogEvent extends jdk.jfr.Event
+{
+    /**
+     * The declared name of the controller whose events were handed off.
+     */
+    @Label("Controller")
+    String controller;
+
+    /**
+     * Number of tasks waiting in the dispatcher's queue.
+     */
+    @Label("Queue Depth")
+    int queueDepth;
+
+    /**
+     * Maximum number of tasks the queue can hold.
+     */
+    @Label("Capacity")
+    int capacity;
+
+    /**
+     * Number of events the dispatcher has dropped so far.
+     */
+    @Label("Dropped Events")
+    long droppedEvents;
+}
@@ -0,0 +1,193 @@
+package org.nicegamepads;
+
+/**
+ * All of the events produced by a single polling cycle of a
+ * {@link ControllerPoller}, in the order in which they were produced.
+ * <p>
+ * A batch is filled by the polling thread and then handed to the event
+ * dispatcher as a single task, where it is fanned out to the poller's
+ * listeners.  Once delivered, the batch is returned to its poller to be
+ * reused by a later polling cycle.
+ * <p>
+ * This class is not threadsafe; ownership passes from the polling thread to
+ * the event dispatcher and back again.
+ *
+ * @author Andrew Hayden
+ */
+final class EventBatch extends DispatchTask
+{
+    /**
+     * Initial capacity of a new batch, in events.
+     */
+    private final static int INITIAL_CAPACITY = 16;
+
+    /**
+     * The poller whose listeners this batch is delivered to.
+     */
+    private final ControllerPoller poller;
+
+    /**
+     * The types of the events in this batch.
+     */
+    private ControlEventType[] types = new ControlEventType[INITIAL_CAPACITY];
+
+    /**
+     * The events in this batch.
+     */
+    private ControlEvent[] events = new ControlEvent[INITIAL_CAPACITY];
+
+    /**
+     * The number of events in this batch.
+     */
+    private int size = 0;
+
+    /**
+     * The state of the controller at the end of the polling cycle, if it
+     * is to be delivered to controller polling listeners; otherwise,
+     * <code>null</code>.
+     */
+    private ControllerState controllerState = null;
+
+    /**
+     * When the batch was handed to the event dispatcher, as a
+     * {@link System#nanoTime()}.
+     */
+    long submittedNanos = 0L;
+
+    /**
+     * Next free batch in the owning poller's pool, if any.
+     */
+    EventBatch nextFree = null;
+
+    /**
+     * Constructs a new, empty batch for the specified poller.
+     *
+     * @param poller the poller whose listeners this batch is delivered to
+     */
+    EventBatch(final ControllerPoller poller)
+    {
+        this.poller = poller;
+    }
+
+    /**
+     * Appends an event to this batch.
+     *
+     * @param type the type of the event
+     * @param event the event
+     */
+    final void add(final ControlEventType type, final ControlEvent event)
+    {
+        if (size == events.length)
+        {
+            final int newCapacity = size * 2;
+            final ControlEventType[] newTypes =
+                new ControlEventType[newCapacity];
+            final ControlEvent[] newEvents = new ControlEvent[newCapacity];
+            System.arraycopy(types, 0, newTypes, 0, size);
+            System.arraycopy(events, 0, newEvents, 0, size);
+            types = newTypes;
+            events = newEvents;
+        }
+        types[size] = type;
+        events[size] = event;
+        size++;
+    }
+
+    /**
+     * Sets the controller state to be delivered after all of the events
+     * in this batch.
+     *
+     * @param controllerState the state, or <code>null</code> for none
+     */
+    final void setControllerState(final ControllerState controllerState)
+    {
+        this.controllerState = controllerState;
+    }
+
+    /**
+     * Returns whether or not this batch has anything to deliver.
+     *
+     * @return <code>true</code> if there are no events and no controller
+     * state in this batch; otherwise, <code>false</code>
+     */
+    final boolean isEmpty()
+    {
+        return size == 0 && controllerState == null;
+    }
+
+    /**
+     * Returns the number of events in this batch.
+     *
+     * @return the number of events
+     */
+    final int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the type of the event at the specified position.
+     *
+     * @param index the position of the event
+     * @return its type
+     */
+    final ControlEventType getType(final int index)
+    {
+        return types[index];
+    }
+
+    /**
+     * Returns the event at the specified position.
+     *
+     * @param index the position of the event
+     * @return the event
+     */
+    final ControlEvent getEvent(final int index)
+    {
+        return events[index];
+    }
+
+    /**
+     * Returns the controller state to be delivered after the events.
+     *
+     * @return the state, or <code>null</code> if there is none
+     */
+    final ControllerState getControllerState()
+    {
+        return controllerState;
+    }
+
+    /**
+     * Discards the contents of this batch so that it may be reused,
+     * releasing the batch's reference to each of its events and to the
+     * controller state.
+     */
+    final void clear()
+    {
+        for (int index = 0; index < size; index++)
+        {
+            events[index].release();
+            events[index] = null;
+        }
+        size = 0;
+        if (controllerState != null)
+        {
+            controllerState.release();
+            controllerState = null;
+        }
+    }
+
+    @Override
+    final int discard()
+    {
+        final int discarded = size + (controllerState == null ? 0 : 1);
+        poller.releaseBatch(this);
+        return discarded;
+    }
+
+    @Override
+    protected final void runInternal()
+    {
+        poller.deliverBatch(this);
+    }
+}
@@ -0,0 +1,317 @@
+package org.nicegamepads;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The framework's default event dispatcher: a single thread fed by a
+ * bounded queue, with an {@link OverflowPolicy} that decides what happens
+ * when the queue is full.
+ * <p>
+ * Events that are dropped or coalesced because of the policy are counted;
+ * the counts are exposed through {@link ControllerManager}.
+ *
+ * @author Andrew Hayden
+ */
+final class EventDispatcher extends ThreadPoolExecutor
+{
+    /**
+     * What to do when the queue is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Maximum number of tasks waiting in the queue.
+     */
+    private final int capacity;
+
+    /**
+     * Number of events that have been dropped.
+     */
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    /**
+     * Number of events that have been coalesced into a later event.
+     */
+    private final AtomicLong coalescedEvents = new AtomicLong();
+
+    /**
+     * How long a blocked submitter waits for room before checking again
+     * whether the dispatcher has been shut down.
+     */
+    private final static long BLOCK_RECHECK_MILLIS = 100L;
+
+    /**
+     * The thread currently running tasks for this dispatcher, if any.
+     */
+    private volatile Thread workerThread = null;
+
+    /**
+     * Constructs a new dispatcher.
+     *
+     * @param capacity the maximum number of tasks waiting in the queue
+     * @param overflowPolicy what to do when the queue is full
+     */
+    EventDispatcher(final int capacity, final OverflowPolicy overflowPolicy)
+    {
+        this(capacity, overflowPolicy, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Constructs a new dispatcher whose thread is created by the specified
+     * factory.
+     *
+     * @param capacity the maximum number of tasks waiting in the queue
+     * @param overflowPolicy what to do when the queue is full
+     * @param threadFactory the factory for the dispatcher's thread
+     */
+    EventDispatcher(final int capacity, final OverflowPolicy overflowPolicy,
+            final ThreadFactory threadFactory)
+    {
+        super(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(capacity), threadFactory);
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        setRejectedExecutionHandler(new OverflowHandler());
+    }
+
+    /**
+     * Returns what happens when the queue is full.
+     *
+     * @return the overflow policy
+     */
+    final OverflowPolicy getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the maximum number of tasks waiting in the queue.
+     *
+     * @return the capacity
+     */
+    final int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of tasks currently waiting in the queue.
+     *
+     * @return the queue depth
+     */
+    final int getQueueDepth()
+    {
+        return getQueue().size();
+    }
+
+    /**
+     * Returns whether or not the queue is currently full.
+     *
+     * @return <code>true</code> if a task submitted now would overflow
+     */
+    final boolean isSaturated()
+    {
+        return getQueue().remainingCapacity() == 0;
+    }
+
+    /**
+     * Records that an event has been coalesced into a later one.
+     */
+    final void recordCoalesced()
+    {
+        coalescedEvents.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of events that have been dropped.
+     *
+     * @return the number of dropped events
+     */
+    final long getDroppedEventCount()
+    {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Returns the number of events that have been coalesced.
+     *
+     * @return the number of coalesced events
+     */
+    final long getCoalescedEventCount()
+    {
+        return coalescedEvents.get();
+    }
+
+    @Override
+    protected void beforeExecute(final Thread thread, final Runnable task)
+    {
+        workerThread = thread;
+        super.beforeExecute(thread, task);
+    }
+
+    /**
+     * Returns whether or not the calling thread is the one running this
+     * dispatcher's tasks, as it is when a listener submits a task.
+     *
+     * @return <code>true</code> if called from the dispatcher's own thread
+     */
+    private final boolean isWorkerThread()
+    {
+        return Thread.currentThread() == workerThread;
+    }
+
+    /**
+     * Abandons the specified task and counts the events lost with it.
+     * Abandoned futures are cancelled so that nothing waits on them forever.
+     *
+     * @param task the task to abandon
+     */
+    private final void drop(final Runnable task)
+    {
+        if (task instanceof DispatchTask)
+        {
+            droppedEvents.addAndGet(((DispatchTask) task).discard());
+        }
+        else
+        {
+            if (task instanceof Future<?>)
+            {
+                ((Future<?>) task).cancel(false);
+            }
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes the oldest dispatch task from the queue and abandons it.
+     * Other tasks, such as futures from {@link #submit(Runnable)}, are never
+     * evicted.
+     *
+     * @param queue the queue to evict from
+     * @return <code>true</code> if a task was evicted
+     */
+    private final boolean evictOldest(final BlockingQueue<Runnable> queue)
+    {
+        for (final Runnable queued : queue)
+        {
+            if (queued instanceof DispatchTask && queue.remove(queued))
+            {
+                drop(queued);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits for room in the queue and enqueues the specified task.
+     * <p>
+     * If the caller is the dispatcher's own thread, waiting could never
+     * end, so the task is dropped instead; running it at once would run it
+     * ahead of everything already queued.  If the dispatcher is shut down
+     * while waiting, or just after the task is enqueued, the task is
+     * rejected rather than left in a queue that nobody will drain.
+     *
+     * @param queue the queue to put the task in
+     * @param task the task to enqueue
+     */
+    private final void put(final BlockingQueue<Runnable> queue,
+            final Runnable task)
+    {
+        if (isWorkerThread())
+        {
+            drop(task);
+            return;
+        }
+
+        try
+        {
+            while (!queue.offer(
+                    task, BLOCK_RECHECK_MILLIS, TimeUnit.MILLISECONDS))
+            {
+                if (isShutdown())
+                {
+                    reject(task);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            drop(task);
+            return;
+        }
+
+        if (isShutdown() && queue.remove(task))
+        {
+            reject(task);
+        }
+    }
+
+    /**
+     * Abandons the specified task because the dispatcher has been shut down.
+     *
+     * @param task the task to reject
+     * @throws RejectedExecutionException always
+     */
+    private final void reject(final Runnable task)
+    {
+        drop(task);
+        throw new RejectedExecutionException(
+                "Event dispatcher has been shut down.");
+    }
+
+    /**
+     * Applies the overflow policy to tasks that don't fit in the queue.
+     */
+    private final class OverflowHandler implements RejectedExecutionHandler
+    {
+        @Override
+        public void rejectedExecution(final Runnable task,
+                final ThreadPoolExecutor executor)
+        {
+            if (isShutdown())
+            {
+                reject(task);
+            }
+
+            final BlockingQueue<Runnable> queue = getQueue();
+            switch (overflowPolicy)
+            {
+                case DROP_NEWEST:
+                    drop(task);
+                    break;
+                case DROP_OLDEST:
+                    while (!queue.offer(task))
+                    {
+                        if (!evictOldest(queue))
+                        {
+                            // Nothing evictable is queued; the new task
+                            // is the oldest one that may be dropped.
+                            drop(task);
+                            break;
+                        }
+                    }
+                    break;
+                case BLOCK:
+                case COALESCE:
+                    // Coalescing happens before submission; anything that
+                    // gets here could not be coalesced.
+                    put(queue, task);
+                    break;
+                default:
+                    throw new RuntimeException(
+                            "Unsupported overflow policy: " + overflowPolicy);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.nicegamepads;
+
+/**
+ * Receives the events drained from a {@link ControlEventQueue}.
+ *
+ * @author Andrew Hayden
+ */
+public interface EventSink
+{
+    /**
+     * Invoked once for each event drained from the queue, on the thread
+     * that is draining it.
+     * <p>
+     * The event object is reused for the next event as soon as this method
+     * returns; copy any values that are needed afterwards.  Its values are
+     * only available from its getters, such as
+     * {@link ControlEvent#getCurrentValue()}; its public fields hold no
+     * values.
+     * 
+     * @param type the type of the event
+     * @param event the event
+     */
+    public abstract void onEvent(ControlEventType type, ControlEvent event);
+}
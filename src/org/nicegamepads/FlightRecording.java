@@ -0,0 +1,202 @@
+package org.nicegamepads;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Emits the framework's events to the JDK Flight Recorder.
+ * <p>
+ * Callers check {@link #recording} before doing anything else, so that
+ * while no recording is running the cost is a single read of a volatile
+ * field: no event objects are created and nothing is timed.  While
+ * a recording is running, each event is also subject to the recording's
+ * own settings through {@link jdk.jfr.Event#isEnabled()}.
+ * <p>
+ * On a runtime without the <code>jdk.jfr</code> module, {@link #recording}
+ * is never set and none of the event classes are loaded.
+ *
+ * @author Andrew Hayden
+ */
+final class FlightRecording
+{
+    /**
+     * Whether or not any flight recording is running.
+     */
+    static volatile boolean recording = false;
+
+    static
+    {
+        try
+        {
+            FlightRecorder.addListener(new RecordingWatcher());
+        }
+        catch (LinkageError e)
+        {
+            // No flight recorder in this runtime.
+        }
+        catch (SecurityException e)
+        {
+            // Not allowed to watch recordings.
+        }
+    }
+
+    /**
+     * Private constructor discourages unwanted instantiation.
+     */
+    private FlightRecording()
+    {
+        // Private constructor discourages unwanted instantiation.
+    }
+
+    /**
+     * Starts timing a polling cycle.
+     *
+     * @return the event, or <code>null</code> if it is disabled
+     */
+    final static PollCycleEvent beginPollCycle()
+    {
+        final PollCycleEvent event = new PollCycleEvent();
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing a polling cycle and commits the event.
+     *
+     * @param event the event returned by {@link #beginPollCycle()}
+     * @param controller the controller that was polled
+     * @param controlsChanged the number of controls whose values changed
+     * @param eventsEmitted the number of events produced
+     */
+    final static void endPollCycle(final PollCycleEvent event,
+            final NiceController controller, final int controlsChanged,
+            final int eventsEmitted)
+    {
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.controller = controller.getDeclaredName();
+            event.controlsChanged = controlsChanged;
+            event.eventsEmitted = eventsEmitted;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a call to a listener.
+     *
+     * @return the event, or <code>null</code> if it is disabled
+     */
+    final static ListenerInvocationEvent beginListenerInvocation()
+    {
+        final ListenerInvocationEvent event = new ListenerInvocationEvent();
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing a call to a listener and commits the event.
+     *
+     * @param event the event returned by {@link #beginListenerInvocation()}
+     * @param listener the listener that was called
+     * @param eventKind the kind of event delivered
+     */
+    final static void endListenerInvocation(
+            final ListenerInvocationEvent event, final Object listener,
+            final String eventKind)
+    {
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.listenerClass = listener.getClass();
+            event.eventKind = eventKind;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the backlog of an event dispatcher.
+     *
+     * @param controller the controller whose events were handed off
+     * @param dispatcher the dispatcher
+     */
+    final static void dispatcherBacklog(final NiceController controller,
+            final EventDispatcher dispatcher)
+    {
+        final DispatcherBacklogEvent event = new DispatcherBacklogEvent();
+        if (event.shouldCommit())
+        {
+            event.controller = controller.getDeclaredName();
+            event.queueDepth = dispatcher.getQueueDepth();
+            event.capacity = dispatcher.getCapacity();
+            event.droppedEvents = dispatcher.getDroppedEventCount();
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a failure to poll a controller.
+     *
+     * @param controller the controller
+     * @param message why polling failed
+     */
+    final static void controllerPollFailure(final NiceController controller,
+            final String message)
+    {
+        final ControllerPollFailureEvent event =
+            new ControllerPollFailureEvent();
+        if (event.shouldCommit())
+        {
+            event.controller = controller.getDeclaredName();
+            event.message = message;
+            event.commit();
+        }
+    }
+
+    /**
+     * Keeps {@link FlightRecording#recording} up to date as recordings
+     * start and stop.
+     *
+     * @author Andrew Hayden
+     */
+    private final static class RecordingWatcher
+    implements FlightRecorderListener
+    {
+        @Override
+        public void recorderInitialized(final FlightRecorder recorder)
+        {
+            update(recorder);
+        }
+
+        @Override
+        public void recordingStateChanged(final Recording changed)
+        {
+            update(FlightRecorder.getFlightRecorder());
+        }
+
+        /**
+         * Checks whether any recording is running.
+         *
+         * @param recorder the flight recorder
+         */
+        private final static void update(final FlightRecorder recorder)
+        {
+            boolean running = false;
+            for (Recording candidate : recorder.getRecordings())
+            {
+                running |= candidate.getState() == RecordingState.RUNNING;
+            }
+            recording = running;
+        }
+    }
+}
@@ -1,17 +1,17 @@
-package org.nicegamepads;
-
-/**
- * Possible horizontal orientations.
- */
-public enum HorizontalOrientation
-{
-    /**
-     * Indicates that increasing values are farther to the west. 
-     */
-    WEST_POSITIVE,
-
-    /**
-     * Indicates that increasing values are farther to the east. 
-     */
-    EAST_POSITIVE;
+package org.nicegamepads;
+
+/**
+ * Possible horizontal orientations.
+ */
+public enum HorizontalOrientation
+{
+    /**
+     * Indicates that increasing values are farther to the west. 
+     */
+    WEST_POSITIVE,
+
+    /**
+     * Indicates that increasing values are farther to the east. 
+     */
+    EAST_POSITIVE;
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package org.nicegamepads;
+
+import net.java.games.input.Component;
+import net.java.games.input.Controller;
+import net.java.games.input.Event;
+
+/**
+ * The source of the devices that the framework works with: it enumerates
+ * the controllers present, polls them and reads the values of their
+ * components, either all at once or as events for just the components
+ * that changed.
+ * <p>
+ * Devices are described with jinput's {@link Controller} and
+ * {@link Component} interfaces whatever the backend, so a backend that
+ * does not use jinput supplies its own implementations of them.  The
+ * default backend, {@link org.nicegamepads.jinput.JInputBackend}, reads
+ * real hardware through jinput;
+ * {@link org.nicegamepads.simulation.SimulatedBackend} creates virtual
+ * controllers for testing without hardware.  The backend in use is set
+ * with {@link NiceController#setInputBackend(InputBackend)}.
+ * <p>
+ * Implementations must be threadsafe.  Each controller is polled by one
+ * thread at a time, but different controllers may be polled concurrently.
+ *
+ * @author Andrew Hayden
+ */
+public interface InputBackend
+{
+    /**
+     * Returns all of the controllers currently present.
+     * 
+     * @return the controllers, possibly of length 0 but never
+     * <code>null</code>
+     */
+    public abstract Controller[] getControllers();
+
+    /**
+     * Polls the specified controller, which must have been returned by
+     * {@link #getControllers()}, for the latest values of its components.
+     * 
+     * @param controller the controller to poll
+     * @return <code>true</code> if the controller was polled successfully;
+     * <code>false</code> if it has failed, which usually means that it has
+     * been disconnected
+     */
+    public abstract boolean poll(Controller controller);
+
+    /**
+     * Reads the values that the most recent poll of the specified
+     * controller found for the specified components, all of which belong
+     * to the controller or its subcontrollers.
+     * <p>
+     * This is called on every poll for every component, so it must not
+     * allocate.
+     * 
+     * @param controller the controller that was polled
+     * @param components the components to read
+     * @param values the array to read the values into; the value of each
+     * component goes into the element at the same index
+     */
+    public abstract void read(Controller controller, Component[] components,
+            float[] values);
+
+    /**
+     * Takes the next event from the specified controller's queue of
+     * component changes, which polling the controller fills.  Events that
+     * are not taken before the queue fills up may be lost.
+     * <p>
+     * This is called on every event-driven poll until the queue is empty,
+     * so it must not allocate.
+     * 
+     * @param controller the controller that was polled
+     * @param event the event to fill in with the component, its new value
+     * and the time of the change
+     * @return <code>true</code> if an event was taken; <code>false</code>
+     * if the queue is empty
+     */
+    public abstract boolean nextEvent(Controller controller, Event event);
+}
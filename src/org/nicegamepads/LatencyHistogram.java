@@ -0,0 +1,227 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies, recorded in nanoseconds.
+ * <p>
+ * Values are counted in buckets whose width grows with the value: every
+ * power of two is split into eight buckets of equal width, so any reported
+ * percentile is within 12.5% of the true value, and the whole range of a
+ * <code>long</code> fits in a few hundred counters.  Recording a value
+ * allocates nothing and takes no locks.
+ * <p>
+ * This class is threadsafe.  Values recorded while the histogram is being
+ * read may or may not be reflected in what is read.
+ *
+ * @author Andrew Hayden
+ */
+public final class LatencyHistogram
+{
+    /**
+     * Number of bits of each value kept below its leading bit.
+     */
+    private final static int SUB_BUCKET_BITS = 3;
+
+    /**
+     * Number of buckets each power of two is split into.
+     */
+    private final static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Total number of buckets, enough for any non-negative
+     * <code>long</code>.
+     */
+    private final static int NUM_BUCKETS =
+        (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * Number of values in each bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+
+    /**
+     * Number of values recorded.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Sum of the values recorded, in nanoseconds.
+     */
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Largest value recorded, in nanoseconds.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value.  Negative values are recorded as zero.
+     *
+     * @param nanos the value, in nanoseconds
+     */
+    public final void record(long nanos)
+    {
+        if (nanos < 0L)
+        {
+            nanos = 0L;
+        }
+        buckets.incrementAndGet(bucketIndex(nanos));
+        count.incrementAndGet();
+        total.addAndGet(nanos);
+        long currentMax = max.get();
+        while (nanos > currentMax && !max.compareAndSet(currentMax, nanos))
+        {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the number of values
+     */
+    public final long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Returns the largest value recorded.
+     *
+     * @param unit the unit to return the value in
+     * @return the largest value, or 0 if nothing has been recorded
+     */
+    public final long getMax(final TimeUnit unit)
+    {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @param unit the unit to return the value in
+     * @return the mean, or 0 if nothing has been recorded
+     */
+    public final long getMean(final TimeUnit unit)
+    {
+        final long samples = count.get();
+        if (samples == 0L)
+        {
+            return 0L;
+        }
+        return unit.convert(total.get() / samples, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the value below which the specified percentage of the
+     * recorded values fall.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @param unit the unit to return the value in
+     * @return the value at the percentile, or 0 if nothing has been
+     * recorded
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public final long getPercentile(final double percentile,
+            final TimeUnit unit)
+    {
+        if (!(percentile >= 0d && percentile <= 100d))
+        {
+            throw new IllegalArgumentException(
+                    "Percentile must be between 0 and 100: " + percentile);
+        }
+        final long samples = count.get();
+        if (samples == 0L)
+        {
+            return 0L;
+        }
+        final long target =
+            Math.max(1L, (long) Math.ceil(samples * percentile / 100d));
+        long seen = 0L;
+        for (int index = 0; index < NUM_BUCKETS; index++)
+        {
+            seen += buckets.get(index);
+            if (seen >= target)
+            {
+                return unit.convert(Math.min(upperBound(index), max.get()),
+                        TimeUnit.NANOSECONDS);
+            }
+        }
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Discards all recorded values.
+     */
+    public final void reset()
+    {
+        for (int index = 0; index < NUM_BUCKETS; index++)
+        {
+            buckets.set(index, 0L);
+        }
+        count.set(0L);
+        total.set(0L);
+        max.set(0L);
+    }
+
+    /**
+     * Returns the bucket for the specified value.
+     *
+     * @param nanos a non-negative value
+     * @return the index of its bucket
+     */
+    private final static int bucketIndex(final long nanos)
+    {
+        if (nanos < SUB_BUCKETS)
+        {
+            return (int) nanos;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value that falls into the specified bucket.
+     *
+     * @param index the index of the bucket
+     * @return the largest value in the bucket
+     */
+    private final static long upperBound(final int index)
+    {
+        if (index < SUB_BUCKETS)
+        {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowerBound =
+            ((long) (SUB_BUCKETS + index % SUB_BUCKETS)) << shift;
+        return lowerBound + (1L << shift) - 1L;
+    }
+
+    @Override
+    public final String toString()
+    {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(LatencyHistogram.class.getName());
+        buffer.append(": [");
+        buffer.append("count=");
+        buffer.append(getCount());
+        buffer.append(", p50Micros=");
+        buffer.append(getPercentile(50d, TimeUnit.MICROSECONDS));
+        buffer.append(", p90Micros=");
+        buffer.append(getPercentile(90d, TimeUnit.MICROSECONDS));
+        buffer.append(", p99Micros=");
+        buffer.append(getPercentile(99d, TimeUnit.MICROSECONDS));
+        buffer.append(", p999Micros=");
+        buffer.append(getPercentile(99.9d, TimeUnit.MICROSECONDS));
+        buffer.append(", maxMicros=");
+        buffer.append(getMax(TimeUnit.MICROSECONDS));
+        buffer.append("]");
+        return buffer.toString();
+    }
+}
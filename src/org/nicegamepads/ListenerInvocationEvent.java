@@ -0,0 +1,34 @@
+package org.nicegamepads;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one call to one listener.
+ *
+ * @author Andrew Hayden
+ * @see FlightRecording
+ */
+@Name("org.nicegamepads.ListenerInvocation")
+@Label("Listener Invocation")
+@Description("One call to a controller or control listener")
+@Category("NiceGamepads")
+@StackTrace(false)
+final class ListenerInvocationEvent extends jdk.jfr.Event
+{
+    /**
+     * The class of the listener.
+     */
+    @Label("Listener Class")
+    Class<?> listenerClass;
+
+    /**
+     * The kind of event delivered: the name of a {@link ControlEventType},
+     * or <code>CONTROLLER_POLLED</code> for a controller state.
+     */
+    @Label("Event Kind")
+    String eventKind;
+}
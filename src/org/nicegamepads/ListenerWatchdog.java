@@ -0,0 +1,89 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of how long listeners called directly on the polling thread
+ * take, compared with the polling period, and counts the cycles in which
+ * they take longer than the period allows.
+ * <p>
+ * Only the polling thread records times; any thread may read them.  The
+ * figures are published through {@link ControllerPoller} and its MBean;
+ * recording them does no I/O, so that watching the polling thread doesn't
+ * slow it down.
+ *
+ * @author Andrew Hayden
+ */
+final class ListenerWatchdog
+{
+    /**
+     * Listener time in the most recent polling cycle, in nanoseconds.
+     */
+    private volatile long lastNanos = 0L;
+
+    /**
+     * Longest listener time in any polling cycle, in nanoseconds.
+     */
+    private volatile long maxNanos = 0L;
+
+    /**
+     * Number of cycles in which the listeners took longer than the
+     * polling period.
+     */
+    private volatile long overrunCount = 0L;
+
+    /**
+     * Records the time taken by listeners in one polling cycle.
+     * <p>
+     * This method must only be called from the polling thread.
+     *
+     * @param listenerNanos the time the listeners took, in nanoseconds
+     * @param periodNanos the polling period, in nanoseconds, or 0 if polling
+     * is not periodic
+     */
+    final void record(final long listenerNanos, final long periodNanos)
+    {
+        lastNanos = listenerNanos;
+        if (listenerNanos > maxNanos)
+        {
+            maxNanos = listenerNanos;
+        }
+        if (periodNanos > 0L && listenerNanos > periodNanos)
+        {
+            overrunCount++;
+        }
+    }
+
+    /**
+     * Returns the listener time in the most recent polling cycle.
+     *
+     * @param unit the unit to return the time in
+     * @return the time
+     */
+    final long getLast(final TimeUnit unit)
+    {
+        return unit.convert(lastNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest listener time in any polling cycle.
+     *
+     * @param unit the unit to return the time in
+     * @return the time
+     */
+    final long getMax(final TimeUnit unit)
+    {
+        return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of polling cycles in which the listeners took
+     * longer than the polling period.
+     *
+     * @return the number of overruns
+     */
+    final long getOverrunCount()
+    {
+        return overrunCount;
+    }
+}
@@ -0,0 +1,126 @@
+package org.nicegamepads;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registers the framework's MBeans with the platform MBean server, and
+ * unregisters them again when the framework is shut down.
+ * <p>
+ * Management is a convenience: a failure to register or unregister an
+ * MBean is logged and otherwise ignored.
+ * <p>
+ * This class is threadsafe.
+ *
+ * @author Andrew Hayden
+ */
+final class ManagementRegistry
+{
+    /**
+     * Domain of all of the framework's MBeans.
+     */
+    private final static String DOMAIN = "org.nicegamepads";
+
+    /**
+     * Names of the MBeans registered so far.  Guarded by itself.
+     */
+    private final static List<ObjectName> registered =
+        new ArrayList<ObjectName>();
+
+    /**
+     * Private constructor discourages unwanted instantiation.
+     */
+    private ManagementRegistry()
+    {
+        // Private constructor discourages unwanted instantiation.
+    }
+
+    /**
+     * Registers the MBean for the framework as a whole.
+     */
+    final static void registerManager()
+    {
+        register(new ControllerManagerMonitor(),
+                DOMAIN + ":type=ControllerManager");
+    }
+
+    /**
+     * Registers the MBean for the specified poller.  Pollers of controllers
+     * with the same name are told apart by a number.
+     *
+     * @param poller the poller
+     */
+    final static void register(final ControllerPoller poller)
+    {
+        final String name = DOMAIN + ":type=ControllerPoller,name="
+            + ObjectName.quote(poller.getController().getDeclaredName());
+        final ControllerPollerMonitor monitor =
+            new ControllerPollerMonitor(poller);
+        String candidate = name;
+        for (int instance = 2; !register(monitor, candidate); instance++)
+        {
+            candidate = name + ",instance=" + instance;
+        }
+    }
+
+    /**
+     * Registers an MBean under the specified name.
+     *
+     * @param mbean the MBean
+     * @param name the name to register it under
+     * @return <code>false</code> if the name is already taken; otherwise,
+     * <code>true</code>, whether or not registration succeeded
+     */
+    private final static boolean register(final Object mbean,
+            final String name)
+    {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            final ObjectName objectName = new ObjectName(name);
+            synchronized(registered)
+            {
+                server.registerMBean(mbean, objectName);
+                registered.add(objectName);
+            }
+        }
+        catch (InstanceAlreadyExistsException e)
+        {
+            return false;
+        }
+        catch (JMException e)
+        {
+            e.printStackTrace();
+        }
+        return true;
+    }
+
+    /**
+     * Unregisters every MBean registered so far.
+     */
+    final static void unregisterAll()
+    {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        synchronized(registered)
+        {
+            for (ObjectName name : registered)
+            {
+                try
+                {
+                    server.unregisterMBean(name);
+                }
+                catch (JMException e)
+                {
+                    e.printStackTrace();
+                }
+            }
+            registered.clear();
+        }
+    }
+}
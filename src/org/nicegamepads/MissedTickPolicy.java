@@ -0,0 +1,26 @@
+package org.nicegamepads;
+
+/**
+ * What the deadline scheduler does when a poll starts so late that one or
+ * more later polls are already due.
+ *
+ * @author Andrew Hayden
+ * @see ControllerPoller#enableDeadlineScheduling(MissedTickPolicy, int, long, java.util.concurrent.TimeUnit)
+ */
+public enum MissedTickPolicy
+{
+    /**
+     * Polls that are already overdue are skipped and counted as missed;
+     * polling continues with the next deadline that is still in the future.
+     * This keeps the polls evenly spaced at the cost of gaps.
+     */
+    SKIP,
+
+    /**
+     * Overdue polls are run back to back, up to a cap, to make up the
+     * number of polls; any further overdue polls are skipped and counted
+     * as missed.  This keeps the number of polls up at the cost of
+     * bunching them together.
+     */
+    CATCH_UP;
+}
@@ -0,0 +1,53 @@
+package org.nicegamepads;
+
+/**
+ * What to do with a new event when a bounded queue of events is full.
+ * <p>
+ * The same policies apply to the event dispatcher (see
+ * {@link ControllerManager#initialize(int, OverflowPolicy)}), where
+ * "events" are the tasks submitted to it, and to
+ * {@link ControlEventQueue}s.
+ *
+ * @author Andrew Hayden
+ */
+public enum OverflowPolicy
+{
+    /**
+     * The polling thread waits until there is room for the event.  Polling
+     * stalls for as long as the consumer does, so this should only be used
+     * when every event must be seen and the consumer is known to keep up.
+     * A task that the event dispatcher's own thread submits to its full
+     * queue, as a listener might, cannot wait for room; it is dropped and
+     * counted instead, and cancelled if it is a
+     * {@link java.util.concurrent.Future}.
+     */
+    BLOCK,
+
+    /**
+     * The new event is discarded and counted as dropped.  Polling never
+     * waits for the consumer.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest event still in the queue is discarded to make room for the
+     * new one, and counted as dropped.  The consumer always sees the most
+     * recent events.  Tasks submitted to the event dispatcher by anything
+     * other than a poller are never evicted; if nothing else can be
+     * evicted, the new task is dropped instead, and cancelled if it is a
+     * {@link java.util.concurrent.Future}.
+     */
+    DROP_OLDEST,
+
+    /**
+     * A new value-change event replaces the value-change event for the same
+     * control that is still waiting to be delivered, if there is one,
+     * keeping that event's previous value and taking the new current value;
+     * the replaced event is counted as coalesced.  All other events
+     * (including batches of events) are handled as with {@link #BLOCK}, so
+     * activations and deactivations are never lost, but polling stalls
+     * whenever the consumer does.  This is the default for the event
+     * dispatcher.  It is not supported by {@link ControlEventQueue}s.
+     */
+    COALESCE;
+}
@@ -0,0 +1,40 @@
+package org.nicegamepads;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one polling cycle of a {@link ControllerPoller},
+ * from reading the controller to handing off the last event.
+ *
+ * @author Andrew Hayden
+ * @see FlightRecording
+ */
+@Name("org.nicegamepads.PollCycle")
+@Label("Poll Cycle")
+@Description("One polling cycle of a controller")
+@Category("NiceGamepads")
+@StackTrace(false)
+final class PollCycleEvent extends jdk.jfr.Event
+{
+    /**
+     * The declared name of the controller.
+     */
+    @Label("Controller")
+    String controller;
+
+    /**
+     * Number of controls whose values changed.
+     */
+    @Label("Controls Changed")
+    int controlsChanged;
+
+    /**
+     * Number of events produced.
+     */
+    @Label("Events Emitted")
+    int eventsEmitted;
+}
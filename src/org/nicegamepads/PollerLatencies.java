@@ -0,0 +1,248 @@
+package org.nicegamepads;
+
+/**
+ * Histograms of where the time goes between a {@link ControllerPoller}
+ * reading its controller and its listeners receiving the results.
+ * <p>
+ * Each stage of the path has a {@link LatencyHistogram} of its own:
+ * <ul>
+ * <li>the hardware poll, in which the controller reads all of its
+ * controls;</li>
+ * <li>processing, which is transforming the polled values and building and
+ * handing off the events, excluding any time spent in listeners;</li>
+ * <li>how long each task waited in a dispatcher's queue or on a dispatch
+ * lane before it started to run;</li>
+ * <li>the end-to-end input latency, from the poll that produced an event to
+ * the start of its delivery to listeners; and</li>
+ * <li>for each type of listener, how long the listeners of that type took
+ * to handle one event.</li>
+ * </ul>
+ * Recording allocates nothing and takes no locks.  Every histogram can be
+ * read at any time, and {@link #reset()} starts a new interval for all of
+ * them at once.
+ * <p>
+ * This class is threadsafe.
+ *
+ * @author Andrew Hayden
+ * @see ControllerPoller#getLatencies()
+ */
+public final class PollerLatencies
+{
+    /**
+     * Time taken by the hardware poll.
+     */
+    private final LatencyHistogram pollDuration = new LatencyHistogram();
+
+    /**
+     * Time taken to process the polled values into events.
+     */
+    private final LatencyHistogram processing = new LatencyHistogram();
+
+    /**
+     * Time tasks waited before they started to run.
+     */
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    /**
+     * Time from the poll to the start of delivery.
+     */
+    private final LatencyHistogram inputLatency = new LatencyHistogram();
+
+    /**
+     * Time taken by activation listeners.
+     */
+    private final LatencyHistogram activationListeners = new LatencyHistogram();
+
+    /**
+     * Time taken by change listeners.
+     */
+    private final LatencyHistogram changeListeners = new LatencyHistogram();
+
+    /**
+     * Time taken by control polling listeners.
+     */
+    private final LatencyHistogram controlPollingListeners =
+        new LatencyHistogram();
+
+    /**
+     * Time taken by controller polling listeners.
+     */
+    private final LatencyHistogram controllerPollingListeners =
+        new LatencyHistogram();
+
+    /**
+     * Constructs a new, empty set of histograms.
+     */
+    PollerLatencies()
+    {
+        // Nothing to do.
+    }
+
+    /**
+     * Returns the histogram of how long each hardware poll took.
+     *
+     * @return the live histogram
+     */
+    public final LatencyHistogram getPollDuration()
+    {
+        return pollDuration;
+    }
+
+    /**
+     * Returns the histogram of how long each polling cycle spent
+     * transforming values and building and handing off events, not
+     * counting time spent in listeners called directly.
+     *
+     * @return the live histogram
+     */
+    public final LatencyHistogram getProcessing()
+    {
+        return processing;
+    }
+
+    /**
+     * Returns the histogram of how long each dispatch task waited in
+     * a dispatcher's queue or on a dispatch lane before it started to run.
+     * Events delivered directly on the polling thread do not wait and are
+     * not included.
+     *
+     * @return the live histogram
+     */
+    public final LatencyHistogram getQueueWait()
+    {
+        return queueWait;
+    }
+
+    /**
+     * Returns the histogram of the time from the poll that produced each
+     * event or controller state to the start of its delivery to listeners.
+     *
+     * @return the live histogram
+     */
+    public final LatencyHistogram getInputLatency()
+    {
+        return inputLatency;
+    }
+
+    /**
+     * Returns the histogram of how long the {@link ControlActivationListener}s
+     * took to handle each event.
+     *
+     * @return the live histogram
+     */
+    public final LatencyHistogram getActivationListenerTime()
+    {
+        return activationListeners;
+    }
+
+    /**
+     * Returns the histogram of how long the {@link ControlChangeListener}s
+     * took to handle each event.
+     *
+     * @return the live histogram
+     */
+    public final LatencyHistogram getChangeListenerTime()
+    {
+        return changeListeners;
+    }
+
+    /**
+     * Returns the histogram of how long the {@link ControlPollingListener}s
+     * took to handle each event.
+     *
+     * @return the live histogram
+     */
+    public final LatencyHistogram getControlPollingListenerTime()
+    {
+        return controlPollingListeners;
+    }
+
+    /**
+     * Returns the histogram of how long the
+     * {@link ControllerPollingListener}s took to handle each controller
+     * state.
+     *
+     * @return the live histogram
+     */
+    public final LatencyHistogram getControllerPollingListenerTime()
+    {
+        return controllerPollingListeners;
+    }
+
+    /**
+     * Returns the histogram for the listeners of the specified type of
+     * event.
+     *
+     * @param type the type of event
+     * @return the live histogram
+     */
+    final LatencyHistogram listenerTime(final ControlEventType type)
+    {
+        switch (type)
+        {
+            case CONTROL_ACTIVATED:
+            case CONTROL_DEACTIVATED:
+                return activationListeners;
+            case VALUE_CHANGED:
+                return changeListeners;
+            default:
+                return controlPollingListeners;
+        }
+    }
+
+    /**
+     * Records the input latency of a delivery starting now.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @param polledNanos the {@link System#nanoTime()} of the poll, or
+     * {@link ControllerState#NO_TIMESTAMP} if unknown
+     */
+    final void recordInputLatency(final long now, final long polledNanos)
+    {
+        if (polledNanos != ControllerState.NO_TIMESTAMP)
+        {
+            inputLatency.record(now - polledNanos);
+        }
+    }
+
+    /**
+     * Discards everything recorded so far in all of the histograms.
+     */
+    public final void reset()
+    {
+        pollDuration.reset();
+        processing.reset();
+        queueWait.reset();
+        inputLatency.reset();
+        activationListeners.reset();
+        changeListeners.reset();
+        controlPollingListeners.reset();
+        controllerPollingListeners.reset();
+    }
+
+    @Override
+    public final String toString()
+    {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(PollerLatencies.class.getName());
+        buffer.append(": [");
+        buffer.append("pollDuration=");
+        buffer.append(pollDuration);
+        buffer.append(", processing=");
+        buffer.append(processing);
+        buffer.append(", queueWait=");
+        buffer.append(queueWait);
+        buffer.append(", inputLatency=");
+        buffer.append(inputLatency);
+        buffer.append(", activationListeners=");
+        buffer.append(activationListeners);
+        buffer.append(", changeListeners=");
+        buffer.append(changeListeners);
+        buffer.append(", controlPollingListeners=");
+        buffer.append(controlPollingListeners);
+        buffer.append(", controllerPollingListeners=");
+        buffer.append(controllerPollingListeners);
+        buffer.append("]");
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,231 @@
+package org.nicegamepads;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A {@link ControlEvent} whose values the framework can overwrite, used
+ * only where reuse has been opted into: by pollers in allocation-free mode
+ * and by {@link ControlEventQueue}s.
+ * <p>
+ * The values live in private storage behind the getters; the public fields
+ * inherited from {@link ControlEvent} hold no values.  Only the framework
+ * can change the values, so a listener cannot change an event that other
+ * listeners see.
+ *
+ * @author Andrew Hayden
+ */
+final class ReusableControlEvent extends ControlEvent
+{
+    /**
+     * Updater for the reference count of pooled events.
+     */
+    private final static AtomicIntegerFieldUpdater<ReusableControlEvent> refCountUpdater =
+        AtomicIntegerFieldUpdater.newUpdater(ReusableControlEvent.class, "refCount");
+
+    /**
+     * The pool this event returns to when released, or <code>null</code> if
+     * this event is not pooled.
+     */
+    private final ControlEventPool pool;
+
+    /**
+     * Number of outstanding references to a pooled event.
+     */
+    private volatile int refCount = 0;
+
+    /**
+     * Next free event in the owning pool, if any.
+     */
+    ReusableControlEvent nextFree = null;
+
+    /**
+     * The parent controller.
+     */
+    private NiceController controller = null;
+
+    /**
+     * The control that generated the event.
+     */
+    private NiceControl control = null;
+
+    /**
+     * The user-defined ID of the control.
+     */
+    private int controlId = Integer.MIN_VALUE;
+
+    /**
+     * The current value.
+     */
+    private float current = Float.NaN;
+
+    /**
+     * The ID bound to the current value.
+     */
+    private int currentId = Integer.MIN_VALUE;
+
+    /**
+     * The previous value.
+     */
+    private float previous = Float.NaN;
+
+    /**
+     * The ID bound to the previous value.
+     */
+    private int previousId = Integer.MIN_VALUE;
+
+    /**
+     * The time of the poll, in milliseconds since the epoch.
+     */
+    private long millis = -1L;
+
+    /**
+     * The time of the poll, as a {@link System#nanoTime()} value.
+     */
+    private long nanos = ControllerState.NO_TIMESTAMP;
+
+    /**
+     * Constructs a new, empty event that belongs to the specified pool.
+     *
+     * @param pool the pool that owns the event, or <code>null</code> if the
+     * event is not pooled
+     */
+    ReusableControlEvent(final ControlEventPool pool)
+    {
+        super();
+        this.pool = pool;
+    }
+
+    /**
+     * Overwrites all of the values of this event.
+     *
+     * @param topLevelSourceController the parent controller
+     * @param sourceControl the control that generated the event
+     * @param userDefinedNiceControlId the user-defined ID of the control
+     * @param currentValue the current value
+     * @param currentValueId the ID bound to the current value
+     * @param previousValue the previous value
+     * @param previousValueId the ID bound to the previous value
+     * @param timestamp the time of the poll, in milliseconds since the epoch
+     * @param timestampNanos the time of the poll, as a
+     * {@link System#nanoTime()} value
+     */
+    final void set(NiceController topLevelSourceController,
+            NiceControl sourceControl, int userDefinedNiceControlId,
+            float currentValue, int currentValueId, float previousValue,
+            int previousValueId, long timestamp, long timestampNanos)
+    {
+        this.controller = topLevelSourceController;
+        this.control = sourceControl;
+        this.controlId = userDefinedNiceControlId;
+        this.current = currentValue;
+        this.currentId = currentValueId;
+        this.previous = previousValue;
+        this.previousId = previousValueId;
+        this.millis = timestamp;
+        this.nanos = timestampNanos;
+    }
+
+    /**
+     * Overwrites all of the values of this event with those of another.
+     *
+     * @param source the event to copy
+     */
+    final void copyFrom(final ControlEvent source)
+    {
+        set(source.getSourceController(), source.getSourceControl(),
+                source.getUserDefinedControlId(),
+                source.getCurrentValue(), source.getCurrentValueId(),
+                source.getPreviousValue(), source.getPreviousValueId(),
+                source.getTimestamp(), source.getTimestampNanos());
+    }
+
+    @Override
+    public final NiceController getSourceController()
+    {
+        return controller;
+    }
+
+    @Override
+    public final NiceControl getSourceControl()
+    {
+        return control;
+    }
+
+    @Override
+    public final int getUserDefinedControlId()
+    {
+        return controlId;
+    }
+
+    @Override
+    public final float getCurrentValue()
+    {
+        return current;
+    }
+
+    @Override
+    public final int getCurrentValueId()
+    {
+        return currentId;
+    }
+
+    @Override
+    public final float getPreviousValue()
+    {
+        return previous;
+    }
+
+    @Override
+    public final int getPreviousValueId()
+    {
+        return previousId;
+    }
+
+    @Override
+    public final long getTimestamp()
+    {
+        return millis;
+    }
+
+    @Override
+    public final long getTimestampNanos()
+    {
+        return nanos;
+    }
+
+    @Override
+    public final void retain()
+    {
+        if (pool != null)
+        {
+            refCountUpdater.incrementAndGet(this);
+        }
+    }
+
+    @Override
+    public final void release()
+    {
+        if (pool != null)
+        {
+            final int remaining = refCountUpdater.decrementAndGet(this);
+            if (remaining == 0)
+            {
+                pool.release(this);
+            }
+            else if (remaining < 0)
+            {
+                throw new IllegalStateException(
+                        "Event released more times than retained.");
+            }
+        }
+    }
+
+    /**
+     * Resets the reference count of a pooled event as it is taken from
+     * the pool, giving the caller the one and only reference.
+     */
+    final void claim()
+    {
+        refCount = 1;
+    }
+}
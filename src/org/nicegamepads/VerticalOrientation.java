@@ -1,17 +1,17 @@
-package org.nicegamepads;
-
-/**
- * Possible vertical orientations.
- */
-public enum VerticalOrientation
-{
-    /**
-     * Indicates that increasing values are farther to the north. 
-     */
-    NORTH_POSITIVE,
-
-    /**
-     * Indicates that increasing values are farther to the south. 
-     */
-    SOUTH_POSITIVE;
+package org.nicegamepads;
+
+/**
+ * Possible vertical orientations.
+ */
+public enum VerticalOrientation
+{
+    /**
+     * Indicates that increasing values are farther to the north. 
+     */
+    NORTH_POSITIVE,
+
+    /**
+     * Indicates that increasing values are farther to the south. 
+     */
+    SOUTH_POSITIVE;
 }
\ No newline at end of file
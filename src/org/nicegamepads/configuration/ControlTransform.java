@@ -0,0 +1,255 @@
+package org.nicegamepads.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nicegamepads.NiceControlType;
+
+/**
+ * The transform described by a {@link ControlConfiguration}, compiled
+ * into a form that is cheap to apply on every poll.
+ * <p>
+ * All of the configuration properties are read exactly once, when the
+ * transform is compiled.  Stages that the configuration does not call for
+ * are disabled by a final flag and skipped outright, the granularity bins
+ * are computed up front and located arithmetically instead of being
+ * searched for, and the recentering factors are precomputed.  The result
+ * is bit-for-bit identical to applying the steps described in the
+ * documentation of {@link ControlConfiguration} one at a time.
+ * <p>
+ * This class is threadsafe and immutable.
+ *
+ * @author Andrew Hayden
+ */
+public final class ControlTransform
+{
+    /**
+     * Inversion is disabled.
+     */
+    private final static int INVERSION_NONE = 0;
+
+    /**
+     * Inversion reflects around 0.5 (discrete controls).
+     */
+    private final static int INVERSION_REFLECT_HALF = 1;
+
+    /**
+     * Inversion reflects around 0 (all other controls).
+     */
+    private final static int INVERSION_NEGATE = 2;
+
+    /**
+     * Granularity bins, sorted from least to greatest, or <code>null</code>
+     * if granularity is not enabled.
+     */
+    private final float[] bins;
+
+    /**
+     * Index of the zero bin within {@link #bins}.
+     */
+    private final int zeroBinIndex;
+
+    /**
+     * Reciprocal of the granularity, used to estimate the bin of a value.
+     */
+    private final float inverseGranularity;
+
+    /**
+     * Whether or not the dead zone stage is enabled.
+     */
+    private final boolean hasDeadZone;
+
+    /**
+     * Lower bound of the dead zone.
+     */
+    private final float deadZoneLowerBound;
+
+    /**
+     * Upper bound of the dead zone.
+     */
+    private final float deadZoneUpperBound;
+
+    /**
+     * Which kind of inversion to perform, if any.
+     */
+    private final int inversion;
+
+    /**
+     * Whether or not the recentering stage is enabled.
+     */
+    private final boolean hasRecentering;
+
+    /**
+     * The center value override.
+     */
+    private final float centerValue;
+
+    /**
+     * Factor applied to positive values when recentering.
+     */
+    private final float positiveExpansion;
+
+    /**
+     * Factor applied to negative values when recentering.
+     */
+    private final float negativeExpansion;
+
+    /**
+     * Compiles the transform for the specified configuration.
+     *
+     * @param config the configuration to compile
+     * @param controlType the type of the control being configured
+     */
+    ControlTransform(final ControlConfiguration config, final NiceControlType controlType) {
+        // A granularity of zero would mean infinitely many bins; treat it
+        // as no binning at all.
+        final float granularity = config.getGranularity();
+        if (!Float.isNaN(granularity) && granularity > 0f) {
+            final List<Float> negatives = new ArrayList<Float>();
+            int counter = 1;
+            float currentValue = 0f;
+            while (currentValue > -1.0f) {
+                currentValue = 0f - (((float) counter) * granularity);
+                negatives.add(currentValue);
+                counter++;
+            }
+            final List<Float> positives = new ArrayList<Float>();
+            counter = 1;
+            currentValue = 0f;
+            while (currentValue < 1.0f) {
+                currentValue = ((float) counter) * granularity;
+                positives.add(currentValue);
+                counter++;
+            }
+
+            bins = new float[negatives.size() + 1 + positives.size()];
+            zeroBinIndex = negatives.size();
+            for (int index = 0; index < negatives.size(); index++) {
+                bins[zeroBinIndex - 1 - index] = negatives.get(index);
+            }
+            bins[zeroBinIndex] = 0f;
+            for (int index = 0; index < positives.size(); index++) {
+                bins[zeroBinIndex + 1 + index] = positives.get(index);
+            }
+            inverseGranularity = 1f / granularity;
+        } else {
+            bins = null;
+            zeroBinIndex = 0;
+            inverseGranularity = 0f;
+        }
+
+        deadZoneLowerBound = config.getDeadZoneLowerBound();
+        deadZoneUpperBound = config.getDeadZoneUpperBound();
+        hasDeadZone = !Float.isNaN(deadZoneLowerBound);
+
+        if (!config.isInverted()) {
+            inversion = INVERSION_NONE;
+        } else if (controlType == NiceControlType.DISCRETE_INPUT) {
+            // FIXME: need to correct this behavior.
+            // Buttons should be treated specially... this was originally
+            // for buttons when buttons existed as a type
+            inversion = INVERSION_REFLECT_HALF;
+        } else {
+            inversion = INVERSION_NEGATE;
+        }
+
+        centerValue = config.getCenterValueOverride();
+        hasRecentering = !Float.isNaN(centerValue) && centerValue != 0f;
+        if (centerValue > 0f) {
+            positiveExpansion = 1f - centerValue;
+            negativeExpansion = 1f + centerValue;
+        } else {
+            negativeExpansion = 1f - Math.abs(centerValue);
+            positiveExpansion = 1f - centerValue;
+        }
+    }
+
+    /**
+     * Applies this transform to a raw polled value.
+     *
+     * @param value the raw value, in the range [-1, 1]
+     * @return the transformed value
+     */
+    public final float apply(float value) {
+        // STEP 1: Granularity
+        if (bins != null) {
+            value = bin(value);
+        }
+
+        // STEP 2: Dead zone
+        if (hasDeadZone) {
+            if (deadZoneLowerBound <= value && value <= deadZoneUpperBound) {
+                value = 0f;
+            }
+        }
+
+        // STEP 3: Inversion
+        if (inversion == INVERSION_REFLECT_HALF) {
+            value = 1f - value;
+        } else if (inversion == INVERSION_NEGATE) {
+            value *= -1f;
+        }
+
+        // STEP 4: Recentering
+        if (hasRecentering) {
+            if (value > 0) {
+                value *= positiveExpansion;
+            } else if (value < 0) {
+                value *= negativeExpansion;
+            } else {
+                value = centerValue;
+            }
+        }
+
+        // STEP 5: Clamp to sane range, in case of floating point precision
+        // loss.
+        if (value < -1.0f) {
+            value = -1.0f;
+        } else if (value > 1.0f) {
+            value = 1.0f;
+        }
+        return value;
+    }
+
+    /**
+     * Collapses a value into its granularity bin.
+     * <p>
+     * This reproduces exactly what a binary search of the bins would
+     * produce: a value that is exactly a bin boundary is left alone;
+     * otherwise, the insertion point of the value (in the total order of
+     * {@link Float#compare(float, float)}) selects the bin, moved up by one
+     * for negative values.  Since the bins are evenly spaced, the insertion
+     * point is first estimated from the granularity and then corrected by
+     * at most a step or two.
+     *
+     * @param value the value to collapse
+     * @return the bin for the value
+     */
+    private final float bin(final float value) {
+        final int length = bins.length;
+        int index = zeroBinIndex + (int) (value * inverseGranularity);
+        if (index < 0) {
+            index = 0;
+        } else if (index > length) {
+            index = length;
+        }
+
+        // Find the first bin that is not less than the value.
+        while (index > 0 && Float.compare(bins[index - 1], value) >= 0) {
+            index--;
+        }
+        while (index < length && Float.compare(bins[index], value) < 0) {
+            index++;
+        }
+
+        if (index < length && Float.compare(bins[index], value) == 0) {
+            // Exact match.
+            return bins[index];
+        }
+
+        if (value < 0) {
+            index++;
+        }
+        return bins[index];
+    }
+}
@@ -0,0 +1,194 @@
+package org.nicegamepads.configuration;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable mapping of primitive <code>float</code> keys to primitive
+ * <code>int</code> values, used to look up value IDs without boxing.
+ * <p>
+ * Keys are compared exactly as {@link Float#equals(Object)} compares them
+ * (that is, by {@link Float#floatToIntBits(float)}), so this map gives the
+ * same answers as the <code>Map&lt;Float, Integer&gt;</code> it is built
+ * from.
+ * <p>
+ * Small maps are stored as a pair of parallel arrays sorted by key bits and
+ * searched with a binary search; larger maps use open addressing with
+ * linear probing.  In both cases a lookup touches nothing but primitive
+ * arrays.
+ * <p>
+ * This class is threadsafe and immutable.
+ *
+ * @author Andrew Hayden
+ */
+final class FloatIntMap
+{
+    /**
+     * Maps with at most this many entries are stored as sorted arrays.
+     */
+    final static int MAX_SORTED_SIZE = 8;
+
+    /**
+     * Value returned for keys that are not present.
+     */
+    final static int NO_VALUE = Integer.MIN_VALUE;
+
+    /**
+     * Shared empty map.
+     */
+    final static FloatIntMap EMPTY = new FloatIntMap(new int[0], new int[0], false, 0);
+
+    /**
+     * Key bits; sorted, or laid out as a hash table.
+     */
+    private final int[] keyBits;
+
+    /**
+     * Values, parallel to {@link #keyBits}.
+     */
+    private final int[] values;
+
+    /**
+     * Whether or not {@link #keyBits} is a hash table.
+     */
+    private final boolean hashed;
+
+    /**
+     * Number of entries in the map.
+     */
+    private final int size;
+
+    /**
+     * Constructs a new map from prepared arrays.
+     *
+     * @param keyBits the key bits
+     * @param values the values
+     * @param hashed whether the arrays are laid out as a hash table
+     * @param size the number of entries
+     */
+    private FloatIntMap(final int[] keyBits, final int[] values, final boolean hashed, final int size) {
+        this.keyBits = keyBits;
+        this.values = values;
+        this.hashed = hashed;
+        this.size = size;
+    }
+
+    /**
+     * Builds a primitive map containing the same entries as the
+     * specified map.
+     *
+     * @param source the map to copy
+     * @return the primitive equivalent of the map
+     */
+    static FloatIntMap copyOf(final Map<Float, Integer> source) {
+        final int size = source.size();
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        if (size <= MAX_SORTED_SIZE) {
+            // Sort by raw bits: any total order will do for a binary search.
+            final long[] packed = new long[size];
+            int counter = 0;
+            for (final Map.Entry<Float, Integer> entry : source.entrySet()) {
+                packed[counter++] = (((long) Float.floatToIntBits(entry.getKey())) << 32)
+                    | (entry.getValue().intValue() & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed);
+            final int[] keyBits = new int[size];
+            final int[] values = new int[size];
+            for (int index = 0; index < size; index++) {
+                keyBits[index] = (int) (packed[index] >> 32);
+                values[index] = (int) packed[index];
+            }
+            return new FloatIntMap(keyBits, values, false, size);
+        }
+
+        // Keep the load factor at or below one half.
+        int capacity = Integer.highestOneBit(size) << 2;
+        final int[] keyBits = new int[capacity];
+        final int[] values = new int[capacity];
+        // NO_VALUE can never be bound, so it marks empty slots.
+        Arrays.fill(values, NO_VALUE);
+        final int mask = capacity - 1;
+        for (final Map.Entry<Float, Integer> entry : source.entrySet()) {
+            if (entry.getValue().intValue() == NO_VALUE) {
+                // Equivalent to not being bound at all.
+                continue;
+            }
+            final int bits = Float.floatToIntBits(entry.getKey());
+            int slot = mix(bits) & mask;
+            while (values[slot] != NO_VALUE) {
+                slot = (slot + 1) & mask;
+            }
+            keyBits[slot] = bits;
+            values[slot] = entry.getValue();
+        }
+        return new FloatIntMap(keyBits, values, true, size);
+    }
+
+    /**
+     * Spreads the bits of a float so that nearby values land in different
+     * slots of the hash table.
+     *
+     * @param bits the raw key bits
+     * @return the mixed hash
+     */
+    private static int mix(int bits) {
+        bits ^= bits >>> 16;
+        bits *= 0x85EBCA6B;
+        bits ^= bits >>> 13;
+        bits *= 0xC2B2AE35;
+        bits ^= bits >>> 16;
+        return bits;
+    }
+
+    /**
+     * Returns the value bound to the specified key.
+     *
+     * @param key the key to look up
+     * @return the bound value, or {@link #NO_VALUE} if there is none
+     */
+    final int get(final float key) {
+        if (size == 0) {
+            return NO_VALUE;
+        }
+
+        final int bits = Float.floatToIntBits(key);
+        if (!hashed) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int middleBits = keyBits[middle];
+                if (middleBits < bits) {
+                    low = middle + 1;
+                } else if (middleBits > bits) {
+                    high = middle - 1;
+                } else {
+                    return values[middle];
+                }
+            }
+            return NO_VALUE;
+        }
+
+        final int mask = keyBits.length - 1;
+        int slot = mix(bits) & mask;
+        while (true) {
+            final int value = values[slot];
+            if (value == NO_VALUE || keyBits[slot] == bits) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of entries in this map.
+     *
+     * @return the number of entries
+     */
+    final int size() {
+        return size;
+    }
+}
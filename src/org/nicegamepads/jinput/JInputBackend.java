@@ -0,0 +1,45 @@
+package org.nicegamepads.jinput;
+
+import net.java.games.input.Component;
+import net.java.games.input.Controller;
+import net.java.games.input.ControllerEnvironment;
+import net.java.games.input.Event;
+
+import org.nicegamepads.InputBackend;
+
+/**
+ * The default {@link InputBackend}, which reads real hardware through
+ * jinput's default {@link ControllerEnvironment}.
+ * <p>
+ * This class is threadsafe.
+ */
+public final class JInputBackend implements InputBackend {
+    @Override
+    public final Controller[] getControllers() {
+        return ControllerEnvironment.getDefaultEnvironment().getControllers();
+    }
+
+    @Override
+    public final boolean poll(final Controller controller) {
+        return controller.poll();
+    }
+
+    @Override
+    public final void read(final Controller controller,
+            final Component[] components, final float[] values) {
+        for (int index = 0; index < components.length; index++) {
+            values[index] = components[index].getPollData();
+        }
+    }
+
+    @Override
+    public final boolean nextEvent(final Controller controller,
+            final Event event) {
+        return controller.getEventQueue().getNextEvent(event);
+    }
+
+    @Override
+    public final String toString() {
+        return JInputBackend.class.getName();
+    }
+}
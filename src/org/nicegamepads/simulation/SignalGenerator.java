@@ -0,0 +1,26 @@
+package org.nicegamepads.simulation;
+
+/**
+ * Produces the values of the components of simulated controllers.
+ * <p>
+ * A generator is asked for the value of each component on every poll of
+ * a {@link SimulatedController}.  Since one generator is typically shared
+ * by thousands of components on many polling threads, implementations
+ * should keep no state of their own and must not allocate; everything
+ * they need is passed in.  {@link SignalGenerators} has ready-made
+ * implementations.
+ */
+public interface SignalGenerator {
+    /**
+     * Returns the value of a component for a poll.
+     * 
+     * @param controllerId the ID of the simulated controller
+     * @param component the index of the component within its controller
+     * @param tick the number of the poll, starting from 1
+     * @param previous the value of the component after the previous poll,
+     * or 0 before the first poll
+     * @return the value of the component, in the range [-1, 1]
+     */
+    public abstract float next(int controllerId, int component, long tick,
+            float previous);
+}
@@ -0,0 +1,129 @@
+package org.nicegamepads.simulation;
+
+/**
+ * Factory methods for common {@link SignalGenerator}s.
+ * <p>
+ * All of the generators returned are threadsafe and allocation-free.
+ */
+public final class SignalGenerators {
+    /**
+     * Private constructor discourages unwanted instantiation.
+     */
+    private SignalGenerators() {
+        // Private constructor discourages unwanted instantiation.
+    }
+
+    /**
+     * Returns a generator under which every component always has the same
+     * value.
+     * 
+     * @param value the value, in the range [-1, 1]
+     * @return the generator
+     */
+    public final static SignalGenerator constant(final float value) {
+        checkValue(value);
+        return new SignalGenerator() {
+            @Override
+            public float next(final int controllerId, final int component,
+                    final long tick, final float previous) {
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Returns a generator under which every component cycles through a
+     * fixed script of values, advancing by one step on every poll.
+     * <p>
+     * Component <em>c</em> of controller <em>d</em> starts <em>c + d</em>
+     * steps into the script, so that neighbouring components don't all
+     * report the same value at once: on poll <em>t</em> its value is
+     * <code>script[(t + c + d) % script.length]</code>.
+     * 
+     * @param script the values to cycle through, each in the range [-1, 1]
+     * @return the generator
+     */
+    public final static SignalGenerator scripted(final float... script) {
+        if (script == null || script.length == 0) {
+            throw new IllegalArgumentException("Script cannot be empty.");
+        }
+        final float[] values = script.clone();
+        for (final float value : values) {
+            checkValue(value);
+        }
+        return new SignalGenerator() {
+            @Override
+            public float next(final int controllerId, final int component,
+                    final long tick, final float previous) {
+                return values[(int) ((tick + component + controllerId)
+                        % values.length)];
+            }
+        };
+    }
+
+    /**
+     * Returns a generator under which each component keeps its value from
+     * one poll to the next, except that with the specified probability it
+     * jumps to a new value chosen uniformly at random from [-1, 1).
+     * <p>
+     * The values are pseudorandom: the same seed always produces the same
+     * values for the same component on the same poll, so runs can be
+     * repeated exactly.  The probability of change sets how busy the
+     * simulated controllers are; real gamepads are idle most of the time.
+     * 
+     * @param seed the seed
+     * @param changeProbability the probability, in the range [0, 1], that
+     * a component changes its value on any one poll
+     * @return the generator
+     */
+    public final static SignalGenerator random(final long seed,
+            final float changeProbability) {
+        if (!(changeProbability >= 0f && changeProbability <= 1f)) {
+            throw new IllegalArgumentException(
+                    "Probability must be in the range [0, 1]: "
+                    + changeProbability);
+        }
+        return new SignalGenerator() {
+            @Override
+            public float next(final int controllerId, final int component,
+                    final long tick, final float previous) {
+                final long bits = mix(seed
+                        + controllerId * 0x9E3779B97F4A7C15L
+                        + component * 0xC2B2AE3D27D4EB4FL
+                        + tick * 0x165667B19E3779F9L);
+                // The top 24 bits decide whether to change, the bottom 24
+                // bits what to change to.
+                if ((bits >>> 40) * 0x1.0p-24f >= changeProbability) {
+                    return previous;
+                }
+                return (bits & 0xFFFFFFL) * 0x1.0p-23f - 1f;
+            }
+        };
+    }
+
+    /**
+     * Scrambles the bits of a value (the finalizer of the SplitMix64
+     * generator), so that similar inputs give unrelated outputs.
+     * 
+     * @param value the value to scramble
+     * @return the scrambled value
+     */
+    private final static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Checks that a value is in the range [-1, 1].
+     * 
+     * @param value the value to check
+     * @throws IllegalArgumentException if the value is out of range
+     */
+    private final static void checkValue(final float value) {
+        if (!(value >= -1f && value <= 1f)) {
+            throw new IllegalArgumentException(
+                    "Value must be in the range [-1, 1]: " + value);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.nicegamepads.simulation;
+
+import java.util.Arrays;
+
+import net.java.games.input.Component;
+import net.java.games.input.Controller;
+import net.java.games.input.Event;
+
+import org.nicegamepads.InputBackend;
+
+/**
+ * An {@link InputBackend} whose controllers exist only in software, for
+ * testing and load testing without any hardware attached.
+ * <p>
+ * The backend has a fixed set of {@link SimulatedController}s, created up
+ * front, whose components take their values from a
+ * {@link SignalGenerator}.  Thousands of controllers with any number of
+ * components can be created, and polling them allocates nothing.  To use
+ * the backend, pass it to
+ * {@link org.nicegamepads.NiceController#setInputBackend(InputBackend)}
+ * before enumerating controllers.
+ * <p>
+ * This class is threadsafe.
+ */
+public final class SimulatedBackend implements InputBackend {
+    /**
+     * The controllers of this backend.
+     */
+    private final SimulatedController[] controllers;
+
+    /**
+     * Constructs a new backend with the specified number of controllers,
+     * all with the same number of components.
+     * 
+     * @param numControllers the number of controllers to create
+     * @param numComponents the number of components each controller has
+     * @param generator the generator of the component values
+     */
+    public SimulatedBackend(final int numControllers, final int numComponents,
+            final SignalGenerator generator) {
+        this(repeat(numComponents, numControllers), generator);
+    }
+
+    /**
+     * Constructs a new backend with one controller for each of the
+     * specified component counts.
+     * 
+     * @param componentCounts the number of components each controller has
+     * @param generator the generator of the component values
+     */
+    public SimulatedBackend(final int[] componentCounts,
+            final SignalGenerator generator) {
+        controllers = new SimulatedController[componentCounts.length];
+        for (int index = 0; index < controllers.length; index++) {
+            controllers[index] = new SimulatedController(index,
+                    "Simulated Controller " + index,
+                    componentCounts[index], generator);
+        }
+    }
+
+    /**
+     * Returns an array of the specified length filled with the specified
+     * value.
+     * 
+     * @param value the value
+     * @param length the length
+     * @return the array
+     */
+    private final static int[] repeat(final int value, final int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException(
+                    "Number of controllers cannot be negative: " + length);
+        }
+        final int[] result = new int[length];
+        Arrays.fill(result, value);
+        return result;
+    }
+
+    /**
+     * Returns one of the controllers of this backend.
+     * 
+     * @param index the index of the controller, which is also its ID
+     * @return the controller
+     */
+    public final SimulatedController getController(final int index) {
+        return controllers[index];
+    }
+
+    /**
+     * Returns the number of controllers in this backend.
+     * 
+     * @return the number of controllers
+     */
+    public final int getControllerCount() {
+        return controllers.length;
+    }
+
+    @Override
+    public final Controller[] getControllers() {
+        final Controller[] result = new Controller[controllers.length];
+        System.arraycopy(controllers, 0, result, 0, controllers.length);
+        return result;
+    }
+
+    @Override
+    public final boolean poll(final Controller controller) {
+        return controller.poll();
+    }
+
+    @Override
+    public final void read(final Controller controller,
+            final Component[] components, final float[] values) {
+        for (int index = 0; index < components.length; index++) {
+            values[index] = components[index].getPollData();
+        }
+    }
+
+    @Override
+    public final boolean nextEvent(final Controller controller,
+            final Event event) {
+        if (controller instanceof SimulatedController) {
+            return ((SimulatedController) controller).nextEvent(event);
+        }
+        return controller.getEventQueue().getNextEvent(event);
+    }
+
+    @Override
+    public final String toString() {
+        return SimulatedBackend.class.getName() + ": [controllers="
+            + controllers.length + "]";
+    }
+}
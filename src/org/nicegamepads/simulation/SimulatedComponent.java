@@ -0,0 +1,78 @@
+package org.nicegamepads.simulation;
+
+import net.java.games.input.Component;
+
+/**
+ * A component of a {@link SimulatedController}, which reports whatever
+ * value the controller's {@link SignalGenerator} gave it on the most
+ * recent poll.
+ */
+final class SimulatedComponent implements Component {
+    /**
+     * The controller this component belongs to.
+     */
+    private final SimulatedController owner;
+
+    /**
+     * The index of this component within its controller.
+     */
+    private final int index;
+
+    /**
+     * The name of this component.
+     */
+    private final String name;
+
+    /**
+     * Constructs a new component.
+     * 
+     * @param owner the controller this component belongs to
+     * @param index the index of this component within its controller
+     */
+    SimulatedComponent(final SimulatedController owner, final int index) {
+        this.owner = owner;
+        this.index = index;
+        this.name = "Component " + index;
+    }
+
+    /**
+     * Returns <code>null</code>; simulated components do not correspond to
+     * any standard jinput component.
+     * 
+     * @return <code>null</code>
+     */
+    @Override
+    public final Identifier getIdentifier() {
+        return null;
+    }
+
+    @Override
+    public final boolean isRelative() {
+        return false;
+    }
+
+    @Override
+    public final boolean isAnalog() {
+        return true;
+    }
+
+    @Override
+    public final float getDeadZone() {
+        return 0f;
+    }
+
+    @Override
+    public final float getPollData() {
+        return owner.values[index];
+    }
+
+    @Override
+    public final String getName() {
+        return name;
+    }
+
+    @Override
+    public final String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,284 @@
+package org.nicegamepads.simulation;
+
+import net.java.games.input.Component;
+import net.java.games.input.Controller;
+import net.java.games.input.Event;
+import net.java.games.input.EventQueue;
+import net.java.games.input.Rumbler;
+
+/**
+ * A gamepad that exists only in software.
+ * <p>
+ * A simulated controller has a fixed number of analog components.  Every
+ * time it is polled it asks its {@link SignalGenerator} for the new value
+ * of each component, so polling costs little more than the generator
+ * does and allocates nothing.  It has no subcontrollers and no rumblers,
+ * and reports itself as a {@link Controller.Type#GAMEPAD gamepad}.
+ * <p>
+ * Each poll also queues an event for every component whose value changed,
+ * to be taken with {@link SimulatedBackend#nextEvent(Controller, Event)}.
+ * As with a real jinput controller, events that are not taken pile up
+ * from poll to poll until the queue is full, after which new events are
+ * lost.  The queue holds one event per component unless
+ * {@link #setEventQueueSize(int)} says otherwise.  The jinput
+ * {@link #getEventQueue() event queue} is always empty, since only jinput
+ * itself can add events to one.
+ * <p>
+ * This class is threadsafe.
+ */
+public final class SimulatedController implements Controller {
+    /**
+     * The ID passed to the generator.
+     */
+    private final int id;
+
+    /**
+     * The name of this controller.
+     */
+    private final String name;
+
+    /**
+     * The generator of the component values.
+     */
+    private final SignalGenerator generator;
+
+    /**
+     * The components of this controller.
+     */
+    private final Component[] components;
+
+    /**
+     * The value of each component after the most recent poll.
+     */
+    final float[] values;
+
+    /**
+     * The component index of each queued event, in a ring starting at
+     * {@link #nextChange}; guarded by this object.
+     */
+    private int[] changes;
+
+    /**
+     * The value of each queued event, indexed like {@link #changes};
+     * guarded by this object.
+     */
+    private float[] changeValues;
+
+    /**
+     * The {@link System#nanoTime()} of each queued event, indexed like
+     * {@link #changes}; guarded by this object.
+     */
+    private long[] changeNanos;
+
+    /**
+     * The number of queued events; guarded by this object.
+     */
+    private int changeCount = 0;
+
+    /**
+     * The index in {@link #changes} of the next event to take; guarded by
+     * this object.
+     */
+    private int nextChange = 0;
+
+    /**
+     * The number of polls so far; guarded by this object.
+     */
+    private long tick = 0L;
+
+    /**
+     * The jinput event queue, which always stays empty.
+     */
+    private final EventQueue eventQueue = new EventQueue(0);
+
+    /**
+     * Whether polls fail.
+     */
+    private volatile boolean failing = false;
+
+    /**
+     * Whether polls leave changes out of the events.
+     */
+    private volatile boolean droppingEvents = false;
+
+    /**
+     * Constructs a new simulated controller.
+     * 
+     * @param id the ID to pass to the generator, which can use it to tell
+     * controllers apart
+     * @param name the name to report
+     * @param numComponents the number of components to create
+     * @param generator the generator of the component values
+     */
+    public SimulatedController(final int id, final String name,
+            final int numComponents, final SignalGenerator generator) {
+        if (numComponents < 0) {
+            throw new IllegalArgumentException(
+                    "Number of components cannot be negative: " + numComponents);
+        }
+        if (generator == null) {
+            throw new IllegalArgumentException("Generator cannot be null.");
+        }
+        this.id = id;
+        this.name = name;
+        this.generator = generator;
+        this.values = new float[numComponents];
+        this.changes = new int[numComponents];
+        this.changeValues = new float[numComponents];
+        this.changeNanos = new long[numComponents];
+        this.components = new Component[numComponents];
+        for (int index = 0; index < numComponents; index++) {
+            components[index] = new SimulatedComponent(this, index);
+        }
+    }
+
+    /**
+     * Returns the ID passed to the generator.
+     * 
+     * @return the ID
+     */
+    public final int getId() {
+        return id;
+    }
+
+    /**
+     * Makes polls fail, as they do when a device is unplugged.  A failed
+     * poll leaves the component values unchanged.
+     * 
+     * @param failing whether polls should fail
+     */
+    public final void setFailing(final boolean failing) {
+        this.failing = failing;
+    }
+
+    /**
+     * Makes polls change the values of the components without queueing
+     * events for the changes, as happens when a real event queue
+     * overflows.
+     * 
+     * @param droppingEvents whether changes should go unreported
+     */
+    public final void setDroppingEvents(final boolean droppingEvents) {
+        this.droppingEvents = droppingEvents;
+    }
+
+    /**
+     * Returns the number of successful polls so far.
+     * 
+     * @return the number of polls
+     */
+    public final synchronized long getPollCount() {
+        return tick;
+    }
+
+    @Override
+    public final synchronized boolean poll() {
+        if (failing) {
+            return false;
+        }
+        tick++;
+        final long pollNanos = System.nanoTime();
+        final boolean queueing = !droppingEvents;
+        for (int index = 0; index < values.length; index++) {
+            final float value = generator.next(id, index, tick, values[index]);
+            if (value != values[index]) {
+                values[index] = value;
+                if (queueing && changeCount < changes.length) {
+                    final int slot = (nextChange + changeCount) % changes.length;
+                    changes[slot] = index;
+                    changeValues[slot] = value;
+                    changeNanos[slot] = pollNanos;
+                    changeCount++;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes the oldest queued change.
+     * 
+     * @param event the event to fill in
+     * @return <code>true</code> if there was a change left to take;
+     * otherwise, <code>false</code>
+     */
+    final synchronized boolean nextEvent(final Event event) {
+        if (changeCount == 0) {
+            return false;
+        }
+        event.set(components[changes[nextChange]], changeValues[nextChange],
+                changeNanos[nextChange]);
+        nextChange = (nextChange + 1) % changes.length;
+        changeCount--;
+        return true;
+    }
+
+    @Override
+    public final Component[] getComponents() {
+        return components.clone();
+    }
+
+    @Override
+    public final Component getComponent(final Component.Identifier id) {
+        return null;
+    }
+
+    @Override
+    public final Controller[] getControllers() {
+        return new Controller[0];
+    }
+
+    @Override
+    public final Type getType() {
+        return Type.GAMEPAD;
+    }
+
+    @Override
+    public final Rumbler[] getRumblers() {
+        return new Rumbler[0];
+    }
+
+    /**
+     * Sets the number of events that can be queued, discarding any events
+     * that are queued now.
+     * 
+     * @param size the number of events the queue can hold
+     */
+    @Override
+    public final synchronized void setEventQueueSize(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException(
+                    "Event queue size cannot be negative: " + size);
+        }
+        changes = new int[size];
+        changeValues = new float[size];
+        changeNanos = new long[size];
+        changeCount = 0;
+        nextChange = 0;
+    }
+
+    @Override
+    public final EventQueue getEventQueue() {
+        return eventQueue;
+    }
+
+    @Override
+    public final PortType getPortType() {
+        return PortType.UNKNOWN;
+    }
+
+    @Override
+    public final int getPortNumber() {
+        return id;
+    }
+
+    @Override
+    public final String getName() {
+        return name;
+    }
+
+    @Override
+    public final String toString() {
+        return name;
+    }
+}
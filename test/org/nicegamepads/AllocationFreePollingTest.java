@@ -0,0 +1,152 @@
+package org.nicegamepads;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.nicegamepads.configuration.ControllerConfigurationBuilder;
+
+/**
+ * Checks that polling in allocation-free mode produces no garbage on the
+ * polling thread once it has warmed up, including for a listener on a
+ * dispatch lane of its own.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status if the measured allocation rate is too high.
+ */
+public class AllocationFreePollingTest
+{
+    private final static int NUM_CONTROLS = 20;
+    private final static int WARMUP_POLLS = 20000;
+    private final static int MEASURED_POLLS = 20000;
+
+    /**
+     * The dispatcher's queue is a preallocated array, so nothing at all
+     * should be allocated.
+     */
+    private final static long MAX_BYTES_PER_POLL = 0L;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController controller = new SyntheticController(
+                "Synthetic", NUM_CONTROLS,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        // Bind the extremes so that value ID lookups and activation events
+        // are part of what is measured.
+        ControllerConfigurationBuilder configBuilder =
+            new ControllerConfigurationBuilder(controller);
+        for (NiceControl control : controller.getControls())
+        {
+            configBuilder.getConfigurationBuilder(control).setValueId(-1f, 1);
+            configBuilder.getConfigurationBuilder(control).setValueId(1f, 2);
+        }
+        controller.setConfiguration(configBuilder.build());
+        ControllerPoller poller = ControllerPoller.getInstance(controller);
+        // We drive polling ourselves so that it happens on this thread.
+        poller.stopPolling();
+        Thread.sleep(100L);
+        poller.setAllocationFreeMode(true);
+
+        final AtomicLong delivered = new AtomicLong();
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                delivered.incrementAndGet();
+            }
+        });
+        final AtomicLong laneDelivered = new AtomicLong();
+        DispatchLane lane = ControllerManager.createDispatchLane(
+                "allocation-free", 1024, OverflowPolicy.DROP_NEWEST);
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                laneDelivered.incrementAndGet();
+            }
+        }, lane);
+        poller.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                // Touch the snapshot to make sure it is still intact.
+                if (controllerState.getTimestamp() < 0)
+                {
+                    throw new IllegalStateException("Bad snapshot");
+                }
+            }
+        });
+        poller.addControlActivationListener(new ControlActivationListener(){
+            @Override
+            public void controlActivated(ControlEvent event)
+            {
+                if (event.getCurrentValueId() == Integer.MIN_VALUE)
+                {
+                    throw new IllegalStateException("Unbound activation: " + event);
+                }
+            }
+
+            @Override
+            public void controlDeactivated(ControlEvent event)
+            {
+                if (event.getPreviousValueId() == Integer.MIN_VALUE)
+                {
+                    throw new IllegalStateException("Unbound deactivation: " + event);
+                }
+            }
+        });
+        poller.addControlChangeListener(new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                // Touch the event to make sure it is still intact.
+                if (event.getSourceControl() == null)
+                {
+                    throw new IllegalStateException("Recycled too early: " + event);
+                }
+            }
+        });
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        runPolls(poller, delivered, laneDelivered, WARMUP_POLLS);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        runPolls(poller, delivered, laneDelivered, MEASURED_POLLS);
+        long after = threads.getThreadAllocatedBytes(threadId);
+
+        long bytesPerPoll = (after - before) / MEASURED_POLLS;
+        System.out.println("Allocated " + (after - before) + " bytes in "
+                + MEASURED_POLLS + " polls (" + bytesPerPoll + " bytes/poll)");
+        ControllerManager.shutdownNow();
+        if (bytesPerPoll > MAX_BYTES_PER_POLL)
+        {
+            System.out.println("FAILED: more than " + MAX_BYTES_PER_POLL
+                    + " bytes/poll");
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+    }
+
+    /**
+     * Polls the specified number of times, waiting for each cycle to be
+     * delivered before starting the next so that the event pool reaches a
+     * steady state instead of growing to cover an ever-increasing backlog.
+     */
+    private final static void runPolls(ControllerPoller poller,
+            AtomicLong delivered, AtomicLong laneDelivered, int count)
+    {
+        for (int index = 0; index < count; index++)
+        {
+            long expected = delivered.get() + NUM_CONTROLS;
+            long laneExpected = laneDelivered.get() + NUM_CONTROLS;
+            poller.poll();
+            while (delivered.get() < expected
+                    || laneDelivered.get() < laneExpected)
+            {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.nicegamepads;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nicegamepads.configuration.ControllerConfigurationBuilder;
+
+/**
+ * Checks that a poller with coalescing enabled delivers at most one
+ * value-change and one control-polled event per control for a backlog,
+ * carrying the oldest previous value and the newest current value, while
+ * never coalescing activations or deactivations.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class CoalescingTest
+{
+    private final static int NUM_CONTROLS = 4;
+    // Not a multiple of the five values each control cycles through, so
+    // that every control ends up somewhere other than where it started.
+    private final static int NUM_POLLS = 51;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController controller = new SyntheticController(
+                "Synthetic", NUM_CONTROLS,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        ControllerConfigurationBuilder configBuilder =
+            new ControllerConfigurationBuilder(controller);
+        for (NiceControl control : controller.getControls())
+        {
+            configBuilder.getConfigurationBuilder(control).setValueId(-1f, 1);
+            configBuilder.getConfigurationBuilder(control).setValueId(1f, 2);
+        }
+        controller.setConfiguration(configBuilder.build());
+        ControllerPoller poller = ControllerPoller.getInstance(controller);
+        poller.stopPolling();
+        Thread.sleep(100L);
+        poller.poll();
+        ControllerState start = poller.createStateBuffer();
+        poller.readLatest(start);
+        poller.setCoalescingEnabled(true);
+
+        // Record every activation independently of the dispatcher.
+        ControlEventQueue truth = poller.createEventQueue(
+                NUM_POLLS * NUM_CONTROLS * 2, OverflowPolicy.DROP_NEWEST,
+                ControlEventType.CONTROL_ACTIVATED,
+                ControlEventType.CONTROL_DEACTIVATED);
+
+        final ControlEvent[] changes = new ControlEvent[NUM_CONTROLS];
+        final ControlEvent[] polls = new ControlEvent[NUM_CONTROLS];
+        final AtomicInteger activations = new AtomicInteger();
+        poller.addControlChangeListener(new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                int index = event.sourceControl.getIndex();
+                check(changes[index] == null, "second change for " + index);
+                changes[index] = event;
+            }
+        });
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                int index = event.sourceControl.getIndex();
+                check(polls[index] == null, "second poll for " + index);
+                polls[index] = event;
+            }
+        });
+        poller.addControlActivationListener(new ControlActivationListener(){
+            @Override
+            public void controlActivated(ControlEvent event)
+            {
+                activations.incrementAndGet();
+            }
+
+            @Override
+            public void controlDeactivated(ControlEvent event)
+            {
+                activations.incrementAndGet();
+            }
+        });
+
+        final CountDownLatch gate = new CountDownLatch(1);
+        ControllerManager.getEventDispatcher().execute(new Runnable(){
+            @Override
+            public void run()
+            {
+                try
+                {
+                    gate.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        for (int count = 0; count < NUM_POLLS; count++)
+        {
+            poller.poll();
+        }
+        gate.countDown();
+        ControllerManager.shutdown();
+        ControllerManager.awaitTermination(10, TimeUnit.SECONDS);
+
+        int expectedActivations = truth.drainTo(new EventSink(){
+            @Override
+            public void onEvent(ControlEventType type, ControlEvent event)
+            {
+                // Just counting.
+            }
+        }, Integer.MAX_VALUE);
+        check(expectedActivations > 0, "no activations were produced");
+        check(activations.get() == expectedActivations, activations.get()
+                + " activations delivered, " + expectedActivations + " produced");
+
+        for (int index = 0; index < NUM_CONTROLS; index++)
+        {
+            NiceControl control = controller.getControls().get(index);
+            float first = start.getCurrentValue(control);
+            float last = control.getComponent().getPollData();
+            for (ControlEvent event : new ControlEvent[] {changes[index], polls[index]})
+            {
+                check(event != null, "nothing delivered for " + index);
+                check(event.previousValue == first, "control " + index
+                        + " previous " + event.previousValue + " not " + first);
+                check(event.currentValue == last, "control " + index
+                        + " current " + event.currentValue + " not " + last);
+            }
+        }
+        long expectedCoalesced = 2L * NUM_CONTROLS * (NUM_POLLS - 1);
+        check(poller.getCoalescedEventCount() == expectedCoalesced,
+                poller.getCoalescedEventCount() + " coalesced, expected "
+                + expectedCoalesced);
+        System.out.println("PASSED");
+    }
+
+    private final static void check(boolean condition, String message)
+    {
+        if (!condition)
+        {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
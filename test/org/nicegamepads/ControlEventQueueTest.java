@@ -0,0 +1,109 @@
+package org.nicegamepads;
+
+/**
+ * Exercises {@link ControlEventQueue} with each overflow policy, including
+ * a polling thread and a draining thread running concurrently.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class ControlEventQueueTest
+{
+    private final static int NUM_CONTROLS = 20;
+    private final static int CONCURRENT_POLLS = 5000;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController controller = new SyntheticController(
+                "Synthetic", NUM_CONTROLS,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        final ControllerPoller poller = ControllerPoller.getInstance(controller);
+        poller.stopPolling();
+        Thread.sleep(100L);
+
+        // Drop newest: the first half of a cycle survives.
+        ControlEventQueue queue = poller.createEventQueue(NUM_CONTROLS / 2,
+                OverflowPolicy.DROP_NEWEST, ControlEventType.CONTROL_POLLED);
+        poller.poll();
+        poller.removeEventQueue(queue);
+        expectControls(queue, 0, NUM_CONTROLS / 2);
+        check(queue.getDroppedCount() == NUM_CONTROLS / 2,
+                "drop newest dropped " + queue.getDroppedCount());
+
+        // Drop oldest: the second half of a cycle survives.
+        queue = poller.createEventQueue(NUM_CONTROLS / 2,
+                OverflowPolicy.DROP_OLDEST, ControlEventType.CONTROL_POLLED);
+        poller.poll();
+        poller.removeEventQueue(queue);
+        expectControls(queue, NUM_CONTROLS / 2, NUM_CONTROLS / 2);
+        check(queue.getDroppedCount() == NUM_CONTROLS / 2,
+                "drop oldest dropped " + queue.getDroppedCount());
+
+        // Block: everything arrives, in order, while polling concurrently.
+        queue = poller.createEventQueue(64,
+                OverflowPolicy.BLOCK, ControlEventType.CONTROL_POLLED);
+        Thread pollingThread = new Thread(new Runnable(){
+            @Override
+            public void run()
+            {
+                for (int count = 0; count < CONCURRENT_POLLS; count++)
+                {
+                    poller.poll();
+                }
+            }
+        });
+        pollingThread.start();
+        final int[] received = new int[1];
+        final int total = CONCURRENT_POLLS * NUM_CONTROLS;
+        while (received[0] < total)
+        {
+            queue.drainTo(new EventSink(){
+                @Override
+                public void onEvent(ControlEventType type, ControlEvent event)
+                {
+                    check(type == ControlEventType.CONTROL_POLLED,
+                            "unexpected type " + type);
+                    check(event.getSourceControl().getIndex()
+                            == received[0] % NUM_CONTROLS,
+                            "out of order: " + event);
+                    received[0]++;
+                }
+            }, 16);
+            Thread.yield();
+        }
+        pollingThread.join();
+        poller.removeEventQueue(queue);
+        check(queue.getDroppedCount() == 0,
+                "block dropped " + queue.getDroppedCount());
+        check(queue.size() == 0, "leftover events: " + queue.size());
+
+        ControllerManager.shutdownNow();
+        System.out.println("PASSED");
+    }
+
+    private final static void expectControls(ControlEventQueue queue,
+            final int firstIndex, int count)
+    {
+        final int[] next = {firstIndex};
+        int drained = queue.drainTo(new EventSink(){
+            @Override
+            public void onEvent(ControlEventType type, ControlEvent event)
+            {
+                check(event.getSourceControl().getIndex() == next[0],
+                        "expected control " + next[0] + ": " + event);
+                next[0]++;
+            }
+        }, Integer.MAX_VALUE);
+        check(drained == count, "drained " + drained + " instead of " + count);
+    }
+
+    private final static void check(boolean condition, String message)
+    {
+        if (!condition)
+        {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
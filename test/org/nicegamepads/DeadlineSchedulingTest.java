@@ -0,0 +1,158 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the jitter of polling on the shared polling service with that
+ * of deadline scheduling, and checks both missed tick policies.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class DeadlineSchedulingTest
+{
+    private final static int RATE = 500;
+    private final static int SLOW_RATE = 100;
+    private final static long STALL_MILLIS = 35L;
+
+    private static volatile String pollingThread = null;
+    private static final AtomicInteger stallsRequested = new AtomicInteger();
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        SyntheticController synthetic = new SyntheticController(
+                "Synthetic", 4, new float[] {-1f, 1f});
+        ControllerPoller poller = ControllerPoller.getInstance(synthetic.wrap());
+        // Listeners run on the polling thread in this mode.
+        poller.setDispatchMode(DispatchMode.DIRECT);
+        poller.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                pollingThread = Thread.currentThread().getName();
+                if (stallsRequested.get() > 0)
+                {
+                    stallsRequested.decrementAndGet();
+                    try
+                    {
+                        Thread.sleep(STALL_MILLIS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        poller.setPollingRate(RATE);
+
+        LatencyHistogram jitter = poller.getSchedulingJitter();
+        Thread.sleep(200L);
+        jitter.reset();
+        long executorPolls = countPolls(synthetic, 1000L);
+        System.out.println("Executor: " + executorPolls + " polls, " + jitter);
+        checkRate("executor", executorPolls, RATE);
+
+        poller.enableDeadlineScheduling(MissedTickPolicy.SKIP, 0,
+                200L, TimeUnit.MICROSECONDS);
+        Thread.sleep(200L);
+        if (!pollingThread.startsWith("nicegamepads-deadline-"))
+        {
+            fail("polled on " + pollingThread + " with deadline scheduling");
+        }
+        jitter.reset();
+        long deadlinePolls = countPolls(synthetic, 1000L);
+        System.out.println("Deadline: " + deadlinePolls + " polls, " + jitter);
+        checkRate("deadline", deadlinePolls, RATE);
+
+        // A stall of 3.5 periods leaves at least three deadlines overdue.
+        poller.setPollingRate(SLOW_RATE);
+        Thread.sleep(100L);
+        long missedBefore = poller.getMissedTickCount();
+        stallsRequested.set(1);
+        Thread.sleep(200L);
+        long skipped = poller.getMissedTickCount() - missedBefore;
+        System.out.println("SKIP missed " + skipped + " polls");
+        if (skipped < 3)
+        {
+            fail("expected at least 3 skipped polls, got " + skipped);
+        }
+
+        poller.enableDeadlineScheduling(MissedTickPolicy.CATCH_UP, 10,
+                200L, TimeUnit.MICROSECONDS);
+        missedBefore = poller.getMissedTickCount();
+        long pollsBefore = synthetic.getPollCount();
+        long start = System.nanoTime();
+        stallsRequested.set(1);
+        Thread.sleep(500L);
+        long caughtUpPolls = synthetic.getPollCount() - pollsBefore;
+        long elapsedPeriods = (System.nanoTime() - start)
+            / (TimeUnit.SECONDS.toNanos(1) / SLOW_RATE);
+        long missed = poller.getMissedTickCount() - missedBefore;
+        System.out.println("CATCH_UP missed " + missed + " polls, made "
+                + caughtUpPolls + " polls in " + elapsedPeriods + " periods");
+        if (missed != 0 || caughtUpPolls < elapsedPeriods - 1)
+        {
+            fail("did not catch up on overdue polls");
+        }
+
+        poller.disableDeadlineScheduling();
+        Thread.sleep(100L);
+        if (!pollingThread.startsWith("nicegamepads-poll-"))
+        {
+            fail("polled on " + pollingThread + " after disabling");
+        }
+
+        // Shutting down stops the deadline thread before the dispatchers.
+        poller.enableDeadlineScheduling(MissedTickPolicy.SKIP, 0);
+        Thread.sleep(100L);
+        Thread deadlineThread = null;
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if (thread.getName().startsWith("nicegamepads-deadline-"))
+            {
+                deadlineThread = thread;
+            }
+        }
+        if (deadlineThread == null)
+        {
+            fail("no deadline thread");
+        }
+        ControllerManager.shutdown();
+        if (deadlineThread.isAlive())
+        {
+            fail("deadline thread still running after shutdown");
+        }
+        long pollsAfterShutdown = synthetic.getPollCount();
+        Thread.sleep(100L);
+        if (synthetic.getPollCount() != pollsAfterShutdown)
+        {
+            fail("polled after shutdown");
+        }
+        System.out.println("PASSED");
+    }
+
+    private final static long countPolls(SyntheticController synthetic,
+            long millis) throws InterruptedException
+    {
+        long before = synthetic.getPollCount();
+        Thread.sleep(millis);
+        return synthetic.getPollCount() - before;
+    }
+
+    private final static void checkRate(String scheduler, long polls, int rate)
+    {
+        if (Math.abs(polls - rate) > rate / 10)
+        {
+            fail(scheduler + " made " + polls + " polls instead of " + rate);
+        }
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
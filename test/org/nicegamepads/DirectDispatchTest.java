@@ -0,0 +1,124 @@
+package org.nicegamepads;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+/**
+ * Checks that {@link DispatchMode#DIRECT} calls listeners on the polling
+ * thread, that listeners which take longer than the polling period are
+ * caught by the watchdog, and that listeners which throw are counted; both
+ * are reported through the poller's MBean.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class DirectDispatchTest
+{
+    private final static int NUM_CONTROLS = 4;
+    private final static long SLOW_LISTENER_MILLIS = 40L;
+
+    private static volatile boolean slow = true;
+    private static volatile Thread listenerThread = null;
+    private static volatile boolean failing = true;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController controller = new SyntheticController(
+                "Synthetic", NUM_CONTROLS,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        // Polling is scheduled well below the slow listener's duration.
+        ControllerPoller poller = ControllerPoller.getInstance(controller);
+        poller.setDispatchMode(DispatchMode.DIRECT);
+        poller.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                listenerThread = Thread.currentThread();
+                if (slow)
+                {
+                    try
+                    {
+                        Thread.sleep(SLOW_LISTENER_MILLIS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                if (failing)
+                {
+                    failing = false;
+                    throw new IllegalStateException("deliberate failure");
+                }
+            }
+        });
+
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (poller.getDirectListenerOverrunCount() < 3
+                && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10L);
+        }
+        long overruns = poller.getDirectListenerOverrunCount();
+        long maxMillis = poller.getMaxDirectListenerTime(TimeUnit.MILLISECONDS);
+        ObjectName pollerName = new ObjectName(
+                "org.nicegamepads:type=ControllerPoller,name="
+                + ObjectName.quote("Synthetic"));
+        long managedOverruns = (Long) ManagementFactory.getPlatformMBeanServer()
+            .getAttribute(pollerName, "DirectListenerOverrunCount");
+        long failures = poller.getListenerFailureCount();
+        long managedFailures = (Long) ManagementFactory.getPlatformMBeanServer()
+            .getAttribute(pollerName, "ListenerFailureCount");
+
+        // Now drive polling from this thread to see where listeners run.
+        poller.stopPolling();
+        Thread.sleep(100L);
+        slow = false;
+        listenerThread = null;
+        poller.poll();
+        Thread directThread = listenerThread;
+        ControllerManager.shutdownNow();
+
+        System.out.println("Overruns: " + overruns
+                + ", max listener time: " + maxMillis + "ms");
+        if (overruns < 3)
+        {
+            fail("expected at least 3 overruns, got " + overruns);
+        }
+        if (managedOverruns < overruns)
+        {
+            fail("MBean reports " + managedOverruns + " overruns, poller "
+                    + overruns);
+        }
+        if (failures != 1 || managedFailures != 1)
+        {
+            fail("expected 1 listener failure, poller reports " + failures
+                    + " and MBean " + managedFailures);
+        }
+        if (maxMillis < SLOW_LISTENER_MILLIS)
+        {
+            fail("max listener time " + maxMillis + "ms is less than "
+                    + SLOW_LISTENER_MILLIS + "ms");
+        }
+        if (directThread != Thread.currentThread())
+        {
+            fail("listener ran on " + directThread + ", not the polling thread");
+        }
+        System.out.println("PASSED");
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
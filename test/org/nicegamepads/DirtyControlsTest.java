@@ -0,0 +1,184 @@
+package org.nicegamepads;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nicegamepads.configuration.ControllerConfigurationBuilder;
+import org.nicegamepads.simulation.SignalGenerators;
+import org.nicegamepads.simulation.SimulatedBackend;
+
+/**
+ * Checks that polls process only the controls whose values changed, that
+ * polling events for unchanged values can be asked for per control, that
+ * a new configuration is applied to every control at once, and that
+ * every control carries the time of the latest poll whether or not it
+ * was processed.
+ * <p>
+ * Uses a {@link SimulatedBackend}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class DirtyControlsTest
+{
+    private final static int COMPONENTS = 256;
+    private final static int POLLS = 200;
+
+    private final static AtomicInteger polledEvents = new AtomicInteger();
+    private final static AtomicInteger watchedEvents = new AtomicInteger();
+    private final static AtomicInteger changeEvents = new AtomicInteger();
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController.setInputBackend(new SimulatedBackend(2, COMPONENTS,
+                SignalGenerators.random(11L, 0.01f)));
+        NiceController busy = NiceController.getAllControllers().get(0);
+        ControllerPoller poller = listen(busy);
+        final NiceControl watched = busy.getControls().get(COMPONENTS - 1);
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                if (event.sourceControl == watched)
+                {
+                    watchedEvents.incrementAndGet();
+                }
+            }
+        });
+
+        // Only changed controls are reported, beyond the first poll.
+        poller.poll();
+        if (polledEvents.get() != COMPONENTS)
+        {
+            fail(polledEvents.get() + " polled events from the first poll");
+        }
+        reset();
+        pollRepeatedly(poller);
+        System.out.println(polledEvents.get() + " polled events, "
+                + changeEvents.get() + " changes in " + POLLS + " polls of "
+                + COMPONENTS + " controls");
+        if (changeEvents.get() == 0 || polledEvents.get() != changeEvents.get())
+        {
+            fail("expected a polled event for each change only");
+        }
+
+        // Asking for unchanged values reports the control on every poll.
+        poller.enableUnchangedPollEvents(watched);
+        if (!poller.isUnchangedPollEventsEnabled(watched)
+                || poller.isUnchangedPollEventsEnabled(busy.getControls().get(0)))
+        {
+            fail("opt-in applied to the wrong controls");
+        }
+        reset();
+        pollRepeatedly(poller);
+        if (watchedEvents.get() != POLLS)
+        {
+            fail("watched control was reported " + watchedEvents.get()
+                    + " times in " + POLLS + " polls");
+        }
+        poller.disableUnchangedPollEvents(watched);
+        reset();
+        pollRepeatedly(poller);
+        if (polledEvents.get() != changeEvents.get())
+        {
+            fail("still reporting unchanged values after opting out");
+        }
+
+        // A new configuration reaches every control even though no raw
+        // value changes, and the change is archived on the next poll.
+        NiceController.setInputBackend(new SimulatedBackend(1, COMPONENTS,
+                SignalGenerators.constant(0.5f)));
+        NiceController still = NiceController.getAllControllers().get(0);
+        ControllerPoller stillPoller = listen(still);
+        stillPoller.poll();
+        stillPoller.poll();
+        ControllerConfigurationBuilder builder =
+            new ControllerConfigurationBuilder(still);
+        for (NiceControl control : still.getControls())
+        {
+            builder.getConfigurationBuilder(control).setInverted(true);
+        }
+        still.setConfiguration(builder.build());
+        reset();
+        stillPoller.poll();
+        if (changeEvents.get() != COMPONENTS)
+        {
+            fail(changeEvents.get() + " changes after reconfiguring");
+        }
+        stillPoller.poll();
+        ControllerState state = stillPoller.createStateBuffer();
+        stillPoller.readLatest(state);
+        for (NiceControl control : still.getControls())
+        {
+            ControlState controlState = state.getControlState(control);
+            if (controlState.getCurrentValue() != -0.5f
+                    || controlState.getLastValue() != -0.5f)
+            {
+                fail("control " + control.getIndex() + " is "
+                        + controlState.getCurrentValue() + " (last "
+                        + controlState.getLastValue() + ")");
+            }
+        }
+
+        // Nothing changes, yet every control is stamped by every poll.
+        stillPoller.poll();
+        ControllerState previous = state;
+        state = stillPoller.createStateBuffer();
+        stillPoller.readLatest(state);
+        for (NiceControl control : still.getControls())
+        {
+            ControlState controlState = state.getControlState(control);
+            if (controlState.getCurrentTimestampNanos()
+                    != state.getTimestampNanos()
+                    || controlState.getLastTimestampNanos()
+                    != previous.getTimestampNanos())
+            {
+                fail("control " + control.getIndex() + " was not stamped");
+            }
+        }
+
+        ControllerManager.shutdownNow();
+        System.out.println("PASSED");
+    }
+
+    private final static ControllerPoller listen(NiceController controller)
+    {
+        ControllerPoller poller = ControllerPoller.getInstance(controller);
+        poller.stopPolling();
+        poller.setDispatchMode(DispatchMode.DIRECT);
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                polledEvents.incrementAndGet();
+            }
+        });
+        poller.addControlChangeListener(new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                changeEvents.incrementAndGet();
+            }
+        });
+        return poller;
+    }
+
+    private final static void pollRepeatedly(ControllerPoller poller)
+    {
+        for (int poll = 0; poll < POLLS; poll++)
+        {
+            poller.poll();
+        }
+    }
+
+    private final static void reset()
+    {
+        polledEvents.set(0);
+        watchedEvents.set(0);
+        changeEvents.set(0);
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,113 @@
+package org.nicegamepads;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that a listener stalled on its own {@link DispatchLane} does not
+ * hold up listeners on the shared dispatcher, that the lane delivers its
+ * backlog in order once unblocked, and that its metrics reflect the stall.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class DispatchLaneTest
+{
+    private final static int NUM_CONTROLS = 4;
+    private final static int NUM_POLLS = 20;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        NiceController controller = new SyntheticController(
+                "Synthetic", NUM_CONTROLS,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        ControllerPoller poller = ControllerPoller.getInstance(controller);
+        poller.stopPolling();
+        Thread.sleep(100L);
+
+        DispatchLane lane = ControllerManager.createDispatchLane(
+                "telemetry", NUM_POLLS * (NUM_CONTROLS + 1), OverflowPolicy.BLOCK);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final AtomicInteger lanePolls = new AtomicInteger();
+        final int[] lastCount = {-1};
+        poller.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                try
+                {
+                    gate.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                lanePolls.incrementAndGet();
+            }
+        }, lane);
+        final AtomicInteger laneOrder = new AtomicInteger();
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                int expected = lastCount[0] + 1;
+                lastCount[0] = expected;
+                if (event.sourceControl.getIndex() != expected % NUM_CONTROLS)
+                {
+                    laneOrder.incrementAndGet();
+                }
+            }
+        }, lane);
+
+        final AtomicInteger shared = new AtomicInteger();
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                shared.incrementAndGet();
+            }
+        });
+
+        for (int count = 0; count < NUM_POLLS; count++)
+        {
+            poller.poll();
+        }
+
+        // The shared dispatcher must finish while the lane is still stuck.
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (shared.get() < NUM_POLLS * NUM_CONTROLS
+                && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10L);
+        }
+        check(shared.get() == NUM_POLLS * NUM_CONTROLS,
+                "shared listener got " + shared.get() + " events");
+        check(lanePolls.get() == 0, "lane was not stalled");
+        check(lane.getQueueDepth() > 0, "lane has no backlog");
+        Thread.sleep(50L);
+
+        gate.countDown();
+        ControllerManager.shutdown();
+        check(ControllerManager.awaitTermination(10, TimeUnit.SECONDS),
+                "did not terminate");
+        check(lanePolls.get() == NUM_POLLS, "lane delivered " + lanePolls.get());
+        check(laneOrder.get() == 0, laneOrder.get() + " lane events out of order");
+        check(lane.getDeliveredEventCount() == NUM_POLLS * (NUM_CONTROLS + 1),
+                "lane counted " + lane.getDeliveredEventCount());
+        check(lane.getMaxLag(TimeUnit.MILLISECONDS) >= 50L,
+                "lane max lag only " + lane.getMaxLag(TimeUnit.MILLISECONDS));
+        System.out.println(lane);
+        System.out.println("PASSED");
+    }
+
+    private final static void check(boolean condition, String message)
+    {
+        if (!condition)
+        {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
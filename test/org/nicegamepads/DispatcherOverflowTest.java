@@ -0,0 +1,356 @@
+package org.nicegamepads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exercises each {@link OverflowPolicy} of the bounded event dispatcher by
+ * stalling the dispatcher thread and overfilling its queue.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class DispatcherOverflowTest
+{
+    private final static int CAPACITY = 4;
+    private final static int NUM_TASKS = 10;
+    private final static int NUM_CONTROLS = 4;
+    private final static int NUM_POLLS = 50;
+
+    public final static void main(String[] args) throws Exception
+    {
+        testDropNewest();
+        testDropOldest();
+        testDropOldestCancelsFutures();
+        testBlock();
+        testBlockFromDispatcher();
+        testBlockUntilShutdown();
+        testCoalesce();
+        System.out.println("PASSED");
+    }
+
+    private final static void testDropNewest() throws Exception
+    {
+        List<Integer> ran = overfill(OverflowPolicy.DROP_NEWEST);
+        check(ran.equals(sequence(0, CAPACITY)), "drop newest ran " + ran);
+    }
+
+    private final static void testDropOldest() throws Exception
+    {
+        List<Integer> ran = overfill(OverflowPolicy.DROP_OLDEST);
+        check(ran.equals(sequence(NUM_TASKS - CAPACITY, CAPACITY)),
+                "drop oldest ran " + ran);
+    }
+
+    /**
+     * Futures from submit() are never evicted to make room; those that
+     * don't fit are cancelled, so that nothing waits on them forever.
+     */
+    private final static void testDropOldestCancelsFutures() throws Exception
+    {
+        EventDispatcher dispatcher =
+            new EventDispatcher(CAPACITY, OverflowPolicy.DROP_OLDEST);
+        CountDownLatch gate = new CountDownLatch(1);
+        dispatcher.execute(stall(gate));
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int index = 0; index < NUM_TASKS; index++)
+        {
+            futures.add(dispatcher.submit(new Runnable(){
+                @Override
+                public void run()
+                {
+                    // Nothing to do.
+                }
+            }));
+        }
+        gate.countDown();
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+        for (int index = 0; index < NUM_TASKS; index++)
+        {
+            Future<?> future = futures.get(index);
+            check(future.isDone(), "future " + index + " never completed");
+            check(future.isCancelled() == (index >= CAPACITY),
+                    "future " + index + " cancelled: " + future.isCancelled());
+        }
+    }
+
+    private final static void testBlock() throws Exception
+    {
+        final EventDispatcher dispatcher =
+            new EventDispatcher(CAPACITY, OverflowPolicy.BLOCK);
+        final CountDownLatch gate = new CountDownLatch(1);
+        dispatcher.execute(stall(gate));
+        final AtomicInteger ran = new AtomicInteger();
+        Thread submitter = new Thread(new Runnable(){
+            @Override
+            public void run()
+            {
+                for (int index = 0; index < NUM_TASKS; index++)
+                {
+                    dispatcher.execute(new Runnable(){
+                        @Override
+                        public void run()
+                        {
+                            ran.incrementAndGet();
+                        }
+                    });
+                }
+            }
+        });
+        submitter.start();
+        submitter.join(500L);
+        check(submitter.isAlive(), "block did not block");
+        gate.countDown();
+        submitter.join();
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+        check(ran.get() == NUM_TASKS, "block ran " + ran.get());
+        check(dispatcher.getDroppedEventCount() == 0,
+                "block dropped " + dispatcher.getDroppedEventCount());
+    }
+
+    /**
+     * A task running on the dispatcher thread that overfills the queue
+     * must not wait for room that only its own thread can make, nor jump
+     * ahead of the tasks already queued; what doesn't fit is dropped.
+     */
+    private final static void testBlockFromDispatcher() throws Exception
+    {
+        final EventDispatcher dispatcher =
+            new EventDispatcher(CAPACITY, OverflowPolicy.BLOCK);
+        final List<Integer> ran =
+            Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch submitted = new CountDownLatch(1);
+        dispatcher.execute(new Runnable(){
+            @Override
+            public void run()
+            {
+                for (int index = 0; index < NUM_TASKS; index++)
+                {
+                    final int id = index;
+                    dispatcher.execute(new Runnable(){
+                        @Override
+                        public void run()
+                        {
+                            ran.add(id);
+                        }
+                    });
+                }
+                submitted.countDown();
+            }
+        });
+        check(submitted.await(10, TimeUnit.SECONDS),
+                "dispatcher deadlocked on its own queue");
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+        check(ran.size() == CAPACITY, "block from dispatcher ran " + ran);
+        for (int index = 0; index < ran.size(); index++)
+        {
+            check(ran.get(index) == index,
+                    "block from dispatcher ran out of order: " + ran);
+        }
+        check(dispatcher.getDroppedEventCount() == NUM_TASKS - CAPACITY,
+                "block from dispatcher dropped "
+                + dispatcher.getDroppedEventCount());
+    }
+
+    /**
+     * A submitter blocked on a full queue gives up once the dispatcher is
+     * shut down instead of enqueuing a task that may never run.
+     */
+    private final static void testBlockUntilShutdown() throws Exception
+    {
+        final EventDispatcher dispatcher =
+            new EventDispatcher(CAPACITY, OverflowPolicy.BLOCK);
+        final CountDownLatch gate = new CountDownLatch(1);
+        dispatcher.execute(stall(gate));
+        for (int index = 0; index < CAPACITY; index++)
+        {
+            dispatcher.execute(stall(gate));
+        }
+        final AtomicInteger rejected = new AtomicInteger();
+        Thread submitter = new Thread(new Runnable(){
+            @Override
+            public void run()
+            {
+                try
+                {
+                    dispatcher.execute(stall(gate));
+                }
+                catch (RejectedExecutionException e)
+                {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        submitter.start();
+        submitter.join(200L);
+        check(submitter.isAlive(), "block did not block");
+        dispatcher.shutdown();
+        submitter.join(5000L);
+        check(!submitter.isAlive(), "submitter still blocked after shutdown");
+        check(rejected.get() == 1, "blocked task was not rejected");
+        gate.countDown();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stalls a tiny coalescing dispatcher while a controller is polled
+     * repeatedly, then checks that value changes were merged without
+     * losing track of where each control started and ended up.  Every
+     * control changes on every poll, so after the first poll fills the
+     * queue everything is coalesced and polling never blocks.  A control
+     * that ends up back where it started has no change left to report.
+     */
+    private final static void testCoalesce() throws Exception
+    {
+        ControllerManager.initialize(CAPACITY, OverflowPolicy.COALESCE);
+        NiceController controller = new SyntheticController(
+                "Synthetic", NUM_CONTROLS,
+                new float[] {-1f, -0.5f, 0f, 0.5f, 1f}).wrap();
+        ControllerPoller poller = ControllerPoller.getInstance(controller);
+        poller.stopPolling();
+        Thread.sleep(100L);
+        // Poll once with nobody listening so that every control changes
+        // value on every subsequent poll, and remember where they started.
+        poller.poll();
+        ControllerState start = poller.createStateBuffer();
+        poller.readLatest(start);
+
+        final float[] firstPrevious = new float[NUM_CONTROLS];
+        final float[] lastCurrent = new float[NUM_CONTROLS];
+        final boolean[] seen = new boolean[NUM_CONTROLS];
+        final AtomicInteger delivered = new AtomicInteger();
+        poller.addControlChangeListener(new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                int index = event.sourceControl.getIndex();
+                if (!seen[index])
+                {
+                    seen[index] = true;
+                    firstPrevious[index] = event.previousValue;
+                }
+                lastCurrent[index] = event.currentValue;
+                delivered.incrementAndGet();
+            }
+        });
+
+        CountDownLatch gate = new CountDownLatch(1);
+        ControllerManager.getEventDispatcher().execute(stall(gate));
+        for (int count = 0; count < NUM_POLLS; count++)
+        {
+            poller.poll();
+        }
+        gate.countDown();
+        ControllerManager.shutdown();
+        ControllerManager.awaitTermination(10, TimeUnit.SECONDS);
+
+        long coalesced = ControllerManager.getCoalescedEventCount();
+        check(coalesced > 0, "nothing was coalesced");
+        check(delivered.get() + coalesced == NUM_POLLS * NUM_CONTROLS,
+                delivered.get() + " delivered + " + coalesced
+                + " coalesced != " + (NUM_POLLS * NUM_CONTROLS));
+        check(ControllerManager.getDroppedEventCount() == 0,
+                "coalesce dropped " + ControllerManager.getDroppedEventCount());
+        for (int index = 0; index < NUM_CONTROLS; index++)
+        {
+            NiceControl control = controller.getControls().get(index);
+            float started = start.getCurrentValue(control);
+            float expected = control.getComponent().getPollData();
+            if (expected == started)
+            {
+                check(!seen[index], "control " + index
+                        + " reported a change back to " + started);
+                continue;
+            }
+            check(firstPrevious[index] == started,
+                    "control " + index + " started at " + firstPrevious[index]);
+            check(lastCurrent[index] == expected, "control " + index
+                    + " ended at " + lastCurrent[index] + " not " + expected);
+        }
+    }
+
+    /**
+     * Stalls a dispatcher, submits numbered tasks to it and returns the
+     * numbers of those that ran once it was released.
+     */
+    private final static List<Integer> overfill(OverflowPolicy policy)
+    throws Exception
+    {
+        EventDispatcher dispatcher = new EventDispatcher(CAPACITY, policy);
+        CountDownLatch gate = new CountDownLatch(1);
+        dispatcher.execute(stall(gate));
+        final List<Integer> ran =
+            Collections.synchronizedList(new ArrayList<Integer>());
+        for (int index = 0; index < NUM_TASKS; index++)
+        {
+            final int number = index;
+            dispatcher.execute(new DispatchTask(){
+                @Override
+                protected void runInternal()
+                {
+                    ran.add(number);
+                }
+
+                @Override
+                int discard()
+                {
+                    return 1;
+                }
+            });
+        }
+        gate.countDown();
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+        check(dispatcher.getDroppedEventCount() == NUM_TASKS - CAPACITY,
+                policy + " dropped " + dispatcher.getDroppedEventCount());
+        return ran;
+    }
+
+    private final static Runnable stall(final CountDownLatch gate)
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        return new Runnable(){
+            @Override
+            public void run()
+            {
+                started.countDown();
+                try
+                {
+                    gate.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private final static List<Integer> sequence(int start, int count)
+    {
+        List<Integer> result = new ArrayList<Integer>();
+        for (int index = 0; index < count; index++)
+        {
+            result.add(start + index);
+        }
+        return result;
+    }
+
+    private final static void check(boolean condition, String message)
+    {
+        if (!condition)
+        {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.nicegamepads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that with one event dispatcher per controller, a listener that
+ * blocks delays only the events of its own controller, and that events are
+ * still delivered in order.  Runs the dispatchers on virtual threads if the
+ * runtime supports them.
+ * <p>
+ * Uses {@link SyntheticController}s, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class DispatcherPerControllerTest
+{
+    private final static int NUM_CONTROLS = 4;
+    private final static int NUM_POLLS = 50;
+
+    public final static void main(String[] args) throws Exception
+    {
+        boolean virtual = ControllerManager.isVirtualThreadSupported();
+        ThreadFactory threadFactory = virtual
+            ? ControllerManager.newVirtualThreadFactory()
+            : Executors.defaultThreadFactory();
+        System.out.println("Virtual threads: " + virtual);
+        ControllerManager.initialize(NUM_POLLS * (NUM_CONTROLS + 1),
+                OverflowPolicy.BLOCK, threadFactory, true);
+
+        ControllerPoller blocked = ControllerPoller.getInstance(
+                new SyntheticController("Blocked", NUM_CONTROLS,
+                        new float[] {-1f, 1f}).wrap());
+        ControllerPoller free = ControllerPoller.getInstance(
+                new SyntheticController("Free", NUM_CONTROLS,
+                        new float[] {-1f, 1f}).wrap());
+        // We drive polling ourselves so that it happens on this thread.
+        blocked.stopPolling();
+        free.stopPolling();
+        Thread.sleep(100L);
+
+        final CountDownLatch gate = new CountDownLatch(1);
+        blocked.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                try
+                {
+                    gate.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        final List<Long> timestamps =
+            Collections.synchronizedList(new ArrayList<Long>());
+        final CountDownLatch done = new CountDownLatch(NUM_POLLS);
+        final Thread[] freeThread = new Thread[1];
+        free.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                freeThread[0] = Thread.currentThread();
+                timestamps.add(controllerState.getTimestampNanos());
+                done.countDown();
+            }
+        });
+
+        for (int index = 0; index < NUM_POLLS; index++)
+        {
+            blocked.poll();
+            free.poll();
+        }
+
+        boolean delivered = done.await(5, TimeUnit.SECONDS);
+        gate.countDown();
+        ControllerManager.shutdown();
+        ControllerManager.awaitTermination(5, TimeUnit.SECONDS);
+
+        if (!delivered)
+        {
+            fail("free controller's events were held up by the blocked one");
+        }
+        for (int index = 1; index < timestamps.size(); index++)
+        {
+            if (timestamps.get(index) <= timestamps.get(index - 1))
+            {
+                fail("events delivered out of order: " + timestamps);
+            }
+        }
+        if (!freeThread[0].getName().equals("nicegamepads-dispatch-Free"))
+        {
+            fail("unexpected dispatcher thread: " + freeThread[0]);
+        }
+        if (ControllerManager.getDroppedEventCount() != 0)
+        {
+            fail("dropped " + ControllerManager.getDroppedEventCount()
+                    + " events");
+        }
+        System.out.println("PASSED");
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
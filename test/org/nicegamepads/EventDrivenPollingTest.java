@@ -0,0 +1,154 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nicegamepads.simulation.SignalGenerators;
+import org.nicegamepads.simulation.SimulatedBackend;
+import org.nicegamepads.simulation.SimulatedController;
+
+/**
+ * Checks that event-driven polling keeps the state of a many-control
+ * controller up to date while producing events only for the controls
+ * that changed, that the periodic full scan repairs the state after
+ * events have been lost, and that events queued during full scans are
+ * not replayed once event-driven polling starts.
+ * <p>
+ * Uses a {@link SimulatedBackend}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class EventDrivenPollingTest
+{
+    private final static int COMPONENTS = 128;
+    private final static int POLLS = 200;
+    private final static long FULL_SCAN_MILLIS = 50L;
+
+    private final static AtomicInteger polledEvents = new AtomicInteger();
+    private final static AtomicInteger changeEvents = new AtomicInteger();
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        SimulatedBackend backend = new SimulatedBackend(1, COMPONENTS,
+                SignalGenerators.random(7L, 0.02f));
+        NiceController.setInputBackend(backend);
+        SimulatedController simulated = backend.getController(0);
+        NiceController controller = NiceController.getAllControllers().get(0);
+        ControllerPoller poller = ControllerPoller.getInstance(controller);
+        poller.stopPolling();
+        poller.setDispatchMode(DispatchMode.DIRECT);
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                polledEvents.incrementAndGet();
+            }
+        });
+        poller.addControlChangeListener(new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                changeEvents.incrementAndGet();
+            }
+        });
+        ControllerState state = poller.createStateBuffer();
+
+        // The first poll is a full scan that reports every control.
+        poller.poll();
+        if (polledEvents.get() != COMPONENTS)
+        {
+            fail(polledEvents.get() + " polled events from the first poll");
+        }
+
+        // Enough full scans to overfill the event queue, were it not
+        // drained by each of them.
+        for (int poll = 0; poll < POLLS; poll++)
+        {
+            poller.poll();
+        }
+
+        // Event-driven: only the changed controls are processed, and the
+        // state still matches the controller.
+        poller.enableEventDrivenPolling(1L, TimeUnit.HOURS);
+        polledEvents.set(0);
+        changeEvents.set(0);
+        ControllerState before = poller.createStateBuffer();
+        int changes = 0;
+        for (int poll = 0; poll < POLLS; poll++)
+        {
+            poller.readLatest(before);
+            poller.poll();
+            checkState(poller, controller, state, "event-driven poll " + poll);
+            for (NiceControl control : controller.getControls())
+            {
+                if (state.getCurrentValue(control)
+                        != before.getCurrentValue(control))
+                {
+                    changes++;
+                }
+            }
+        }
+        System.out.println("Event-driven: " + polledEvents.get()
+                + " polled events, " + changeEvents.get() + " changes in "
+                + POLLS + " polls of " + COMPONENTS + " controls");
+        if (changeEvents.get() == 0 || polledEvents.get() != changeEvents.get())
+        {
+            fail("expected a polled event for each change only");
+        }
+        if (changeEvents.get() != changes)
+        {
+            fail(changeEvents.get() + " change events for " + changes
+                    + " changes");
+        }
+
+        // Lost events leave the state stale until the next full scan.
+        simulated.setDroppingEvents(true);
+        for (int poll = 0; poll < 10; poll++)
+        {
+            poller.poll();
+        }
+        if (countStale(poller, controller, state) == 0)
+        {
+            fail("no controls went stale while events were dropped");
+        }
+        poller.enableEventDrivenPolling(FULL_SCAN_MILLIS, TimeUnit.MILLISECONDS);
+        Thread.sleep(FULL_SCAN_MILLIS + 10L);
+        poller.poll();
+        checkState(poller, controller, state, "full scan");
+
+        ControllerManager.shutdownNow();
+        System.out.println("PASSED");
+    }
+
+    private final static int countStale(ControllerPoller poller,
+            NiceController controller, ControllerState state)
+    {
+        poller.readLatest(state);
+        int stale = 0;
+        for (NiceControl control : controller.getControls())
+        {
+            float expected = control.getComponent().getPollData();
+            if (state.getCurrentValue(control) != expected)
+            {
+                stale++;
+            }
+        }
+        return stale;
+    }
+
+    private final static void checkState(ControllerPoller poller,
+            NiceController controller, ControllerState state, String when)
+    {
+        int stale = countStale(poller, controller, state);
+        if (stale != 0)
+        {
+            fail(stale + " controls are stale after " + when);
+        }
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,109 @@
+package org.nicegamepads;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Records the framework with the JDK Flight Recorder and checks that poll
+ * cycles, listener invocations, dispatcher backlogs and poll failures all
+ * show up with their fields filled in.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class FlightRecorderTest
+{
+    private final static int NUM_CONTROLS = 4;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        SyntheticController synthetic = new SyntheticController(
+                "Synthetic", NUM_CONTROLS, new float[] {-1f, 1f});
+        ControllerPoller poller = ControllerPoller.getInstance(synthetic.wrap());
+        poller.setPollingRate(100);
+        poller.addControlChangeListener(new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                // Only here to be recorded.
+            }
+        });
+
+        Recording recording = new Recording();
+        recording.enable("org.nicegamepads.PollCycle");
+        recording.enable("org.nicegamepads.ListenerInvocation");
+        recording.enable("org.nicegamepads.DispatcherBacklog");
+        recording.enable("org.nicegamepads.ControllerPollFailure");
+        recording.start();
+        Thread.sleep(500L);
+        synthetic.setFailing(true);
+        Thread.sleep(100L);
+        recording.stop();
+        File file = File.createTempFile("nicegamepads", ".jfr");
+        file.deleteOnExit();
+        recording.dump(file.toPath());
+        recording.close();
+        ControllerManager.shutdownNow();
+
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        int changedCycles = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file.toPath()))
+        {
+            String name = event.getEventType().getName();
+            if (!name.startsWith("org.nicegamepads."))
+            {
+                continue;
+            }
+            Integer count = counts.get(name);
+            counts.put(name, count == null ? 1 : count + 1);
+            if (name.endsWith(".PollCycle"))
+            {
+                if (!"Synthetic".equals(event.getString("controller")))
+                {
+                    fail("bad poll cycle: " + event);
+                }
+                // The failed poll changes nothing, so it emits nothing.
+                if (event.getInt("controlsChanged") == NUM_CONTROLS)
+                {
+                    if (event.getInt("eventsEmitted") < NUM_CONTROLS)
+                    {
+                        fail("bad poll cycle: " + event);
+                    }
+                    changedCycles++;
+                }
+            }
+            if (name.endsWith(".ListenerInvocation")
+                    && !"VALUE_CHANGED".equals(event.getString("eventKind")))
+            {
+                fail("bad listener invocation: " + event);
+            }
+        }
+        System.out.println(counts);
+        if (changedCycles < 30
+                || count(counts, "ListenerInvocation") < 30 * NUM_CONTROLS
+                || count(counts, "DispatcherBacklog") < 30
+                || count(counts, "ControllerPollFailure") != 1)
+        {
+            fail("missing events");
+        }
+        System.out.println("PASSED");
+    }
+
+    private final static int count(Map<String, Integer> counts, String name)
+    {
+        Integer count = counts.get("org.nicegamepads." + name);
+        return count == null ? 0 : count;
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,113 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that adaptive polling backs off to the floor rate while the
+ * controller is idle, returns to the full rate on the first change with a
+ * bounded wake-up latency, and stops polling altogether while nothing is
+ * consuming the controller's state.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class IdleBackOffTest
+{
+    private final static int FULL_RATE = 200;
+    private final static int FLOOR_RATE = 10;
+    private final static long IDLE_MILLIS = 100L;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        SyntheticController synthetic = new SyntheticController(
+                "Synthetic", 4, new float[] {-1f, 1f});
+        synthetic.setFrozen(true);
+        ControllerPoller poller = ControllerPoller.getInstance(synthetic.wrap());
+        poller.setPollingRate(FULL_RATE);
+        poller.enableIdleBackOff(FLOOR_RATE, IDLE_MILLIS, TimeUnit.MILLISECONDS);
+        ControlChangeListener listener = new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                // Only here to consume events.
+            }
+        };
+        poller.addControlChangeListener(listener);
+
+        // Idle: should step down to the floor.
+        Thread.sleep(1500L);
+        if (poller.getCurrentPollingRate() != FLOOR_RATE)
+        {
+            fail("rate is " + poller.getCurrentPollingRate()
+                    + " after idling, expected " + FLOOR_RATE);
+        }
+        long idlePolls = countPolls(synthetic, 1000L);
+        System.out.println("Idle: " + idlePolls + " polls/s");
+        if (idlePolls > FLOOR_RATE * 3 / 2)
+        {
+            fail("polled " + idlePolls + " times in a second while idle");
+        }
+
+        // Activity: should go straight back to the full rate.
+        synthetic.setFrozen(false);
+        Thread.sleep(1000L / FLOOR_RATE + 100L);
+        if (poller.getCurrentPollingRate() != FULL_RATE)
+        {
+            fail("rate is " + poller.getCurrentPollingRate()
+                    + " after activity, expected " + FULL_RATE);
+        }
+        long activePolls = countPolls(synthetic, 1000L);
+        System.out.println("Active: " + activePolls + " polls/s");
+        long bound = TimeUnit.SECONDS.toMicros(1) / FLOOR_RATE
+            - TimeUnit.SECONDS.toMicros(1) / FULL_RATE;
+        long wakeUp = poller.getMaxWakeUpLatency(TimeUnit.MICROSECONDS);
+        System.out.println("Max wake-up latency: " + wakeUp
+                + "us (bound " + bound + "us)");
+        if (wakeUp <= 0 || wakeUp > bound)
+        {
+            fail("wake-up latency " + wakeUp + "us is outside (0, "
+                    + bound + "]");
+        }
+
+        // Nobody listening: should stop polling altogether.
+        synthetic.setFrozen(true);
+        poller.removeControlChangeListener(listener);
+        Thread.sleep(1500L);
+        if (!poller.isPollingSuspended())
+        {
+            fail("polling was not suspended without consumers");
+        }
+        long suspendedPolls = countPolls(synthetic, 500L);
+        if (suspendedPolls != 0)
+        {
+            fail("polled " + suspendedPolls + " times while suspended");
+        }
+
+        // Pulling state: should resume, at least until the reader has been
+        // gone for the idle time again.
+        poller.readLatest(poller.createStateBuffer());
+        if (poller.isPollingSuspended()
+                || countPolls(synthetic, IDLE_MILLIS / 2) == 0)
+        {
+            fail("polling did not resume on readLatest()");
+        }
+
+        ControllerManager.shutdownNow();
+        System.out.println("PASSED");
+    }
+
+    private final static long countPolls(SyntheticController synthetic,
+            long millis) throws InterruptedException
+    {
+        long before = synthetic.getPollCount();
+        Thread.sleep(millis);
+        return synthetic.getPollCount() - before;
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,113 @@
+package org.nicegamepads;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Checks the MBeans of the manager and of a poller through the platform
+ * MBean server: the measured rates and listener counts, the operations to
+ * change the polling interval and to stop and start polling, and that the
+ * MBeans go away when the framework is shut down.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class ManagementTest
+{
+    private final static int RATE = 100;
+    private final static int NUM_CONTROLS = 4;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        SyntheticController synthetic = new SyntheticController(
+                "Synthetic", NUM_CONTROLS, new float[] {-1f, 1f});
+        ControllerPoller poller = ControllerPoller.getInstance(synthetic.wrap());
+        poller.setPollingRate(RATE);
+        poller.addControlChangeListener(new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                // Only here to be counted.
+            }
+        });
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName managerName =
+            new ObjectName("org.nicegamepads:type=ControllerManager");
+        ObjectName pollerName = new ObjectName(
+                "org.nicegamepads:type=ControllerPoller,name=" + ObjectName.quote("Synthetic"));
+        if (!server.isRegistered(managerName)
+                || !server.isRegistered(pollerName))
+        {
+            fail("MBeans not registered: " + server.queryNames(
+                    new ObjectName("org.nicegamepads:*"), null));
+        }
+
+        Thread.sleep(2500L);
+        long achieved = (Long) server.getAttribute(
+                pollerName, "AchievedPollingRate");
+        long changes = (Long) server.getAttribute(pollerName, "ValueChangedRate");
+        System.out.println("Achieved " + achieved + " polls/s, "
+                + changes + " changes/s");
+        if (Math.abs(achieved - RATE) > RATE / 10)
+        {
+            fail("achieved " + achieved + " polls/s instead of " + RATE);
+        }
+        if (changes == 0L)
+        {
+            fail("no value changes counted");
+        }
+        if ((Integer) server.getAttribute(pollerName, "ChangeListenerCount") != 1
+                || (Integer) server.getAttribute(
+                        pollerName, "ActivationListenerCount") != 0)
+        {
+            fail("wrong listener counts");
+        }
+        if ((Integer) server.getAttribute(managerName, "ControllerCount") != 1)
+        {
+            fail("wrong controller count");
+        }
+
+        server.setAttribute(pollerName,
+                new Attribute("PollingIntervalMicros", 20000L));
+        if (poller.getPollingRate() != 50)
+        {
+            fail("interval of 20ms set rate " + poller.getPollingRate());
+        }
+
+        server.invoke(pollerName, "stopPolling", null, null);
+        Thread.sleep(100L);
+        long before = synthetic.getPollCount();
+        Thread.sleep(300L);
+        if ((Boolean) server.getAttribute(pollerName, "Polling")
+                || synthetic.getPollCount() != before)
+        {
+            fail("polling did not stop");
+        }
+        server.invoke(managerName, "startAllPolling", null, null);
+        Thread.sleep(300L);
+        if (!(Boolean) server.getAttribute(pollerName, "Polling")
+                || synthetic.getPollCount() == before)
+        {
+            fail("polling did not start again");
+        }
+
+        ControllerManager.shutdownNow();
+        if (server.isRegistered(managerName)
+                || server.isRegistered(pollerName))
+        {
+            fail("MBeans still registered after shutdown");
+        }
+        System.out.println("PASSED");
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
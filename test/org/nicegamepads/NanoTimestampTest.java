@@ -0,0 +1,105 @@
+package org.nicegamepads;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that polls made back to back get distinct, increasing nanosecond
+ * timestamps, that every event carries the timestamps of the poll that
+ * produced it, and that the millisecond timestamps derived from them agree
+ * with the wall-clock time of the poll.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class NanoTimestampTest
+{
+    private final static int NUM_CONTROLS = 4;
+    private final static int NUM_POLLS = 100;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        ControllerPoller poller = ControllerPoller.getInstance(
+                new SyntheticController("Synthetic", NUM_CONTROLS,
+                        new float[] {-1f, 1f}).wrap());
+        // We drive polling ourselves, with listeners on this thread.
+        poller.stopPolling();
+        poller.setDispatchMode(DispatchMode.DIRECT);
+        Thread.sleep(100L);
+
+        final List<ControlEvent> events = new ArrayList<ControlEvent>();
+        poller.addControlPollingListener(new ControlPollingListener(){
+            @Override
+            public void controlPolled(ControlEvent event)
+            {
+                events.add(event);
+            }
+        });
+        final List<ControllerState> states = new ArrayList<ControllerState>();
+        poller.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                // Outside allocation-free mode, snapshots may be kept.
+                states.add(controllerState);
+            }
+        });
+
+        for (int index = 0; index < NUM_POLLS; index++)
+        {
+            poller.poll();
+        }
+        ControllerManager.shutdownNow();
+
+        if (states.size() != NUM_POLLS
+                || events.size() != NUM_POLLS * NUM_CONTROLS)
+        {
+            fail("saw " + states.size() + " polls and " + events.size()
+                    + " events");
+        }
+        for (int poll = 0; poll < NUM_POLLS; poll++)
+        {
+            ControllerState state = states.get(poll);
+            if (poll > 0 && state.getTimestampNanos()
+                    <= states.get(poll - 1).getTimestampNanos())
+            {
+                fail("poll " + poll + " is not later than the one before");
+            }
+            for (int control = 0; control < NUM_CONTROLS; control++)
+            {
+                ControlEvent event = events.get(poll * NUM_CONTROLS + control);
+                if (event.timestampNanos != state.getTimestampNanos()
+                        || event.timestamp != state.getTimestamp())
+                {
+                    fail("event timestamps differ from the poll's: " + event);
+                }
+                ControlState controlState =
+                    state.getControlState(event.sourceControl);
+                if (controlState.getCurrentTimestampNanos()
+                        != state.getTimestampNanos()
+                        || controlState.getCurrentTimestamp()
+                        != state.getTimestamp())
+                {
+                    fail("control timestamps differ from the poll's: "
+                            + controlState);
+                }
+                if (poll > 0 && controlState.getLastTimestamp()
+                        > controlState.getCurrentTimestamp())
+                {
+                    fail("derived times go backwards: " + controlState);
+                }
+            }
+        }
+        long span = states.get(NUM_POLLS - 1).getTimestampNanos()
+            - states.get(0).getTimestampNanos();
+        System.out.println(NUM_POLLS + " polls in " + span + "ns");
+        System.out.println("PASSED");
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
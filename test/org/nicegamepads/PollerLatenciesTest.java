@@ -0,0 +1,99 @@
+package org.nicegamepads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that a poller records how long each stage between polling and
+ * delivery takes, that listener time is attributed to the right type of
+ * listener, and that the histograms can be reset for a new interval.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class PollerLatenciesTest
+{
+    private final static long LISTENER_MILLIS = 2L;
+    private final static long POLL_LATENCY_MICROS = 300L;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        SyntheticController synthetic = new SyntheticController(
+                "Synthetic", 4, new float[] {-1f, 1f});
+        synthetic.setPollLatency(
+                TimeUnit.MICROSECONDS.toNanos(POLL_LATENCY_MICROS));
+        ControllerPoller poller = ControllerPoller.getInstance(synthetic.wrap());
+        poller.setPollingRate(50);
+        poller.addControlChangeListener(new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                try
+                {
+                    Thread.sleep(LISTENER_MILLIS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        poller.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                // Only here to be timed.
+            }
+        });
+
+        PollerLatencies latencies = poller.getLatencies();
+        Thread.sleep(200L);
+        latencies.reset();
+        Thread.sleep(1000L);
+        poller.stopPollingAndWait(1L, TimeUnit.SECONDS);
+        Thread.sleep(200L);
+        ControllerManager.shutdownNow();
+        System.out.println(latencies);
+
+        long polls = latencies.getPollDuration().getCount();
+        if (polls < 25 || latencies.getProcessing().getCount() != polls)
+        {
+            fail("recorded " + polls + " polls and "
+                    + latencies.getProcessing().getCount() + " cycles");
+        }
+        if (latencies.getPollDuration().getPercentile(50d,
+                TimeUnit.MICROSECONDS) < POLL_LATENCY_MICROS)
+        {
+            fail("hardware poll took less than the controller's latency");
+        }
+        if (latencies.getChangeListenerTime().getPercentile(50d,
+                TimeUnit.MILLISECONDS) < LISTENER_MILLIS)
+        {
+            fail("change listener took less time than it slept");
+        }
+        if (latencies.getActivationListenerTime().getCount() != 0
+                || latencies.getControllerPollingListenerTime().getCount() == 0)
+        {
+            fail("listener time attributed to the wrong listeners");
+        }
+        if (latencies.getQueueWait().getCount() == 0
+                || latencies.getInputLatency().getMax(TimeUnit.NANOSECONDS)
+                < latencies.getQueueWait().getMax(TimeUnit.NANOSECONDS))
+        {
+            fail("input latency does not cover the queue wait");
+        }
+        latencies.reset();
+        if (latencies.getPollDuration().getCount() != 0
+                || latencies.getChangeListenerTime().getCount() != 0)
+        {
+            fail("reset() left values behind: " + latencies);
+        }
+        System.out.println("PASSED");
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
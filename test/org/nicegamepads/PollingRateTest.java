@@ -0,0 +1,88 @@
+package org.nicegamepads;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that the achieved polling rate matches the requested rate, and
+ * that the rate can be changed while polling is running.
+ * <p>
+ * Uses a {@link SyntheticController}, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class PollingRateTest
+{
+    /**
+     * Allowed relative difference between the requested and achieved rate.
+     */
+    private final static double TOLERANCE = 0.1;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        ControllerPoller poller = ControllerPoller.getInstance(
+                new SyntheticController("Synthetic", 4,
+                        new float[] {-1f, 1f}).wrap());
+        final AtomicLong polls = new AtomicLong();
+        poller.addControllerPollingListener(new ControllerPollingListener(){
+            @Override
+            public void controllerPolled(ControllerState controllerState)
+            {
+                polls.incrementAndGet();
+            }
+        });
+
+        if (poller.getPollingRate() != ControllerPoller.DEFAULT_POLLING_RATE)
+        {
+            fail("unexpected default rate " + poller.getPollingRate());
+        }
+        try
+        {
+            poller.setPollingRate(ControllerPoller.MAX_POLLING_RATE + 1);
+            fail("accepted a rate above the maximum");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            // Good.
+        }
+
+        boolean failed = false;
+        // Changed on the fly, without stopping the poller.
+        int[] rates = {ControllerPoller.DEFAULT_POLLING_RATE,
+                ControllerPoller.MAX_POLLING_RATE, 250,
+                ControllerPoller.MIN_POLLING_RATE};
+        for (int rate : rates)
+        {
+            poller.setPollingRate(rate);
+            Thread.sleep(200L);
+            // Long enough for at least 20 polls at the slowest rate.
+            long durationMillis = Math.max(1000L, 20000L / rate);
+            long before = polls.get();
+            long start = System.nanoTime();
+            Thread.sleep(durationMillis);
+            long count = polls.get() - before;
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double achieved = count / seconds;
+            double error = Math.abs(achieved - rate) / rate;
+            System.out.println("Requested " + rate + " Hz, achieved "
+                    + Math.round(achieved) + " Hz");
+            if (error > TOLERANCE)
+            {
+                System.out.println("FAILED: " + rate + " Hz is off by "
+                        + Math.round(error * 100) + "%");
+                failed = true;
+            }
+        }
+        ControllerManager.shutdownNow();
+        if (failed)
+        {
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,83 @@
+package org.nicegamepads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks that controllers are spread across the polling threads and that
+ * each controller is only ever polled by one of them.
+ * <p>
+ * Uses {@link SyntheticController}s, so no hardware is required.  Exits
+ * with a non-zero status on failure.
+ */
+public class PollingThreadsTest
+{
+    private final static int NUM_CONTROLLERS = 6;
+    private final static int NUM_THREADS = 3;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize(
+                ControllerManager.DEFAULT_DISPATCH_QUEUE_CAPACITY,
+                ControllerManager.DEFAULT_OVERFLOW_POLICY,
+                Executors.defaultThreadFactory(), false, NUM_THREADS);
+        if (ControllerManager.getPollingThreadCount() != NUM_THREADS)
+        {
+            fail("expected " + NUM_THREADS + " polling threads, got "
+                    + ControllerManager.getPollingThreadCount());
+        }
+
+        final List<Set<String>> threadsByController =
+            new ArrayList<Set<String>>();
+        for (int index = 0; index < NUM_CONTROLLERS; index++)
+        {
+            final Set<String> threads =
+                Collections.synchronizedSet(new HashSet<String>());
+            threadsByController.add(threads);
+            SyntheticController synthetic = new SyntheticController(
+                    "Synthetic " + index, 2, new float[] {-1f, 1f});
+            // Slow enough that a single thread could not keep up.
+            synthetic.setPollLatency(5000000L);
+            ControllerPoller poller = ControllerPoller.getInstance(synthetic.wrap());
+            // Listeners run on the polling thread in this mode.
+            poller.setDispatchMode(DispatchMode.DIRECT);
+            poller.addControllerPollingListener(new ControllerPollingListener(){
+                @Override
+                public void controllerPolled(ControllerState controllerState)
+                {
+                    threads.add(Thread.currentThread().getName());
+                }
+            });
+        }
+
+        Thread.sleep(500L);
+        ControllerManager.shutdownNow();
+
+        Set<String> allThreads = new HashSet<String>();
+        for (int index = 0; index < NUM_CONTROLLERS; index++)
+        {
+            Set<String> threads = threadsByController.get(index);
+            if (threads.size() != 1)
+            {
+                fail("controller " + index + " was polled by " + threads);
+            }
+            allThreads.addAll(threads);
+        }
+        if (allThreads.size() != NUM_THREADS)
+        {
+            fail("controllers were polled by " + allThreads);
+        }
+        System.out.println("Polling threads: " + allThreads);
+        System.out.println("PASSED");
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,103 @@
+package org.nicegamepads;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks that {@link ControllerPoller#readLatest(ControllerState)} never
+ * returns a torn state while another thread is polling as fast as it can.
+ * <p>
+ * Every component of the {@link SyntheticController} reports a different
+ * value from the same script, offset by its position, so a consistent copy
+ * has all of its raw values in step with one another.  Exits with a
+ * non-zero status if any copy is not.
+ */
+public class ReadLatestTest
+{
+    private final static int NUM_CONTROLS = 32;
+    private final static int NUM_READS = 2000000;
+    private final static int SCRIPT_LENGTH = 97;
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+        final float[] script = new float[SCRIPT_LENGTH];
+        for (int index = 0; index < SCRIPT_LENGTH; index++)
+        {
+            script[index] = -1f + (2f * index) / (SCRIPT_LENGTH - 1);
+        }
+        NiceController controller = new SyntheticController(
+                "Synthetic", NUM_CONTROLS, script).wrap();
+        final ControllerPoller poller = ControllerPoller.getInstance(controller);
+        poller.stopPolling();
+        Thread.sleep(100L);
+
+        ControllerState buffer = poller.createStateBuffer();
+        if (poller.readLatest(buffer))
+        {
+            fail("Reported a polled state before any polling.");
+        }
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        Thread pollingThread = new Thread(new Runnable(){
+            @Override
+            public void run()
+            {
+                while (running.get())
+                {
+                    poller.poll();
+                }
+            }
+        });
+        pollingThread.start();
+
+        long lastTimestamp = -1L;
+        int distinctCycles = 0;
+        for (int read = 0; read < NUM_READS; read++)
+        {
+            if (!poller.readLatest(buffer))
+            {
+                continue;
+            }
+            int start = indexOf(script, buffer.rawValues[0]);
+            for (int index = 1; index < NUM_CONTROLS; index++)
+            {
+                float expected = script[(start + index) % SCRIPT_LENGTH];
+                if (buffer.rawValues[index] != expected)
+                {
+                    fail("Torn read at control " + index + ": expected "
+                            + expected + " but was " + buffer.rawValues[index]);
+                }
+            }
+            if (buffer.getTimestamp() != lastTimestamp)
+            {
+                lastTimestamp = buffer.getTimestamp();
+                distinctCycles++;
+            }
+        }
+        running.set(false);
+        pollingThread.join();
+        ControllerManager.shutdownNow();
+        System.out.println(NUM_READS + " reads, " + distinctCycles
+                + " distinct timestamps, no torn reads");
+        System.out.println("PASSED");
+    }
+
+    private final static int indexOf(float[] script, float value)
+    {
+        for (int index = 0; index < script.length; index++)
+        {
+            if (script[index] == value)
+            {
+                return index;
+            }
+        }
+        fail("Value not in script: " + value);
+        return -1;
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,116 @@
+package org.nicegamepads;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.nicegamepads.simulation.SignalGenerators;
+import org.nicegamepads.simulation.SimulatedBackend;
+
+/**
+ * Enumerates and polls a thousand controllers from a
+ * {@link SimulatedBackend}, checking that scripted values arrive intact
+ * and that random signals change at the requested rate.
+ * <p>
+ * No hardware is required.  Exits with a non-zero status on failure.
+ */
+public class SimulatedBackendTest
+{
+    private final static int CONTROLLERS = 1000;
+    private final static int COMPONENTS = 8;
+    private final static int POLLS = 50;
+    private final static float CHANGE_PROBABILITY = 0.05f;
+    private final static float[] SCRIPT = {-1f, -0.5f, 0.5f, 1f};
+
+    public final static void main(String[] args) throws Exception
+    {
+        ControllerManager.initialize();
+
+        // Scripted values should come through untouched.
+        NiceController.setInputBackend(new SimulatedBackend(
+                new int[] {1, 4, 16}, SignalGenerators.scripted(SCRIPT)));
+        List<NiceController> scripted = NiceController.getAllControllers();
+        if (scripted.size() != 3
+                || scripted.get(2).getControls().size() != 16)
+        {
+            fail("enumerated " + scripted + " from the scripted backend");
+        }
+        for (int id = 0; id < scripted.size(); id++)
+        {
+            ControllerPoller poller =
+                ControllerPoller.getInstance(scripted.get(id));
+            poller.stopPolling();
+            poller.poll();
+            poller.poll();
+            ControllerState state = poller.createStateBuffer();
+            poller.readLatest(state);
+            for (NiceControl control : scripted.get(id).getControls())
+            {
+                float expected = SCRIPT[
+                    (2 + control.getIndex() + id) % SCRIPT.length];
+                if (state.getCurrentValue(control) != expected)
+                {
+                    fail("control " + control.getIndex() + " of controller "
+                            + id + " is " + state.getCurrentValue(control)
+                            + ", expected " + expected);
+                }
+            }
+        }
+
+        // A thousand random controllers.
+        SimulatedBackend backend = new SimulatedBackend(CONTROLLERS,
+                COMPONENTS, SignalGenerators.random(42L, CHANGE_PROBABILITY));
+        NiceController.setInputBackend(backend);
+        List<NiceController> controllers = NiceController.getAllGamepads();
+        if (controllers.size() != CONTROLLERS)
+        {
+            fail("found " + controllers.size() + " gamepads, expected "
+                    + CONTROLLERS);
+        }
+        final AtomicLong changes = new AtomicLong();
+        ControlChangeListener listener = new ControlChangeListener(){
+            @Override
+            public void valueChanged(ControlEvent event)
+            {
+                changes.incrementAndGet();
+            }
+        };
+        ControllerPoller[] pollers = new ControllerPoller[CONTROLLERS];
+        for (int index = 0; index < CONTROLLERS; index++)
+        {
+            pollers[index] = ControllerPoller.getInstance(controllers.get(index));
+            pollers[index].stopPolling();
+            pollers[index].setDispatchMode(DispatchMode.DIRECT);
+            pollers[index].addControlChangeListener(listener);
+        }
+        long start = System.nanoTime();
+        for (int poll = 0; poll < POLLS; poll++)
+        {
+            for (ControllerPoller poller : pollers)
+            {
+                poller.poll();
+            }
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1000L;
+        double rate = changes.get() / (double) (CONTROLLERS * COMPONENTS * POLLS);
+        System.out.println(CONTROLLERS * POLLS + " polls in " + elapsedMicros
+                + "us, " + changes.get() + " changes (rate " + rate + ")");
+        if (Math.abs(rate - CHANGE_PROBABILITY) > CHANGE_PROBABILITY / 5f)
+        {
+            fail("change rate " + rate + " is far from " + CHANGE_PROBABILITY);
+        }
+        if (backend.getController(0).getPollCount() != POLLS)
+        {
+            fail("controller 0 was polled "
+                    + backend.getController(0).getPollCount() + " times");
+        }
+
+        ControllerManager.shutdownNow();
+        System.out.println("PASSED");
+    }
+
+    private final static void fail(String message)
+    {
+        System.out.println("FAILED: " + message);
+        System.exit(1);
+    }
+}
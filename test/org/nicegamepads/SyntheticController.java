@@ -0,0 +1,239 @@
+package org.nicegamepads;
+
+import java.util.concurrent.locks.LockSupport;
+
+import net.java.games.input.Component;
+import net.java.games.input.Controller;
+import net.java.games.input.EventQueue;
+import net.java.games.input.Rumbler;
+
+/**
+ * A jinput controller that exists only in software, for exercising the
+ * framework without any hardware attached.
+ * <p>
+ * Each component cycles through a fixed script of values, advancing by one
+ * step every time the controller is polled.  Component <em>i</em> starts
+ * <em>i</em> steps into the script so that neighbouring components don't
+ * all report the same value at once.  Nothing is allocated while polling.
+ */
+public class SyntheticController implements Controller
+{
+    private final String name;
+    private final Component[] components;
+    private final float[] script;
+    private volatile int tick = 0;
+    private volatile long pollLatencyNanos = 0L;
+    private volatile boolean frozen = false;
+    private volatile boolean failing = false;
+    private volatile long pollCount = 0L;
+    private final EventQueue eventQueue = new EventQueue(0);
+
+    /**
+     * Creates a new synthetic controller.
+     *
+     * @param name the name the controller reports
+     * @param numComponents the number of components to create
+     * @param script the values the components cycle through
+     */
+    public SyntheticController(String name, int numComponents, float[] script)
+    {
+        this.name = name;
+        this.script = script.clone();
+        this.components = new Component[numComponents];
+        for (int index = 0; index < numComponents; index++)
+        {
+            components[index] = new SyntheticComponent(this, "Axis " + index, index);
+        }
+    }
+
+    /**
+     * Wraps this controller in a {@link NiceController}.
+     *
+     * @return the wrapper
+     */
+    public final NiceController wrap()
+    {
+        return NiceController.getInstance(this);
+    }
+
+    /**
+     * Makes every poll block for the specified time, as a poll of real
+     * hardware might while waiting for the device.
+     *
+     * @param nanos the time each poll takes, in nanoseconds
+     */
+    public final void setPollLatency(long nanos)
+    {
+        pollLatencyNanos = nanos;
+    }
+
+    /**
+     * Freezes or unfreezes the script.  While frozen, polls keep reporting
+     * the same values.
+     *
+     * @param frozen whether the values should stop changing
+     */
+    public final void setFrozen(boolean frozen)
+    {
+        this.frozen = frozen;
+    }
+
+    /**
+     * Makes polls fail, as they do when a device is unplugged.
+     *
+     * @param failing whether polls should fail
+     */
+    public final void setFailing(boolean failing)
+    {
+        this.failing = failing;
+    }
+
+    /**
+     * Returns the number of times this controller has been polled.
+     *
+     * @return the number of polls
+     */
+    public final long getPollCount()
+    {
+        return pollCount;
+    }
+
+    final float valueFor(int offset)
+    {
+        return script[(tick + offset) % script.length];
+    }
+
+    @Override
+    public boolean poll()
+    {
+        if (pollLatencyNanos > 0L)
+        {
+            LockSupport.parkNanos(pollLatencyNanos);
+        }
+        if (!frozen)
+        {
+            tick++;
+        }
+        pollCount++;
+        return !failing;
+    }
+
+    @Override
+    public Component[] getComponents()
+    {
+        return components;
+    }
+
+    @Override
+    public Component getComponent(Component.Identifier id)
+    {
+        return null;
+    }
+
+    @Override
+    public Controller[] getControllers()
+    {
+        return new Controller[0];
+    }
+
+    @Override
+    public Type getType()
+    {
+        return Type.GAMEPAD;
+    }
+
+    @Override
+    public Rumbler[] getRumblers()
+    {
+        return new Rumbler[0];
+    }
+
+    @Override
+    public void setEventQueueSize(int size)
+    {
+        // No events are generated.
+    }
+
+    @Override
+    public EventQueue getEventQueue()
+    {
+        return eventQueue;
+    }
+
+    @Override
+    public PortType getPortType()
+    {
+        return PortType.UNKNOWN;
+    }
+
+    @Override
+    public int getPortNumber()
+    {
+        return 0;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+
+    /**
+     * A component of a synthetic controller.
+     */
+    private final static class SyntheticComponent implements Component
+    {
+        private final SyntheticController owner;
+        private final String name;
+        private final int offset;
+
+        SyntheticComponent(SyntheticController owner, String name, int offset)
+        {
+            this.owner = owner;
+            this.name = name;
+            this.offset = offset;
+        }
+
+        @Override
+        public Identifier getIdentifier()
+        {
+            return null;
+        }
+
+        @Override
+        public boolean isRelative()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isAnalog()
+        {
+            return true;
+        }
+
+        @Override
+        public float getDeadZone()
+        {
+            return 0f;
+        }
+
+        @Override
+        public float getPollData()
+        {
+            return owner.valueFor(offset);
+        }
+
+        @Override
+        public String getName()
+        {
+            return name;
+        }
+    }
+}
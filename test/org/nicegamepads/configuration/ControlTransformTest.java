@@ -0,0 +1,291 @@
+package org.nicegamepads.configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.nicegamepads.NiceControlType;
+
+/**
+ * Checks that {@link ControlTransform} produces exactly the same bits as
+ * the original step-by-step transform across a cross-section of
+ * configurations.
+ * <p>
+ * By default every {@link #DEFAULT_STRIDE}-th float in [-1, 1] is
+ * checked, along with the few floats on either side of every boundary in
+ * the configuration (bin edges, dead zone bounds, the center and the ends
+ * of the range), where the two transforms are most likely to part ways.
+ * Pass a stride as the only argument to check more or fewer inputs; a
+ * stride of 1 checks every float in [-1, 1], which is a little over two
+ * billion inputs per configuration and takes hours.  Exits with a
+ * non-zero status if anything mismatches.
+ */
+public class ControlTransformTest
+{
+    private final static float[] GRANULARITIES = {Float.NaN, 0f, 0.1f, 0.25f, 0.3f};
+    private final static float[][] DEAD_ZONES = {{Float.NaN, Float.NaN}, {-0.1f, 0.1f}, {-0.3f, 0.05f}};
+    private final static boolean[] INVERSIONS = {false, true};
+    private final static float[] CENTERS = {Float.NaN, 0f, 0.25f, -0.4f};
+
+    /**
+     * Distance between checked inputs by default, in float bit patterns;
+     * prime, so that the checked inputs fall on every kind of mantissa.
+     */
+    private final static int DEFAULT_STRIDE = 1021;
+
+    /**
+     * Number of floats checked on either side of each boundary.
+     */
+    private final static int BOUNDARY_ULPS = 4;
+
+    public final static void main(String[] args) throws Exception
+    {
+        final int stride = args.length > 0
+            ? Integer.parseInt(args[0]) : DEFAULT_STRIDE;
+        List<ControlConfiguration> configs = new ArrayList<ControlConfiguration>();
+        for (float granularity : GRANULARITIES)
+        {
+            for (float[] deadZone : DEAD_ZONES)
+            {
+                for (boolean inverted : INVERSIONS)
+                {
+                    for (float center : CENTERS)
+                    {
+                        ControlConfigurationBuilder builder = new ControlConfigurationBuilder(null);
+                        builder.setGranularity(granularity);
+                        builder.setDeadZoneLowerBound(deadZone[0]);
+                        builder.setDeadZoneUpperBound(deadZone[1]);
+                        builder.setInverted(inverted);
+                        builder.setCenterValueOverride(center);
+                        configs.add(builder.build());
+                    }
+                }
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors());
+        List<Future<String>> results = new ArrayList<Future<String>>();
+        for (final ControlConfiguration config : configs)
+        {
+            for (final NiceControlType type : new NiceControlType[] {
+                    NiceControlType.CONTINUOUS_INPUT, NiceControlType.DISCRETE_INPUT})
+            {
+                results.add(pool.submit(new java.util.concurrent.Callable<String>(){
+                    @Override
+                    public String call()
+                    {
+                        return checkAllInputs(config, type, stride);
+                    }
+                }));
+            }
+        }
+
+        int failures = 0;
+        for (Future<String> result : results)
+        {
+            String failure = result.get();
+            if (failure != null)
+            {
+                System.out.println("FAILED: " + failure);
+                failures++;
+            }
+        }
+        pool.shutdown();
+        System.out.println(results.size() + " configurations checked, "
+                + failures + " failed");
+        if (failures > 0)
+        {
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+    }
+
+    /**
+     * Checks every <code>stride</code>-th float in [-1, 1] against the
+     * reference transform, always including both ends of the range and
+     * the floats around each boundary of the configuration.
+     *
+     * @return a description of the first mismatch, or <code>null</code>
+     */
+    private final static String checkAllInputs(ControlConfiguration config,
+            NiceControlType type, int stride)
+    {
+        ControlTransform compiled = new ControlTransform(config, type);
+        float[] bins = Float.isNaN(config.getGranularity()) || config.getGranularity() == 0f
+            ? null : getGranularityBins(config.getGranularity());
+        // [+0, 1] and then [-0, -1], walking the bit patterns directly.
+        int[][] ranges = {
+                {Float.floatToRawIntBits(0f), Float.floatToRawIntBits(1f)},
+                {Float.floatToRawIntBits(-0f), Float.floatToRawIntBits(-1f)}};
+        for (int[] range : ranges)
+        {
+            for (long next = range[0]; next <= range[1] + stride - 1; next += stride)
+            {
+                int bits = (int) Math.min(next, range[1]);
+                String failure = checkInput(Float.intBitsToFloat(bits),
+                        compiled, config, type, bins);
+                if (failure != null)
+                {
+                    return failure;
+                }
+            }
+        }
+
+        List<Float> boundaries = new ArrayList<Float>(Arrays.asList(
+                -1f, 0f, 1f, config.getDeadZoneLowerBound(),
+                config.getDeadZoneUpperBound(), config.getCenterValueOverride()));
+        if (bins != null)
+        {
+            for (float bin : bins)
+            {
+                boundaries.add(bin);
+            }
+        }
+        for (float boundary : boundaries)
+        {
+            if (Float.isNaN(boundary))
+            {
+                continue;
+            }
+            for (float sign : new float[] {1f, -1f})
+            {
+                float input = sign * boundary;
+                for (int ulp = 0; ulp < BOUNDARY_ULPS; ulp++)
+                {
+                    input = Math.nextDown(input);
+                }
+                for (int ulp = -BOUNDARY_ULPS; ulp <= BOUNDARY_ULPS; ulp++)
+                {
+                    if (input >= -1f && input <= 1f)
+                    {
+                        String failure = checkInput(input, compiled, config,
+                                type, bins);
+                        if (failure != null)
+                        {
+                            return failure;
+                        }
+                    }
+                    input = Math.nextUp(input);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks a single input against the reference transform.
+     *
+     * @return a description of the mismatch, or <code>null</code>
+     */
+    private final static String checkInput(float input,
+            ControlTransform compiled, ControlConfiguration config,
+            NiceControlType type, float[] bins)
+    {
+        float expected = referenceTransform(input, config, type, bins);
+        float actual = compiled.apply(input);
+        if (Float.floatToRawIntBits(expected) != Float.floatToRawIntBits(actual))
+        {
+            return type + " " + config + ": input " + input + " expected "
+                + expected + " but was " + actual;
+        }
+        return null;
+    }
+
+    /**
+     * The transform exactly as ControllerPoller performed it before it was
+     * compiled, kept here as the reference.
+     */
+    private final static float referenceTransform(float polledValue,
+            ControlConfiguration controlConfig, NiceControlType controlType,
+            float[] bins)
+    {
+        if (bins != null) {
+            int index = Arrays.binarySearch(bins, polledValue);
+            if (index < 0) {
+                index = (index + 1) * -1;
+                if (polledValue < 0)
+                {
+                    index++;
+                }
+                polledValue = bins[index];
+            }
+        }
+
+        if (!Float.isNaN(controlConfig.getDeadZoneLowerBound())) {
+            if (controlConfig.getDeadZoneLowerBound() <= polledValue && polledValue <= controlConfig.getDeadZoneUpperBound()) {
+                polledValue = 0f;
+            }
+        }
+
+        if (controlConfig.isInverted()) {
+            if (controlType == NiceControlType.DISCRETE_INPUT) {
+                polledValue = 1f - polledValue;
+            } else {
+                polledValue *= -1f;
+            }
+        }
+
+        if (!Float.isNaN(controlConfig.getCenterValueOverride()) && controlConfig.getCenterValueOverride() != 0f) {
+            float positiveExpansion;
+            float negativeExpansion;
+            if (controlConfig.getCenterValueOverride() > 0f) {
+                positiveExpansion = 1f - controlConfig.getCenterValueOverride();
+                negativeExpansion = 1f + controlConfig.getCenterValueOverride();
+            } else {
+                negativeExpansion = 1f - Math.abs(controlConfig.getCenterValueOverride());
+                positiveExpansion = 1f - controlConfig.getCenterValueOverride();
+            }
+
+            if (polledValue > 0) {
+                polledValue *= positiveExpansion;
+            } else if (polledValue < 0) {
+                polledValue *= negativeExpansion;
+            } else {
+                polledValue = controlConfig.getCenterValueOverride();
+            }
+        }
+
+        if (polledValue < -1.0f) {
+            polledValue = -1.0f;
+        } else if (polledValue > 1.0f) {
+            polledValue = 1.0f;
+        }
+        return polledValue;
+    }
+
+    /**
+     * The granularity bins exactly as ControllerPoller computed them before
+     * the transform was compiled.
+     */
+    private final static float[] getGranularityBins(float granularity)
+    {
+        final List<Float> listing = new LinkedList<Float>();
+        int counter = 1;
+        float currentValue = 0f;
+        while (currentValue > -1.0f) {
+            currentValue = 0f - (((float) counter) * granularity);
+            listing.add(0, currentValue);
+            counter++;
+        }
+        listing.add(0f);
+        counter = 1;
+        currentValue = 0f;
+        while (currentValue < 1.0f) {
+            currentValue = ((float) counter) * granularity;
+            listing.add(currentValue);
+            counter++;
+        }
+
+        float[] bins = new float[listing.size()];
+        counter = 0;
+        for (Float f : listing) {
+            bins[counter++] = f;
+        }
+        return bins;
+    }
+}